@@ -6,31 +6,84 @@ public class App {
   // Put 127.0.0.1 for Wokwi Simulator
   // private static final String SEND_IP_ADDR = "127.0.0.1";
   private static final String SEND_IP_ADDR = "10.237.91.181";
+  // Attach sequence numbers to operator commands and retransmit until acknowledged.
+  // Requires controller firmware that replies with ACK:SEQ:<n>.
+  private static final boolean RELIABLE_COMMANDS = false;
+  // Re-broadcast telemetry to viewer consoles over TCP on RELAY_PORT_NUMBER
+  private static final boolean TELEMETRY_RELAY = false;
+  private static final int RELAY_PORT_NUMBER = 3033;
+  // Join this multicast group on RECEIVE_PORT_NUMBER instead of receiving unicast,
+  // e.g. "239.255.30.32" (null = unicast). MULTICAST_INTERFACE names the network
+  // interface to join on (null = first multicast-capable one). MULTICAST_SOURCES
+  // limits which controllers are accepted (empty = any).
+  private static final String MULTICAST_GROUP = null;
+  private static final String MULTICAST_INTERFACE = null;
+  private static final String[] MULTICAST_SOURCES = {};
+  // Ask controllers for compact binary STATUS frames. Text STATUS is still accepted,
+  // so this is safe with firmware that doesn't support it.
+  private static final boolean BINARY_TELEMETRY = false;
+  // Send heartbeats as "heartbeat|HB:<n>|T:<time>" for the controller to echo back,
+  // for RTT, jitter and clock offset. Requires firmware that accepts the extra fields.
+  private static final boolean TIMESTAMPED_HEARTBEATS = false;
 
+  // Run with "--viewer <relay host>" for a read-only console fed by another
+  // console's telemetry relay instead of the controllers
   public static void main(String[] args) throws Exception {
+    String relayHost = args.length >= 2 && args[0].equals("--viewer") ? args[1] : null;
+
     // Create the GUI object first to get reference
     Gui userInterface = new Gui();
 
-    // Create and run the thread to receive messages
-    Receive receiveThread = new Receive(RECEIVE_PORT_NUMBER, userInterface);
-    receiveThread.start();
+    // Every controller gets its own sender, scheduler, heartbeat and liveness monitor.
+    // SEND_IP_ADDR is shown in the main window; other controllers are picked up once
+    // they send a valid STATUS.
+    Fleet fleet = new Fleet(userInterface, SEND_PORT_NUMBER, RELIABLE_COMMANDS);
+    fleet.setReadOnly(relayHost != null);
+    fleet.setBinaryTelemetry(BINARY_TELEMETRY);
+    fleet.setTimestampedHeartbeats(TIMESTAMPED_HEARTBEATS);
+    BridgeEndpoint primaryBridge = fleet.addDisplayedEndpoint(SEND_IP_ADDR);
 
-    // Create the object to send GUI messages
-    Send guiSendObject = new Send(SEND_PORT_NUMBER, SEND_IP_ADDR, userInterface);
-    // Create the object to send heartbeat messages
-    Send heartBeatSendObject = new Send(SEND_PORT_NUMBER, SEND_IP_ADDR, null);
+    // Initialise the GUI with the primary bridge's outbound scheduler
+    userInterface.initializeSender(primaryBridge.getOutboundScheduler());
+    userInterface.initializeFleet(fleet);
+    if (primaryBridge.getReliableCommands() != null) {
+      userInterface.initializeReliableCommands(primaryBridge.getReliableCommands());
+    }
 
-    // Initialise the GUI with the send object
-    userInterface.initializeSender(guiSendObject);
+    if (relayHost != null) {
+      // Viewer: telemetry comes from the relay, nothing is sent to the controllers
+      Receive relayReceive = new Receive(userInterface, fleet);
+      TelemetryViewer viewer = new TelemetryViewer(relayHost, RELAY_PORT_NUMBER, relayReceive, userInterface);
+      viewer.start();
 
-    // Create and run the threat to send heartbeat messages
-    Heartbeat heartBeatThread = new Heartbeat(heartBeatSendObject, userInterface);
-    heartBeatThread.start();
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+        Log.info("Shutting down...");
+        viewer.stopViewer();
+        fleet.stop();
+      }));
+      return;
+    }
+
+    // Create and run the thread to receive messages from every controller
+    Receive receiveThread = MULTICAST_GROUP != null
+        ? new Receive(MULTICAST_GROUP, RECEIVE_PORT_NUMBER, MULTICAST_INTERFACE, MULTICAST_SOURCES, userInterface,
+            fleet)
+        : new Receive(RECEIVE_PORT_NUMBER, userInterface, fleet);
+    TelemetryRelay relay = TELEMETRY_RELAY ? new TelemetryRelay(RELAY_PORT_NUMBER, fleet) : null;
+    if (relay != null) {
+      receiveThread.setTelemetryRelay(relay);
+      relay.start();
+    }
+    receiveThread.start();
 
     Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-      System.out.println("Shutting down...");
-      heartBeatThread.stopHeartbeat();
-      receiveThread.interrupt();
+      Log.info("Shutting down...");
+      if (relay != null) {
+        relay.stop();
+      }
+      fleet.stop();
+      receiveThread.stopReceiving();
+      Log.info("Receive lanes: " + receiveThread.getIngestLanes().formatSummary());
     }));
   }
 }
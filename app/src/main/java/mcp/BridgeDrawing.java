@@ -0,0 +1,116 @@
+package mcp;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+
+// Drawing primitives shared by the full bridge animation and the fleet overview
+// tiles. Coordinates are in the animation panel's scene space; the schematic
+// scales that space down and leaves out the decorative detail.
+final class BridgeDrawing {
+  // Scene area the schematic is laid out in before scaling
+  private static final int SCHEMATIC_WIDTH = 640;
+  private static final int SCHEMATIC_HEIGHT = 400;
+  private static final int SCHEMATIC_WATER_Y = 320;
+
+  private BridgeDrawing() {
+  }
+
+  static void drawGate(Graphics2D g2d, int gateX, int waterY, float gateAngle, boolean isLeftSide) {
+    int gateY = waterY - 81;
+
+    g2d.setColor(new Color(180, 60, 50));
+    g2d.fillRect(gateX - 8, gateY - 40, 16, 40);
+
+    AffineTransform old = g2d.getTransform();
+    g2d.translate(gateX, gateY - 40);
+
+    if (isLeftSide) {
+      g2d.rotate(-Math.toRadians(gateAngle));
+    } else {
+      g2d.rotate(Math.toRadians(gateAngle));
+      g2d.scale(-1, 1);
+    }
+
+    g2d.setColor(new Color(180, 60, 50));
+    g2d.fillRect(0, -6, 120, 12);
+
+    g2d.setColor(new Color(240, 240, 240));
+    for (int i = 0; i < 120; i += 20) {
+      g2d.fillRect(i, -6, 10, 12);
+    }
+
+    g2d.setTransform(old);
+  }
+
+  static void drawTrafficLightPole(Graphics2D g2d, int x, int y, BridgeStatus.Light activeLight,
+      boolean isRoadLight) {
+    boolean all = activeLight == BridgeStatus.Light.ALL;
+    g2d.setColor(new Color(40, 45, 50));
+    g2d.fillRect(x - 4, y - 120, 8, 120);
+
+    g2d.setColor(new Color(30, 35, 40));
+    int boxHeight = isRoadLight ? 90 : 60;
+    g2d.fillRect(x - 20, y - 150, 40, boxHeight);
+
+    if (isRoadLight) {
+      drawLight(g2d, x, y - 133, all || activeLight == BridgeStatus.Light.RED, Color.RED);
+      drawLight(g2d, x, y - 105, all || activeLight == BridgeStatus.Light.YELLOW, new Color(255, 200, 0));
+      drawLight(g2d, x, y - 77, all || activeLight == BridgeStatus.Light.GREEN, Color.GREEN);
+    } else {
+      drawLight(g2d, x, y - 133, all || activeLight == BridgeStatus.Light.RED, Color.RED);
+      drawLight(g2d, x, y - 100, all || activeLight == BridgeStatus.Light.GREEN, Color.GREEN);
+    }
+  }
+
+  static void drawLight(Graphics2D g2d, int x, int y, boolean active, Color color) {
+    g2d.setColor(active ? color : new Color(40, 40, 40));
+    g2d.fillOval(x - 8, y - 8, 16, 16);
+
+    g2d.setColor(new Color(20, 20, 20));
+    g2d.setStroke(new BasicStroke(1));
+    g2d.drawOval(x - 8, y - 8, 16, 16);
+  }
+
+  // Low-detail still of the bridge for a width x height area: flat sky and water,
+  // towers, deck, gates and traffic lights. No clouds, waves, cables or markings.
+  static void drawSchematic(Graphics2D g2d, int width, int height, float bridgeAngle, float gateAngle,
+      BridgeStatus.Light roadLight, BridgeStatus.Light boatLight, boolean bridgeLightsOn) {
+    AffineTransform old = g2d.getTransform();
+    double scale = Math.min((double) width / SCHEMATIC_WIDTH, (double) height / SCHEMATIC_HEIGHT);
+    g2d.translate((width - SCHEMATIC_WIDTH * scale) / 2, (height - SCHEMATIC_HEIGHT * scale) / 2);
+    g2d.scale(scale, scale);
+
+    int centerX = SCHEMATIC_WIDTH / 2;
+    int waterY = SCHEMATIC_WATER_Y;
+    int bridgeWidth = 180;
+    int towerWidth = 30;
+    int towerHeight = 280;
+    int deckHeight = 18;
+    int liftOffset = (int) (-bridgeAngle * 2.2f);
+
+    g2d.setColor(new Color(150, 210, 250));
+    g2d.fillRect(0, 0, SCHEMATIC_WIDTH, waterY);
+    g2d.setColor(new Color(0x235995));
+    g2d.fillRect(0, waterY - 10, SCHEMATIC_WIDTH, SCHEMATIC_HEIGHT - waterY + 10);
+
+    g2d.setColor(new Color(50, 55, 60));
+    g2d.fillRect(centerX - bridgeWidth - towerWidth, waterY - towerHeight, towerWidth, towerHeight);
+    g2d.fillRect(centerX + bridgeWidth, waterY - towerHeight, towerWidth, towerHeight);
+
+    g2d.setColor(bridgeLightsOn ? new Color(255, 220, 100) : new Color(60, 65, 70));
+    g2d.fillRect(centerX - bridgeWidth, waterY - 85 + liftOffset - deckHeight / 2, bridgeWidth * 2, deckHeight);
+
+    g2d.setColor(new Color(35, 37, 40));
+    g2d.fillRect(0, waterY - 89, centerX - bridgeWidth - towerWidth, 8);
+    g2d.fillRect(centerX + bridgeWidth + towerWidth, waterY - 89, SCHEMATIC_WIDTH, 8);
+
+    drawGate(g2d, centerX - 200, waterY, gateAngle, true);
+    drawGate(g2d, centerX + 200, waterY, gateAngle, false);
+    drawTrafficLightPole(g2d, centerX - 285, waterY - 81, roadLight, true);
+    drawTrafficLightPole(g2d, centerX + 285, waterY - 81, boatLight, false);
+
+    g2d.setTransform(old);
+  }
+}
@@ -0,0 +1,226 @@
+package mcp;
+
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// One ESP32 bridge controller and everything the console keeps for it: its own
+// sender, outbound scheduler, heartbeat, liveness monitor and latest STATUS.
+// Only the displayed bridge is wired to the main window's controls and panels;
+// the others keep their state current in the background.
+class BridgeEndpoint {
+  // While deltas keep failing to apply, ask for a full STATUS at most this often
+  private static final long RESYNC_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+  private final InetAddress address;
+  private final String name;
+  private final boolean displayed;
+  private final boolean readOnly;
+  // Null on read-only viewer consoles
+  private final Send send;
+  private final OutboundScheduler outboundScheduler;
+  private final Heartbeat heartbeat;
+  private final LivenessMonitor livenessMonitor;
+  // Null unless reliable command delivery is enabled
+  private final ReliableCommands reliableCommands;
+
+  // Commands waiting for a COMMAND_EXECUTION reply, completed with its receive time
+  private final Map<String, CompletableFuture<Long>> pendingExecutions = new ConcurrentHashMap<>();
+
+  // Telemetry sequence numbers (TSEQ) seen from this controller
+  private final SequenceTracker sequenceTracker = new SequenceTracker();
+
+  private volatile BridgeStatus latestStatus;
+  // Last STATUS with every field, which STATUS_DELTA frames may also be based on
+  private volatile BridgeStatus lastFullStatus;
+  // Written only by the receive thread
+  private volatile long packetsReceived = 0;
+  private long lastResyncRequestNanos = 0;
+  // The last STATUS datagram exactly as received, so identical repeats can be
+  // dropped before decoding. Receive thread only.
+  private byte[] lastFrame = new byte[0];
+  private int lastFrameLength = -1;
+  private int lastFrameHash;
+
+  BridgeEndpoint(InetAddress address, int sendPortNumber, Gui userInterface, boolean displayed,
+      boolean reliableCommandsEnabled, boolean readOnly, TimerWheel timerWheel) {
+    this.address = address;
+    this.name = address.getHostAddress();
+    this.displayed = displayed;
+    this.readOnly = readOnly;
+
+    Gui displayInterface = displayed ? userInterface : null;
+    MessageSender transport;
+    if (readOnly) {
+      send = null;
+      transport = message -> CompletableFuture
+          .failedFuture(new IllegalStateException("Viewer console is read-only"));
+    } else {
+      send = new Send(sendPortNumber, name);
+      transport = send;
+    }
+    outboundScheduler = new OutboundScheduler(transport, 5, 5.0, timerWheel);
+    heartbeat = new Heartbeat(outboundScheduler, displayInterface, timerWheel);
+    reliableCommands = reliableCommandsEnabled ? new ReliableCommands(outboundScheduler, timerWheel) : null;
+
+    LivenessMonitor.Listener livenessListener;
+    if (displayed && userInterface != null) {
+      livenessListener = userInterface::updateLiveness;
+    } else {
+      livenessListener = (previous, current, phi, silenceMillis) -> logLiveness(userInterface, previous, current);
+    }
+    livenessMonitor = new LivenessMonitor(livenessListener, LivenessMonitor.DEFAULT_WARN_PHI,
+        LivenessMonitor.DEFAULT_LOST_PHI, timerWheel);
+  }
+
+  public void start() {
+    if (!readOnly) {
+      heartbeat.start();
+    }
+    livenessMonitor.start();
+  }
+
+  public void stop() {
+    heartbeat.stopHeartbeat();
+    livenessMonitor.stop();
+    if (send != null) {
+      send.close();
+    }
+  }
+
+  // Firmware that understands this switches STATUS to binary frames
+  public void requestBinaryTelemetry() {
+    if (!readOnly) {
+      outboundScheduler.sendAsync("telemetry_format:binary" + BridgeStatus.BINARY_VERSION);
+    }
+  }
+
+  // Background bridges only report losing and regaining contact
+  private void logLiveness(Gui userInterface, LivenessMonitor.State previous, LivenessMonitor.State current) {
+    String message;
+    if (current == LivenessMonitor.State.LOST) {
+      message = "WARNING: [" + name + "] Communication lost";
+    } else if (previous == LivenessMonitor.State.LOST) {
+      message = "SYSTEM: [" + name + "] Communication restored";
+    } else {
+      return;
+    }
+    Log.info(message);
+    if (userInterface != null) {
+      userInterface.updateMessageLog(message);
+    }
+  }
+
+  // Completes when the controller reports executing command. Concurrent waits for
+  // the same command share one future.
+  CompletableFuture<Long> awaitExecution(String command) {
+    return pendingExecutions.computeIfAbsent(command, key -> new CompletableFuture<>());
+  }
+
+  void cancelExecutionWait(String command, CompletableFuture<Long> execution) {
+    pendingExecutions.remove(command, execution);
+  }
+
+  // Replies may add detail after the command name, e.g. "run_full_test_success"
+  void noteCommandExecuted(String content, long receivedNanos) {
+    if (pendingExecutions.isEmpty()) {
+      return;
+    }
+    for (Map.Entry<String, CompletableFuture<Long>> entry : pendingExecutions.entrySet()) {
+      if (content.startsWith(entry.getKey()) && pendingExecutions.remove(entry.getKey(), entry.getValue())) {
+        entry.getValue().complete(receivedNanos);
+      }
+    }
+  }
+
+  void notePacketReceived() {
+    packetsReceived++;
+  }
+
+  void setLatestStatus(BridgeStatus latestStatus) {
+    this.latestStatus = latestStatus;
+  }
+
+  public BridgeStatus getLastFullStatus() {
+    return lastFullStatus;
+  }
+
+  void setLastFullStatus(BridgeStatus lastFullStatus) {
+    this.lastFullStatus = lastFullStatus;
+  }
+
+  boolean isRepeatedFrame(int hash, byte[] data, int length) {
+    // The hash rules out almost every changed frame; the compare makes a collision harmless
+    return hash == lastFrameHash && length == lastFrameLength
+        && Arrays.equals(data, 0, length, lastFrame, 0, length);
+  }
+
+  void rememberFrame(int hash, byte[] data, int length) {
+    if (lastFrame.length < length) {
+      lastFrame = new byte[length];
+    }
+    System.arraycopy(data, 0, lastFrame, 0, length);
+    lastFrameLength = length;
+    lastFrameHash = hash;
+  }
+
+  // State changed some other way (e.g. a delta), so the next STATUS must be decoded
+  void forgetFrame() {
+    lastFrameLength = -1;
+  }
+
+  // Asks the controller for a full STATUS after a delta that can't be applied.
+  // Returns false if a request went out recently or the console is read-only.
+  boolean requestResync(long nowNanos) {
+    if (readOnly || (lastResyncRequestNanos != 0 && nowNanos - lastResyncRequestNanos < RESYNC_INTERVAL_NANOS)) {
+      return false;
+    }
+    lastResyncRequestNanos = nowNanos;
+    outboundScheduler.sendAsync("status_resync");
+    return true;
+  }
+
+  public InetAddress getAddress() {
+    return address;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public boolean isDisplayed() {
+    return displayed;
+  }
+
+  public OutboundScheduler getOutboundScheduler() {
+    return outboundScheduler;
+  }
+
+  public Heartbeat getHeartbeat() {
+    return heartbeat;
+  }
+
+  public LivenessMonitor getLivenessMonitor() {
+    return livenessMonitor;
+  }
+
+  public ReliableCommands getReliableCommands() {
+    return reliableCommands;
+  }
+
+  // Null until the first STATUS arrives
+  public BridgeStatus getLatestStatus() {
+    return latestStatus;
+  }
+
+  public SequenceTracker getSequenceTracker() {
+    return sequenceTracker;
+  }
+
+  public long getPacketsReceived() {
+    return packetsReceived;
+  }
+}
@@ -0,0 +1,384 @@
+package mcp;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// One parsed STATUS message. Fields are stored in an array indexed by Field, so a
+// status is a single small object however many bridges are reporting. The
+// states the console acts on are also resolved to enums when the status is
+// built, so the GUI and animation compare references rather than strings; a
+// value the console doesn't recognise is reported once and treated as UNKNOWN.
+//
+// STATUS arrives either as text ("STATUS: MODE:AUTOMATIC|BRIDGE:CLOSED|...") or as
+// a fixed 28-byte binary frame, big-endian:
+//   magic 0xB5, version, bridge ID (u16), sequence (u32), then each Field in
+//   declaration order - a u8 index into its vocabulary, or a u16 for numeric
+//   fields with 0xFFFF meaning empty.
+// The magic byte is never valid text, so each datagram can be told apart by its
+// first byte. Adding or reordering fields needs a new version.
+final class BridgeStatus {
+  static final byte BINARY_MAGIC = (byte) 0xB5;
+  static final byte BINARY_VERSION = 1;
+  private static final int HEADER_SIZE = 8;
+  static final int NUMERIC_EMPTY = 0xFFFF;
+
+  enum Field {
+    MODE("UNKNOWN", "AUTOMATIC", "OVERRIDE"),
+    BRIDGE("UNKNOWN", "OPEN", "CLOSED", "OPENING", "CLOSING"),
+    GATE("UNKNOWN", "OPEN", "CLOSED", "OPENING", "CLOSING"),
+    ROAD_DISTANCE("0"),
+    BOAT_DISTANCE("0"),
+    BRIDGE_MOVEMENT_DISTANCE("0"),
+    BOAT_CLEARANCE_DISTANCE("0"),
+    ROAD_LIGHT("UNKNOWN", "RED", "YELLOW", "GREEN", "OFF", "ALL"),
+    BOAT_LIGHT("UNKNOWN", "RED", "YELLOW", "GREEN", "OFF", "ALL"),
+    BRIDGE_LIGHT("OFF", "ON"),
+    MANUAL_BRIDGE_LIGHTS("NO", "YES", "No", "Yes"),
+    SEQUENCE("UNKNOWN", "IDLE", "CARS_PASSING", "BOATS_PASSING", "DIAGNOSTIC", "OPENING", "CLOSING"),
+    MOVEMENT_STATE("UNKNOWN", "IDLE", "OPENING", "CLOSING", "STOPPED"),
+    QUEUE(""),
+    EXECUTING("", "YES", "NO");
+
+    private static final Field[] VALUES = values();
+    private static final Map<String, Field> BY_KEY = new HashMap<>();
+
+    static {
+      for (Field field : VALUES) {
+        BY_KEY.put(field.name(), field);
+      }
+    }
+
+    final String defaultValue;
+    // Values a binary frame can carry, by index, starting with the default.
+    // Empty for numeric fields. New values go on the end so existing indices keep
+    // their meaning.
+    final String[] vocabulary;
+
+    Field(String defaultValue, String... states) {
+      this.defaultValue = defaultValue;
+      if (states.length == 0) {
+        vocabulary = states;
+      } else {
+        vocabulary = new String[states.length + 1];
+        vocabulary[0] = defaultValue;
+        System.arraycopy(states, 0, vocabulary, 1, states.length);
+      }
+    }
+
+    boolean isNumeric() {
+      return vocabulary.length == 0;
+    }
+
+    int binarySize() {
+      return isNumeric() ? 2 : 1;
+    }
+
+    // The field for a wire key such as "ROAD_DISTANCE", or null if unknown
+    static Field forKey(String key) {
+      return BY_KEY.get(key);
+    }
+  }
+
+  enum Mode {
+    UNKNOWN,
+    AUTOMATIC,
+    OVERRIDE
+  }
+
+  // Bridge deck or road gate
+  enum Position {
+    UNKNOWN,
+    OPEN,
+    CLOSED,
+    OPENING,
+    CLOSING
+  }
+
+  // ALL lights every lamp on the pole (used by diagnostics)
+  enum Light {
+    UNKNOWN,
+    RED,
+    YELLOW,
+    GREEN,
+    ALL,
+    OFF
+  }
+
+  enum SequenceState {
+    UNKNOWN,
+    IDLE,
+    CARS_PASSING,
+    BOATS_PASSING,
+    DIAGNOSTIC,
+    OPENING,
+    CLOSING;
+
+    // Normal traffic flow, as opposed to diagnostics or a sequence in progress
+    boolean isSteady() {
+      return this == IDLE || this == CARS_PASSING || this == BOATS_PASSING;
+    }
+  }
+
+  enum MovementState {
+    UNKNOWN,
+    IDLE,
+    OPENING,
+    CLOSING,
+    STOPPED
+  }
+
+  private static final Map<String, Mode> MODES = byName(Mode.values());
+  private static final Map<String, Position> POSITIONS = byName(Position.values());
+  private static final Map<String, Light> LIGHTS = byName(Light.values());
+  private static final Map<String, SequenceState> SEQUENCE_STATES = byName(SequenceState.values());
+  private static final Map<String, MovementState> MOVEMENT_STATES = byName(MovementState.values());
+  // "FIELD=value" pairs already reported as unrecognised
+  private static final Set<String> REPORTED_UNKNOWN = ConcurrentHashMap.newKeySet();
+
+  static final int BINARY_FRAME_SIZE;
+
+  static {
+    int size = HEADER_SIZE;
+    for (Field field : Field.VALUES) {
+      size += field.binarySize();
+    }
+    BINARY_FRAME_SIZE = size;
+  }
+
+  private final String[] values;
+  private final int partCount;
+  private final long receivedNanos;
+  // From the binary header, or -1 for text. The sequence is also set for text
+  // that carried TSEQ.
+  private final int bridgeId;
+  private final long sequence;
+
+  private final Mode mode;
+  private final Position bridgeState;
+  private final Position gateState;
+  private final Light roadLight;
+  private final Light boatLight;
+  private final SequenceState sequenceState;
+  private final MovementState movementState;
+  private final boolean bridgeLightOn;
+  private final boolean manualBridgeLights;
+  private final boolean executing;
+
+  private BridgeStatus(String[] values, int partCount, long receivedNanos, int bridgeId, long sequence) {
+    this.values = values;
+    this.partCount = partCount;
+    this.receivedNanos = receivedNanos;
+    this.bridgeId = bridgeId;
+    this.sequence = sequence;
+
+    mode = resolve(Field.MODE, MODES, Mode.UNKNOWN);
+    bridgeState = resolve(Field.BRIDGE, POSITIONS, Position.UNKNOWN);
+    gateState = resolve(Field.GATE, POSITIONS, Position.UNKNOWN);
+    roadLight = resolve(Field.ROAD_LIGHT, LIGHTS, Light.UNKNOWN);
+    boatLight = resolve(Field.BOAT_LIGHT, LIGHTS, Light.UNKNOWN);
+    sequenceState = resolve(Field.SEQUENCE, SEQUENCE_STATES, SequenceState.UNKNOWN);
+    movementState = resolve(Field.MOVEMENT_STATE, MOVEMENT_STATES, MovementState.UNKNOWN);
+    bridgeLightOn = values[Field.BRIDGE_LIGHT.ordinal()].equals("ON");
+    // Firmware has sent both "Yes" and "YES"
+    manualBridgeLights = values[Field.MANUAL_BRIDGE_LIGHTS.ordinal()].equalsIgnoreCase("YES");
+    executing = values[Field.EXECUTING.ordinal()].equals("YES");
+  }
+
+  private static <E extends Enum<E>> Map<String, E> byName(E[] constants) {
+    Map<String, E> map = new HashMap<>();
+    for (E constant : constants) {
+      map.put(constant.name(), constant);
+    }
+    return map;
+  }
+
+  private <E extends Enum<E>> E resolve(Field field, Map<String, E> constants, E unknown) {
+    String value = values[field.ordinal()];
+    E resolved = constants.get(value);
+    if (resolved != null) {
+      return resolved;
+    }
+    if (REPORTED_UNKNOWN.add(field.name() + '=' + value)) {
+      Log.warn("Unrecognised " + field.name() + " value '" + value + "' in STATUS");
+    }
+    return unknown;
+  }
+
+  static boolean isBinaryFrame(byte[] data, int length) {
+    return length > 0 && data[0] == BINARY_MAGIC;
+  }
+
+  // Parses "STATUS: MODE:x|BRIDGE:y|..." or returns null if there is no MODE field.
+  // Unknown keys are ignored and missing ones keep their defaults.
+  static BridgeStatus parse(String statusMessage, long receivedNanos) {
+    return parse(statusMessage, receivedNanos, -1);
+  }
+
+  // As above, for a STATUS that carried the controller's sequence number (TSEQ)
+  static BridgeStatus parse(String statusMessage, long receivedNanos, long sequence) {
+    int dataStart = statusMessage.indexOf("MODE:");
+    if (dataStart == -1) {
+      return null;
+    }
+
+    String[] values = new String[Field.VALUES.length];
+    for (Field field : Field.VALUES) {
+      values[field.ordinal()] = field.defaultValue;
+    }
+    int partCount = parseFields(statusMessage, dataStart, values);
+    return new BridgeStatus(values, partCount, receivedNanos, -1, sequence);
+  }
+
+  // Applies "STATUS_DELTA: TSEQ:<n>|BASE:<m>|KEY:value|..." on top of base. Only
+  // the changed fields are parsed; the rest are shared with base.
+  static BridgeStatus applyDelta(BridgeStatus base, String deltaMessage, long receivedNanos, long sequence) {
+    int colonIndex = deltaMessage.indexOf(':');
+    String[] values = base.values.clone();
+    int partCount = parseFields(deltaMessage, colonIndex + 1, values);
+    return new BridgeStatus(values, partCount, receivedNanos, base.bridgeId, sequence);
+  }
+
+  // Stores each known "KEY:value" part from start onwards, returning how many parts there were
+  private static int parseFields(String message, int start, String[] values) {
+    int partCount = 0;
+    int partStart = start;
+    while (partStart <= message.length()) {
+      int partEnd = message.indexOf('|', partStart);
+      if (partEnd == -1) {
+        partEnd = message.length();
+      }
+      partCount++;
+
+      int colonIndex = message.indexOf(':', partStart);
+      if (colonIndex != -1 && colonIndex < partEnd) {
+        Field field = Field.forKey(message.substring(partStart, colonIndex).trim());
+        if (field != null) {
+          values[field.ordinal()] = message.substring(colonIndex + 1, partEnd).trim();
+        }
+      }
+      partStart = partEnd + 1;
+    }
+    return partCount;
+  }
+
+  // Decodes a binary frame at the buffer's position, or returns null if it is
+  // truncated, from an unknown version or holds an out-of-range index
+  static BridgeStatus decode(ByteBuffer frame, long receivedNanos) {
+    try {
+      if (frame.get() != BINARY_MAGIC || frame.get() != BINARY_VERSION) {
+        return null;
+      }
+      int bridgeId = frame.getShort() & 0xFFFF;
+      long sequence = frame.getInt() & 0xFFFFFFFFL;
+
+      String[] values = new String[Field.VALUES.length];
+      for (Field field : Field.VALUES) {
+        if (field.isNumeric()) {
+          int value = frame.getShort() & 0xFFFF;
+          values[field.ordinal()] = value == NUMERIC_EMPTY ? "" : Integer.toString(value);
+        } else {
+          int index = frame.get() & 0xFF;
+          if (index >= field.vocabulary.length) {
+            return null;
+          }
+          values[field.ordinal()] = field.vocabulary[index];
+        }
+      }
+      return new BridgeStatus(values, Field.VALUES.length, receivedNanos, bridgeId, sequence);
+    } catch (BufferUnderflowException e) {
+      return null;
+    }
+  }
+
+  // Wire form without the "STATUS:" prefix, e.g. "MODE:AUTOMATIC|BRIDGE:CLOSED|..."
+  public String format() {
+    StringBuilder builder = new StringBuilder(256);
+    for (Field field : Field.VALUES) {
+      if (builder.length() > 0) {
+        builder.append('|');
+      }
+      builder.append(field.name()).append(':').append(values[field.ordinal()]);
+    }
+    return builder.toString();
+  }
+
+  // Only the fields that differ from previous, in the same wire form ("" if none).
+  // Parsing a full status followed by "|" and its delta yields the new status.
+  static String formatDelta(BridgeStatus previous, BridgeStatus current) {
+    StringBuilder builder = new StringBuilder();
+    for (Field field : Field.VALUES) {
+      String value = current.values[field.ordinal()];
+      if (previous == null || !value.equals(previous.values[field.ordinal()])) {
+        if (builder.length() > 0) {
+          builder.append('|');
+        }
+        builder.append(field.name()).append(':').append(value);
+      }
+    }
+    return builder.toString();
+  }
+
+  public String get(Field field) {
+    return values[field.ordinal()];
+  }
+
+  public int getPartCount() {
+    return partCount;
+  }
+
+  public long getReceivedNanos() {
+    return receivedNanos;
+  }
+
+  public Mode getMode() {
+    return mode;
+  }
+
+  public Position getBridgeState() {
+    return bridgeState;
+  }
+
+  public Position getGateState() {
+    return gateState;
+  }
+
+  public Light getRoadLight() {
+    return roadLight;
+  }
+
+  public Light getBoatLight() {
+    return boatLight;
+  }
+
+  public SequenceState getSequenceState() {
+    return sequenceState;
+  }
+
+  public MovementState getMovementState() {
+    return movementState;
+  }
+
+  public boolean isBridgeLightOn() {
+    return bridgeLightOn;
+  }
+
+  public boolean isManualBridgeLights() {
+    return manualBridgeLights;
+  }
+
+  public boolean isExecuting() {
+    return executing;
+  }
+
+  public int getBridgeId() {
+    return bridgeId;
+  }
+
+  public long getSequence() {
+    return sequence;
+  }
+}
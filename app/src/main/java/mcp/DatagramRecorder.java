@@ -0,0 +1,327 @@
+package mcp;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+// Always-on flight recorder of raw datagrams in both directions. Records are
+// copied into a fixed direct buffer used as a ring, so recording allocates
+// nothing (beyond the first sight of a new address) and the heap never grows;
+// the oldest records are overwritten once the buffer is full. Nothing is
+// formatted until a dump is asked for, either from the GUI or automatically
+// when a controller reports an ERROR.
+class DatagramRecorder {
+  enum Direction {
+    IN,
+    OUT
+  }
+
+  static final int DEFAULT_CAPACITY = 8 * 1024 * 1024;
+  static final long DEFAULT_RETENTION_MILLIS = TimeUnit.MINUTES.toMillis(10);
+  static final String DUMP_DIRECTORY = "recordings";
+  // At most one automatic dump per window, however many errors arrive
+  private static final long AUTO_DUMP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(30);
+  private static final long WALL_CLOCK_BIAS_NANOS = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis())
+      - System.nanoTime();
+
+  // Record layout: size, direction, address length, port, wall-clock nanos,
+  // address (padded to 16 bytes), payload length, payload
+  private static final int HEADER_SIZE = 4 + 1 + 1 + 2 + 8 + 16 + 2;
+  private static final int MAX_PAYLOAD = 0xFFFF;
+  // Written where a record didn't fit before the end of the buffer
+  private static final int WRAP_MARKER = -1;
+
+  // Enough for every controller in a fleet plus the local sender
+  private static final int ADDRESS_CACHE_SIZE = 16;
+  private static final byte[] NO_ADDRESS = new byte[0];
+
+  private static DatagramRecorder sharedInstance;
+
+  private final ByteBuffer buffer;
+  private final int capacity;
+  private final long retentionMillis;
+  private int writePosition = 0;
+  private int oldestPosition = 0;
+  private int recordCount = 0;
+  private long recordedTotal = 0;
+  private long lastAutoDumpNanos = 0;
+  private volatile boolean autoDumpEnabled = true;
+  // Guarded by this, like the ring
+  private final InetAddress[] cachedAddresses = new InetAddress[ADDRESS_CACHE_SIZE];
+  private final byte[][] cachedAddressBytes = new byte[ADDRESS_CACHE_SIZE][];
+  private int nextAddressSlot = 0;
+
+  DatagramRecorder() {
+    this(DEFAULT_CAPACITY, DEFAULT_RETENTION_MILLIS);
+  }
+
+  DatagramRecorder(int capacity, long retentionMillis) {
+    if (capacity < HEADER_SIZE + MAX_PAYLOAD) {
+      throw new IllegalArgumentException("Capacity must hold at least one maximum-size datagram");
+    }
+    this.buffer = ByteBuffer.allocateDirect(capacity);
+    this.capacity = capacity;
+    this.retentionMillis = retentionMillis;
+  }
+
+  // The recorder shared by every sender and receiver in this JVM
+  static synchronized DatagramRecorder shared() {
+    if (sharedInstance == null) {
+      sharedInstance = new DatagramRecorder();
+    }
+    return sharedInstance;
+  }
+
+  public void recordInbound(InetAddress address, int port, byte[] data, int length, long receivedNanos) {
+    record(Direction.IN, address, port, data, length, receivedNanos);
+  }
+
+  public void recordOutbound(InetAddress address, int port, byte[] data, int length, long sentNanos) {
+    record(Direction.OUT, address, port, data, length, sentNanos);
+  }
+
+  synchronized void record(Direction direction, InetAddress address, int port, byte[] data, int length,
+      long nanos) {
+    int payloadLength = Math.min(length, MAX_PAYLOAD);
+    int size = HEADER_SIZE + payloadLength;
+    if (writePosition + size > capacity) {
+      evict(writePosition, capacity);
+      if (writePosition + 4 <= capacity) {
+        buffer.putInt(writePosition, WRAP_MARKER);
+      }
+      writePosition = 0;
+    }
+    evict(writePosition, writePosition + size);
+    if (recordCount == 0) {
+      oldestPosition = writePosition;
+    }
+
+    byte[] addressBytes = addressBytes(address);
+    int position = writePosition;
+    buffer.putInt(position, size);
+    buffer.put(position + 4, (byte) direction.ordinal());
+    buffer.put(position + 5, (byte) addressBytes.length);
+    buffer.putShort(position + 6, (short) port);
+    buffer.putLong(position + 8, nanos + WALL_CLOCK_BIAS_NANOS);
+    buffer.put(position + 16, addressBytes);
+    buffer.putShort(position + 32, (short) payloadLength);
+    buffer.put(position + HEADER_SIZE, data, 0, payloadLength);
+
+    writePosition += size;
+    recordCount++;
+    recordedTotal++;
+  }
+
+  // InetAddress.getAddress() returns a fresh copy each call, so the bytes of the
+  // few addresses in use are kept; equals() on an address doesn't allocate
+  private byte[] addressBytes(InetAddress address) {
+    if (address == null) {
+      return NO_ADDRESS;
+    }
+    for (int i = 0; i < ADDRESS_CACHE_SIZE; i++) {
+      if (address.equals(cachedAddresses[i])) {
+        return cachedAddressBytes[i];
+      }
+    }
+    int slot = nextAddressSlot;
+    nextAddressSlot = (slot + 1) % ADDRESS_CACHE_SIZE;
+    cachedAddresses[slot] = address;
+    cachedAddressBytes[slot] = address.getAddress();
+    return cachedAddressBytes[slot];
+  }
+
+  // Drops the oldest records while they start inside [start, end)
+  private void evict(int start, int end) {
+    while (recordCount > 0 && oldestPosition >= start && oldestPosition < end) {
+      if (oldestPosition + 4 > capacity || buffer.getInt(oldestPosition) == WRAP_MARKER) {
+        oldestPosition = 0;
+        continue;
+      }
+      oldestPosition += buffer.getInt(oldestPosition);
+      recordCount--;
+    }
+  }
+
+  public synchronized int getRecordCount() {
+    return recordCount;
+  }
+
+  public synchronized long getRecordedTotal() {
+    return recordedTotal;
+  }
+
+  public void setAutoDumpEnabled(boolean autoDumpEnabled) {
+    this.autoDumpEnabled = autoDumpEnabled;
+  }
+
+  // Writes every record from the retention window to file, oldest first, one line
+  // each. Returns how many records were written. Records are taken one at a time,
+  // so the dump needs no heap copy of the ring: under the lock a record is only
+  // copied into a scratch buffer, and it is formatted and written to the file
+  // after the lock is released, so recording never waits on the disk. Records
+  // overwritten while the dump runs are skipped.
+  public int dump(Path file, String reason) throws IOException {
+    long cutoffNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - retentionMillis);
+    ByteBuffer ring = buffer.duplicate();
+    ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + MAX_PAYLOAD);
+    // Prefix, payload as text or hex, newline
+    ByteBuffer line = ByteBuffer.allocate(128 + 2 * MAX_PAYLOAD + 1);
+    int written = 0;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+      writeFully(channel, ByteBuffer.wrap(("# Datagram flight recording: " + reason + "\n")
+          .getBytes(StandardCharsets.UTF_8)));
+      long next;
+      long end;
+      int position;
+      synchronized (this) {
+        next = recordedTotal - recordCount;
+        end = recordedTotal;
+        position = oldestPosition;
+      }
+      while (next < end) {
+        boolean copied = false;
+        synchronized (this) {
+          long oldest = recordedTotal - recordCount;
+          if (next < oldest) {
+            next = oldest;
+            position = oldestPosition;
+            if (next >= end) {
+              break;
+            }
+          }
+          if (position + 4 > capacity || buffer.getInt(position) == WRAP_MARKER) {
+            position = 0;
+          }
+          int size = buffer.getInt(position);
+          if (buffer.getLong(position + 8) >= cutoffNanos) {
+            ring.clear();
+            ring.position(position).limit(position + size);
+            record.clear();
+            record.put(ring);
+            copied = true;
+          }
+          position += size;
+          next++;
+        }
+        if (copied) {
+          formatLine(record, line);
+          writeFully(channel, line);
+          written++;
+        }
+      }
+    }
+    return written;
+  }
+
+  // Formats a record copied to the start of record into line, ready to write
+  private static void formatLine(ByteBuffer record, ByteBuffer line) {
+    line.clear();
+    int payloadLength = record.getShort(32) & 0xFFFF;
+    formatPrefix(record, 0, line);
+    if (isPrintable(record, HEADER_SIZE, payloadLength)) {
+      record.limit(HEADER_SIZE + payloadLength).position(HEADER_SIZE);
+      line.put(record);
+    } else {
+      appendHex(record, HEADER_SIZE, payloadLength, line);
+    }
+    line.put((byte) '\n');
+    line.flip();
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer data) throws IOException {
+    while (data.hasRemaining()) {
+      channel.write(data);
+    }
+  }
+
+  // e.g. "2026-10-19T10:15:30.123456789Z IN  192.168.1.50:3032 42 ", followed by
+  // the payload as text, or "hex:" and its bytes when it isn't printable
+  private static void formatPrefix(ByteBuffer records, int position, ByteBuffer line) {
+    Direction direction = Direction.values()[records.get(position + 4)];
+    int addressLength = records.get(position + 5);
+    int port = records.getShort(position + 6) & 0xFFFF;
+    long wallNanos = records.getLong(position + 8);
+    int payloadLength = records.getShort(position + 32) & 0xFFFF;
+
+    String prefix = Instant.ofEpochSecond(0, wallNanos) + " " + (direction == Direction.IN ? "IN  " : "OUT ")
+        + formatAddress(records, position + 16, addressLength) + ":" + port + " " + payloadLength + " ";
+    line.put(prefix.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  private static void appendHex(ByteBuffer records, int start, int length, ByteBuffer line) {
+    line.put((byte) 'h').put((byte) 'e').put((byte) 'x').put((byte) ':');
+    for (int i = start; i < start + length; i++) {
+      byte b = records.get(i);
+      line.put((byte) Character.forDigit((b >> 4) & 0xF, 16)).put((byte) Character.forDigit(b & 0xF, 16));
+    }
+  }
+
+  private static String formatAddress(ByteBuffer records, int position, int length) {
+    if (length == 0) {
+      return "?";
+    }
+    byte[] address = new byte[length];
+    records.get(position, address);
+    try {
+      return InetAddress.getByAddress(address).getHostAddress();
+    } catch (UnknownHostException e) {
+      return "?";
+    }
+  }
+
+  private static boolean isPrintable(ByteBuffer records, int start, int length) {
+    for (int i = start; i < start + length; i++) {
+      byte b = records.get(i);
+      if ((b < 0x20 || b > 0x7E) && b != '\t') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Dumps into DUMP_DIRECTORY on a background thread, at most once per
+  // AUTO_DUMP_INTERVAL; called from the receive thread when a controller reports an ERROR
+  public void dumpOnError(String reason) {
+    if (!autoDumpEnabled) {
+      return;
+    }
+    long now = System.nanoTime();
+    synchronized (this) {
+      if (lastAutoDumpNanos != 0 && now - lastAutoDumpNanos < AUTO_DUMP_INTERVAL_NANOS) {
+        return;
+      }
+      lastAutoDumpNanos = now;
+    }
+    Thread dumper = new Thread(() -> {
+      try {
+        Path file = dumpToDirectory(Paths.get(DUMP_DIRECTORY), reason);
+        Log.warn("Datagram recording saved to " + file + " (" + reason + ")");
+      } catch (IOException e) {
+        Log.error("Failed to save datagram recording: " + e.getMessage());
+      }
+    }, "datagram-dump");
+    dumper.setDaemon(true);
+    dumper.start();
+  }
+
+  // Dumps into a timestamped file in directory, creating it if needed
+  public Path dumpToDirectory(Path directory, String reason) throws IOException {
+    Files.createDirectories(directory);
+    String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss_SSS").format(new Date());
+    Path file = directory.resolve("datagrams_" + timestamp + ".txt");
+    dump(file, reason);
+    return file;
+  }
+}
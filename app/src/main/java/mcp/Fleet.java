@@ -0,0 +1,135 @@
+package mcp;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Every bridge controller the console talks to, keyed by source address. A
+// controller is registered by Receive once it has sent a valid STATUS, so the
+// per-packet cost is one hash lookup however large the fleet is. All endpoints
+// share one timer wheel and one send I/O thread.
+class Fleet {
+  // Caps how many endpoints stray or spoofed traffic can create
+  private static final int MAX_ENDPOINTS = 1024;
+
+  private final ConcurrentHashMap<InetAddress, BridgeEndpoint> endpoints = new ConcurrentHashMap<>();
+  private final Gui userInterface;
+  private final int sendPortNumber;
+  private final boolean reliableCommandsEnabled;
+  private final TimerWheel timerWheel;
+  private final AtomicLong rejectedDatagrams = new AtomicLong();
+  // Bumped whenever an endpoint is added or replaced, so views can tell when to resync
+  private final AtomicLong changeCount = new AtomicLong();
+  private volatile BridgeEndpoint displayedEndpoint;
+  private boolean readOnly = false;
+  private boolean binaryTelemetry = false;
+  private boolean timestampedHeartbeats = false;
+
+  Fleet(Gui userInterface, int sendPortNumber, boolean reliableCommandsEnabled) {
+    this(userInterface, sendPortNumber, reliableCommandsEnabled, TimerWheel.shared());
+  }
+
+  Fleet(Gui userInterface, int sendPortNumber, boolean reliableCommandsEnabled, TimerWheel timerWheel) {
+    this.userInterface = userInterface;
+    this.sendPortNumber = sendPortNumber;
+    this.reliableCommandsEnabled = reliableCommandsEnabled;
+    this.timerWheel = timerWheel;
+  }
+
+  // Viewer consoles only watch: endpoints never send heartbeats or commands.
+  // Must be set before any endpoint is registered.
+  public void setReadOnly(boolean readOnly) {
+    this.readOnly = readOnly;
+  }
+
+  // Ask each controller to send STATUS as binary frames. Controllers that don't
+  // support them keep sending text, which is still accepted.
+  // Must be set before any endpoint is registered.
+  public void setBinaryTelemetry(boolean binaryTelemetry) {
+    this.binaryTelemetry = binaryTelemetry;
+  }
+
+  // Send heartbeats with a sequence number and timestamp for the controller to
+  // echo, for link metrics. Changes the heartbeat wire format, so it needs
+  // firmware that accepts it. Must be set before any endpoint is registered.
+  public void setTimestampedHeartbeats(boolean timestampedHeartbeats) {
+    this.timestampedHeartbeats = timestampedHeartbeats;
+  }
+
+  // Registers the bridge shown in the main window
+  public BridgeEndpoint addDisplayedEndpoint(String host) throws UnknownHostException {
+    InetAddress address = InetAddress.getByName(host);
+    BridgeEndpoint endpoint = new BridgeEndpoint(address, sendPortNumber, userInterface, true,
+        reliableCommandsEnabled, readOnly, timerWheel);
+    BridgeEndpoint previous = endpoints.put(address, endpoint);
+    changeCount.incrementAndGet();
+    if (previous != null) {
+      previous.stop();
+    }
+    displayedEndpoint = endpoint;
+    endpoint.getHeartbeat().setTimestamped(timestampedHeartbeats);
+    endpoint.start();
+    if (binaryTelemetry) {
+      endpoint.requestBinaryTelemetry();
+    }
+    return endpoint;
+  }
+
+  // The endpoint for a datagram's source, or null if it isn't registered
+  public BridgeEndpoint endpointFor(InetAddress source) {
+    return endpoints.get(source);
+  }
+
+  // Registers and starts a newly seen controller, which from then on is sent
+  // heartbeats. Null once the fleet is full.
+  public BridgeEndpoint register(InetAddress source) {
+    BridgeEndpoint endpoint = endpoints.get(source);
+    if (endpoint != null) {
+      return endpoint;
+    }
+    if (endpoints.size() >= MAX_ENDPOINTS) {
+      rejectedDatagrams.incrementAndGet();
+      return null;
+    }
+    return endpoints.computeIfAbsent(source, address -> {
+      BridgeEndpoint discovered = new BridgeEndpoint(address, sendPortNumber, userInterface, false,
+          reliableCommandsEnabled, readOnly, timerWheel);
+      discovered.getHeartbeat().setTimestamped(timestampedHeartbeats);
+      discovered.start();
+      if (binaryTelemetry) {
+        discovered.requestBinaryTelemetry();
+      }
+      Log.info("Discovered bridge controller " + discovered.getName());
+      changeCount.incrementAndGet();
+      return discovered;
+    });
+  }
+
+  public BridgeEndpoint getDisplayedEndpoint() {
+    return displayedEndpoint;
+  }
+
+  public Collection<BridgeEndpoint> getEndpoints() {
+    return endpoints.values();
+  }
+
+  public int size() {
+    return endpoints.size();
+  }
+
+  public long getChangeCount() {
+    return changeCount.get();
+  }
+
+  public long getRejectedDatagrams() {
+    return rejectedDatagrams.get();
+  }
+
+  public void stop() {
+    for (BridgeEndpoint endpoint : endpoints.values()) {
+      endpoint.stop();
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package mcp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sends one command to a group of bridges at once and collects each bridge's
+// COMMAND_EXECUTION reply against a shared deadline. Every send goes through that
+// bridge's non-blocking outbound path (reliable layer if enabled), so the whole
+// fan-out returns immediately; the report future completes when every bridge has
+// replied or the deadline passes.
+class FleetBroadcast {
+  enum Outcome {
+    EXECUTED,
+    TIMED_OUT,
+    SEND_FAILED
+  }
+
+  static final class Result {
+    final BridgeEndpoint endpoint;
+    final Outcome outcome;
+    // Send to COMMAND_EXECUTION, or -1 if the bridge never replied
+    final long latencyNanos;
+    final String error;
+
+    Result(BridgeEndpoint endpoint, Outcome outcome, long latencyNanos, String error) {
+      this.endpoint = endpoint;
+      this.outcome = outcome;
+      this.latencyNanos = latencyNanos;
+      this.error = error;
+    }
+  }
+
+  static final class Report {
+    final String command;
+    final List<Result> results;
+    final LatencyHistogram latencies = new LatencyHistogram();
+    final long elapsedNanos;
+
+    Report(String command, List<Result> results, long elapsedNanos) {
+      this.command = command;
+      this.results = Collections.unmodifiableList(results);
+      this.elapsedNanos = elapsedNanos;
+      for (Result result : results) {
+        if (result.outcome == Outcome.EXECUTED) {
+          latencies.record(result.latencyNanos);
+        }
+      }
+    }
+
+    public int count(Outcome outcome) {
+      int count = 0;
+      for (Result result : results) {
+        if (result.outcome == outcome) {
+          count++;
+        }
+      }
+      return count;
+    }
+
+    // e.g. "road_lights_red: 198/200 executed, 2 timed out, 0 failed (p50 12.1 ms, p99 40.3 ms, max 52.0 ms)"
+    public String formatSummary() {
+      return String.format("%s: %d/%d executed, %d timed out, %d failed (p50 %.1f ms, p99 %.1f ms, max %.1f ms)",
+          command, count(Outcome.EXECUTED), results.size(), count(Outcome.TIMED_OUT), count(Outcome.SEND_FAILED),
+          latencies.getPercentile(50) / 1_000_000.0, latencies.getPercentile(99) / 1_000_000.0,
+          latencies.getMax() / 1_000_000.0);
+    }
+  }
+
+  private final TimerWheel timerWheel;
+
+  FleetBroadcast() {
+    this(TimerWheel.shared());
+  }
+
+  FleetBroadcast(TimerWheel timerWheel) {
+    this.timerWheel = timerWheel;
+  }
+
+  public CompletableFuture<Report> broadcast(String command, Collection<BridgeEndpoint> targets, long deadline,
+      TimeUnit unit) {
+    long startNanos = System.nanoTime();
+    List<BridgeEndpoint> endpoints = new ArrayList<>(targets);
+    Result[] results = new Result[endpoints.size()];
+    AtomicInteger remaining = new AtomicInteger(endpoints.size());
+    CompletableFuture<Report> report = new CompletableFuture<>();
+    if (endpoints.isEmpty()) {
+      report.complete(new Report(command, new ArrayList<>(), 0));
+      return report;
+    }
+
+    List<CompletableFuture<Long>> executions = new ArrayList<>(endpoints.size());
+    for (int i = 0; i < endpoints.size(); i++) {
+      BridgeEndpoint endpoint = endpoints.get(i);
+      int index = i;
+      // Register before sending so a fast reply can't be missed
+      CompletableFuture<Long> execution = endpoint.awaitExecution(command);
+      executions.add(execution);
+
+      long sentNanos = System.nanoTime();
+      execution.whenComplete((receivedNanos, error) -> {
+        if (error == null) {
+          results[index] = new Result(endpoint, Outcome.EXECUTED, receivedNanos - sentNanos, null);
+        } else if (error instanceof BroadcastTimeoutException) {
+          results[index] = new Result(endpoint, Outcome.TIMED_OUT, -1, null);
+        } else {
+          results[index] = new Result(endpoint, Outcome.SEND_FAILED, -1, error.getMessage());
+        }
+        if (remaining.decrementAndGet() == 0) {
+          List<Result> resultList = new ArrayList<>(results.length);
+          Collections.addAll(resultList, results);
+          report.complete(new Report(command, resultList, System.nanoTime() - startNanos));
+        }
+      });
+
+      sendThrough(endpoint, command).whenComplete((ignored, error) -> {
+        if (error != null) {
+          endpoint.cancelExecutionWait(command, execution);
+          execution.completeExceptionally(error);
+        }
+      });
+    }
+
+    // One deadline for the whole group rather than a timer per bridge
+    timerWheel.schedule(() -> {
+      for (int i = 0; i < executions.size(); i++) {
+        CompletableFuture<Long> execution = executions.get(i);
+        if (!execution.isDone()) {
+          endpoints.get(i).cancelExecutionWait(command, execution);
+          execution.completeExceptionally(new BroadcastTimeoutException());
+        }
+      }
+    }, deadline, unit);
+    return report;
+  }
+
+  private static CompletableFuture<?> sendThrough(BridgeEndpoint endpoint, String command) {
+    ReliableCommands reliableCommands = endpoint.getReliableCommands();
+    if (reliableCommands != null) {
+      return reliableCommands.sendCommand(command);
+    }
+    return endpoint.getOutboundScheduler().sendAsync(command);
+  }
+
+  private static final class BroadcastTimeoutException extends Exception {
+    BroadcastTimeoutException() {
+      super("No COMMAND_EXECUTION before the deadline", null, false, false);
+    }
+  }
+}
@@ -0,0 +1,314 @@
+package mcp;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import javax.swing.JPanel;
+
+// Grid of small tiles, one per bridge in the fleet. Each tile is a cached image
+// of a low-detail bridge schematic with a severity border, re-rendered only when
+// that bridge's state changes; painting the grid just copies the visible images,
+// so hundreds of tiles cost a few milliseconds per frame. Clicking a tile hands
+// its endpoint to the selection listener; Ctrl- or Shift-click marks tiles as a
+// group for fleet commands.
+class FleetOverviewPanel extends JPanel {
+  static final int TILE_WIDTH = 180;
+  static final int TILE_HEIGHT = 130;
+  private static final int TILE_GAP = 8;
+  private static final int LABEL_HEIGHT = 22;
+  // How often tiles are checked for state changes
+  private static final int REFRESH_INTERVAL = 250;
+
+  private static final Color HEALTHY_COLOR = new Color(46, 204, 113);
+  private static final Color OVERRIDE_COLOR = new Color(241, 196, 15);
+  private static final Color SUSPECT_COLOR = new Color(230, 126, 34);
+  private static final Color LOST_COLOR = new Color(231, 76, 60);
+  private static final Color WAITING_COLOR = new Color(120, 120, 120);
+  private static final Color SELECTED_COLOR = new Color(52, 152, 219);
+
+  private final Fleet fleet;
+  private final Consumer<BridgeEndpoint> selectionListener;
+  private final List<Tile> tiles = new ArrayList<>();
+  private final Map<BridgeEndpoint, Tile> tilesByEndpoint = new IdentityHashMap<>();
+  // Registered on the shared frame clock only while the panel is on screen
+  private FrameScheduler.Registration refreshTask;
+  private int columns = 1;
+  private long tileRenders = 0;
+  // The fleet change count the tiles were last matched to
+  private long syncedFleetChanges = -1;
+
+  private static final class Tile {
+    final BridgeEndpoint endpoint;
+    final BufferedImage image = new BufferedImage(TILE_WIDTH, TILE_HEIGHT, BufferedImage.TYPE_INT_RGB);
+    BridgeStatus renderedStatus;
+    LivenessMonitor.State renderedLiveness;
+    // -1 until first rendered
+    long renderedKey = -1;
+    boolean selected;
+
+    Tile(BridgeEndpoint endpoint) {
+      this.endpoint = endpoint;
+    }
+  }
+
+  FleetOverviewPanel(Fleet fleet, Consumer<BridgeEndpoint> selectionListener) {
+    this.fleet = fleet;
+    this.selectionListener = selectionListener;
+    setBackground(new Color(18, 18, 18));
+
+    addMouseListener(new MouseAdapter() {
+      @Override
+      public void mouseClicked(MouseEvent e) {
+        Tile tile = tileAt(e.getX(), e.getY());
+        if (tile == null) {
+          return;
+        }
+        if (e.isControlDown() || e.isShiftDown()) {
+          tile.selected = !tile.selected;
+          repaint(tileBounds(tiles.indexOf(tile)));
+        } else {
+          selectionListener.accept(tile.endpoint);
+        }
+      }
+    });
+  }
+
+  // Only poll for changes while the panel is on screen
+  @Override
+  public void addNotify() {
+    super.addNotify();
+    refreshTiles();
+    refreshTask = FrameScheduler.shared().schedule("fleet tiles", now -> {
+      refreshTiles();
+      return true;
+    }, REFRESH_INTERVAL, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void removeNotify() {
+    if (refreshTask != null) {
+      refreshTask.cancel();
+      refreshTask = null;
+    }
+    super.removeNotify();
+  }
+
+  // Matches the tiles to the fleet when it has changed, and re-renders those
+  // whose state changed. Returns how many tiles were re-rendered.
+  int refreshTiles() {
+    long fleetChanges = fleet.getChangeCount();
+    if (fleetChanges != syncedFleetChanges) {
+      syncedFleetChanges = fleetChanges;
+      syncTiles();
+    }
+
+    int rendered = 0;
+    for (int i = 0; i < tiles.size(); i++) {
+      Tile tile = tiles.get(i);
+      BridgeStatus status = tile.endpoint.getLatestStatus();
+      LivenessMonitor.State liveness = tile.endpoint.getLivenessMonitor().getState();
+      if (tile.renderedKey != -1 && status == tile.renderedStatus && liveness == tile.renderedLiveness) {
+        continue;
+      }
+      // A new STATUS object usually repeats the last one - only redraw real changes
+      long key = stateKey(status, liveness);
+      tile.renderedStatus = status;
+      tile.renderedLiveness = liveness;
+      if (key == tile.renderedKey) {
+        continue;
+      }
+      tile.renderedKey = key;
+      renderTile(tile, status, liveness);
+      rendered++;
+      repaint(tileBounds(i));
+    }
+    return rendered;
+  }
+
+  // Drops tiles for endpoints no longer in the fleet (e.g. replaced) and adds
+  // tiles for new ones, keeping the order of the rest
+  private void syncTiles() {
+    Map<BridgeEndpoint, Boolean> current = new IdentityHashMap<>();
+    for (BridgeEndpoint endpoint : fleet.getEndpoints()) {
+      current.put(endpoint, Boolean.TRUE);
+    }
+    tiles.removeIf(tile -> !current.containsKey(tile.endpoint));
+    tilesByEndpoint.keySet().retainAll(current.keySet());
+    for (BridgeEndpoint endpoint : current.keySet()) {
+      if (!tilesByEndpoint.containsKey(endpoint)) {
+        Tile tile = new Tile(endpoint);
+        tiles.add(tile);
+        tilesByEndpoint.put(endpoint, tile);
+      }
+    }
+    updateLayout();
+  }
+
+  // Bridges marked with Ctrl/Shift-click, or every bridge if none are marked
+  public Collection<BridgeEndpoint> getSelectedEndpoints() {
+    List<BridgeEndpoint> selected = new ArrayList<>();
+    for (Tile tile : tiles) {
+      if (tile.selected) {
+        selected.add(tile.endpoint);
+      }
+    }
+    return selected.isEmpty() ? new ArrayList<>(fleet.getEndpoints()) : selected;
+  }
+
+  long getTileRenders() {
+    return tileRenders;
+  }
+
+  @Override
+  protected void paintComponent(Graphics g) {
+    super.paintComponent(g);
+    Rectangle clip = g.getClipBounds();
+    if (clip == null) {
+      clip = new Rectangle(0, 0, getWidth(), getHeight());
+    }
+
+    int rowHeight = TILE_HEIGHT + TILE_GAP;
+    int firstRow = Math.max(0, (clip.y - TILE_GAP) / rowHeight);
+    int lastRow = (clip.y + clip.height) / rowHeight;
+    for (int row = firstRow; row <= lastRow; row++) {
+      for (int column = 0; column < columns; column++) {
+        int index = row * columns + column;
+        if (index >= tiles.size()) {
+          return;
+        }
+        Rectangle bounds = tileBounds(index);
+        if (bounds.intersects(clip)) {
+          Tile tile = tiles.get(index);
+          g.drawImage(tile.image, bounds.x, bounds.y, null);
+          // Selection is drawn over the cached image so it never forces a re-render
+          if (tile.selected) {
+            g.setColor(SELECTED_COLOR);
+            g.drawRect(bounds.x + 3, bounds.y + 3, bounds.width - 7, bounds.height - 7);
+            g.drawRect(bounds.x + 4, bounds.y + 4, bounds.width - 9, bounds.height - 9);
+          }
+        }
+      }
+    }
+  }
+
+  @Override
+  public void setBounds(int x, int y, int width, int height) {
+    super.setBounds(x, y, width, height);
+    int newColumns = Math.max(1, (width - TILE_GAP) / (TILE_WIDTH + TILE_GAP));
+    if (newColumns != columns) {
+      columns = newColumns;
+      updateLayout();
+    }
+  }
+
+  private void updateLayout() {
+    int rows = (tiles.size() + columns - 1) / columns;
+    setPreferredSize(new Dimension(columns * (TILE_WIDTH + TILE_GAP) + TILE_GAP,
+        rows * (TILE_HEIGHT + TILE_GAP) + TILE_GAP));
+    revalidate();
+    repaint();
+  }
+
+  private Rectangle tileBounds(int index) {
+    int column = index % columns;
+    int row = index / columns;
+    return new Rectangle(TILE_GAP + column * (TILE_WIDTH + TILE_GAP), TILE_GAP + row * (TILE_HEIGHT + TILE_GAP),
+        TILE_WIDTH, TILE_HEIGHT);
+  }
+
+  private Tile tileAt(int x, int y) {
+    int column = (x - TILE_GAP) / (TILE_WIDTH + TILE_GAP);
+    int row = (y - TILE_GAP) / (TILE_HEIGHT + TILE_GAP);
+    if (x < TILE_GAP || y < TILE_GAP || column >= columns) {
+      return null;
+    }
+    int index = row * columns + column;
+    if (index >= tiles.size() || !tileBounds(index).contains(x, y)) {
+      return null;
+    }
+    return tiles.get(index);
+  }
+
+  // Everything a tile shows, packed one byte per state
+  private static long stateKey(BridgeStatus status, LivenessMonitor.State liveness) {
+    if (status == null) {
+      return 0x100 | liveness.ordinal();
+    }
+    return liveness.ordinal() | (long) status.getMode().ordinal() << 8 | (long) status.getBridgeState().ordinal() << 16
+        | (long) status.getGateState().ordinal() << 24 | (long) status.getRoadLight().ordinal() << 32
+        | (long) status.getBoatLight().ordinal() << 40 | (status.isBridgeLightOn() ? 1L << 48 : 0);
+  }
+
+  private static Color severityColor(BridgeStatus status, LivenessMonitor.State liveness) {
+    switch (liveness) {
+      case LOST:
+        return LOST_COLOR;
+      case SUSPECT:
+        return SUSPECT_COLOR;
+      case WAITING:
+        return WAITING_COLOR;
+      default:
+        if (status != null && status.getMode() == BridgeStatus.Mode.OVERRIDE) {
+          return OVERRIDE_COLOR;
+        }
+        return status == null ? WAITING_COLOR : HEALTHY_COLOR;
+    }
+  }
+
+  private void renderTile(Tile tile, BridgeStatus status, LivenessMonitor.State liveness) {
+    tileRenders++;
+    Graphics2D g2d = tile.image.createGraphics();
+    try {
+      g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+      Color severity = severityColor(status, liveness);
+
+      g2d.setColor(new Color(28, 28, 30));
+      g2d.fillRect(0, 0, TILE_WIDTH, TILE_HEIGHT);
+
+      int sceneHeight = TILE_HEIGHT - LABEL_HEIGHT - 6;
+      if (status != null) {
+        float bridgeAngle = status.getBridgeState() == BridgeStatus.Position.OPEN ? 90f : 0f;
+        float gateAngle = status.getGateState() == BridgeStatus.Position.OPEN ? 90f : 0f;
+        g2d.translate(3, 3);
+        BridgeDrawing.drawSchematic(g2d, TILE_WIDTH - 6, sceneHeight, bridgeAngle, gateAngle,
+            status.getRoadLight(), status.getBoatLight(), status.isBridgeLightOn());
+        g2d.translate(-3, -3);
+      } else {
+        g2d.setColor(new Color(120, 120, 120));
+        g2d.setFont(new Font("Arial", Font.PLAIN, 11));
+        g2d.drawString("Waiting for STATUS", 10, sceneHeight / 2);
+      }
+
+      // Name and state strip
+      g2d.setColor(severity);
+      g2d.fillRect(0, TILE_HEIGHT - LABEL_HEIGHT, TILE_WIDTH, LABEL_HEIGHT);
+      g2d.setColor(Color.BLACK);
+      g2d.setFont(new Font("Arial", Font.BOLD, 11));
+      String label = tile.endpoint.getName() + "  " + (status != null && liveness == LivenessMonitor.State.HEALTHY
+          ? status.get(BridgeStatus.Field.BRIDGE)
+          : liveness.name());
+      g2d.drawString(label, 6, TILE_HEIGHT - 7);
+
+      g2d.setColor(severity);
+      g2d.drawRect(0, 0, TILE_WIDTH - 1, TILE_HEIGHT - 1);
+      g2d.drawRect(1, 1, TILE_WIDTH - 3, TILE_HEIGHT - 3);
+    } finally {
+      g2d.dispose();
+    }
+  }
+}
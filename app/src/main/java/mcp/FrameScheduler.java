@@ -0,0 +1,213 @@
+package mcp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+// The one clock behind every GUI animation and periodic check. A single Swing
+// timer ticks once per display frame and runs every due task inside that one EDT
+// event, instead of each animation posting its own timer events. Tasks can
+// pause themselves when they have nothing to do; with no active tasks the timer
+// stops until one is resumed. Each task's run time is kept in a histogram and
+// recorded as a JFR event.
+class FrameScheduler {
+  static final int FRAME_INTERVAL = 16;
+  private static final long FRAME_NANOS = TimeUnit.MILLISECONDS.toNanos(FRAME_INTERVAL);
+  // How often the per-task costs are logged when DEBUG is on
+  private static final long REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+  private static FrameScheduler sharedInstance;
+
+  // Returns false to pause itself until resume() is called
+  interface FrameTask {
+    boolean run(long frameNanos);
+  }
+
+  final class Registration {
+    final String name;
+    private final FrameTask task;
+    private final long periodNanos;
+    private final LatencyHistogram cost = new LatencyHistogram();
+    private long nextRunNanos;
+    private volatile boolean active = true;
+    private volatile boolean cancelled = false;
+    // Set by resume() so a pause racing with it is undone
+    private volatile boolean resumeRequested = false;
+
+    Registration(String name, FrameTask task, long periodNanos) {
+      this.name = name;
+      this.task = task;
+      this.periodNanos = periodNanos;
+      this.nextRunNanos = System.nanoTime();
+    }
+
+    // Safe from any thread; cheap if the task is already active
+    public void resume() {
+      if (cancelled) {
+        return;
+      }
+      resumeRequested = true;
+      if (!active) {
+        active = true;
+        wake();
+      }
+    }
+
+    public void cancel() {
+      cancelled = true;
+      active = false;
+    }
+
+    public boolean isActive() {
+      return active;
+    }
+
+    // Time spent in each run of the task
+    public LatencyHistogram getCost() {
+      return cost;
+    }
+  }
+
+  // null when ticks are driven by hand
+  private final Timer clock;
+  // EDT only
+  private final List<Registration> tasks = new ArrayList<>();
+  private long ticks = 0;
+  private long lastReportNanos = System.nanoTime();
+
+  FrameScheduler() {
+    this(true);
+  }
+
+  // Without the Swing timer, for tests that call tick() themselves
+  FrameScheduler(boolean useClock) {
+    clock = useClock ? new Timer(FRAME_INTERVAL, e -> tick(System.nanoTime())) : null;
+  }
+
+  // The scheduler shared by every window in this JVM
+  static synchronized FrameScheduler shared() {
+    if (sharedInstance == null) {
+      sharedInstance = new FrameScheduler();
+    }
+    return sharedInstance;
+  }
+
+  // Runs task every frame
+  public Registration scheduleEveryFrame(String name, FrameTask task) {
+    return schedule(name, task, 0, TimeUnit.MILLISECONDS);
+  }
+
+  // Runs task on the first frame at least period after its last run. Safe from any
+  // thread; off the EDT the task is added on the EDT shortly after.
+  public Registration schedule(String name, FrameTask task, long period, TimeUnit unit) {
+    Registration registration = new Registration(name, task, unit.toNanos(period));
+    if (clock == null) {
+      tasks.add(registration);
+    } else if (SwingUtilities.isEventDispatchThread()) {
+      tasks.add(registration);
+      clock.start();
+    } else {
+      SwingUtilities.invokeLater(() -> {
+        tasks.add(registration);
+        clock.start();
+      });
+    }
+    return registration;
+  }
+
+  private void wake() {
+    if (clock == null) {
+      return;
+    }
+    if (SwingUtilities.isEventDispatchThread()) {
+      clock.start();
+    } else {
+      SwingUtilities.invokeLater(clock::start);
+    }
+  }
+
+  // One frame: runs every due task and stops the clock if none are left active.
+  // Package-private so tests can drive it without the Swing timer.
+  void tick(long now) {
+    ticks++;
+    for (int i = 0; i < tasks.size(); i++) {
+      Registration registration = tasks.get(i);
+      if (registration.cancelled) {
+        tasks.remove(i--);
+        continue;
+      }
+      if (!registration.active) {
+        continue;
+      }
+      if (now - registration.nextRunNanos >= 0) {
+        // Due on the first frame within half a frame of the period; runs missed
+        // during a stall are skipped rather than bunched up
+        registration.nextRunNanos = now + registration.periodNanos - FRAME_NANOS / 2;
+        runTask(registration, now);
+      }
+    }
+    // Checked after every task has run, since one may have resumed another
+    boolean anyActive = false;
+    for (Registration registration : tasks) {
+      anyActive |= registration.active;
+    }
+    if (!anyActive && clock != null) {
+      clock.stop();
+    }
+    if (Log.isDebugEnabled() && now - lastReportNanos >= REPORT_INTERVAL_NANOS) {
+      lastReportNanos = now;
+      Log.debug("Frame tasks: " + formatSummary());
+    }
+  }
+
+  private void runTask(Registration registration, long now) {
+    JfrEvents.FrameTaskRun taskEvent = new JfrEvents.FrameTaskRun();
+    taskEvent.begin();
+    long start = System.nanoTime();
+    boolean keepRunning;
+    registration.resumeRequested = false;
+    try {
+      keepRunning = registration.task.run(now);
+    } catch (RuntimeException e) {
+      // Paused rather than failing again every frame
+      Log.error("Frame task " + registration.name + " failed", e);
+      keepRunning = false;
+    }
+    registration.cost.record(System.nanoTime() - start);
+    taskEvent.end();
+    if (taskEvent.shouldCommit()) {
+      taskEvent.task = registration.name;
+      taskEvent.commit();
+    }
+    if (!keepRunning) {
+      registration.active = false;
+      if (registration.resumeRequested) {
+        registration.active = true;
+      }
+    }
+  }
+
+  public boolean isRunning() {
+    return clock != null && clock.isRunning();
+  }
+
+  long getTicks() {
+    return ticks;
+  }
+
+  // e.g. "animation p50 0.21 ms p99 0.90 ms, notifications p50 0.01 ms p99 0.03 ms"
+  public String formatSummary() {
+    StringBuilder summary = new StringBuilder();
+    for (Registration registration : tasks) {
+      if (summary.length() > 0) {
+        summary.append(", ");
+      }
+      summary.append(String.format("%s p50 %.2f ms p99 %.2f ms", registration.name,
+          registration.cost.getPercentile(50) / 1_000_000.0, registration.cost.getPercentile(99) / 1_000_000.0));
+    }
+    return summary.toString();
+  }
+}
@@ -13,22 +13,25 @@ import java.awt.Graphics2D;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.Toolkit;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
-import java.awt.geom.AffineTransform;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
 import javax.swing.JComponent;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
@@ -36,13 +39,8 @@ import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
-import javax.swing.JTextPane;
 import javax.swing.OverlayLayout;
 import javax.swing.SwingUtilities;
-import javax.swing.Timer;
-import javax.swing.text.BadLocationException;
-import javax.swing.text.StyleConstants;
-import javax.swing.text.StyledDocument;
 
 public class Gui {
   // GUI Components
@@ -53,12 +51,10 @@ public class Gui {
   private JPanel warningPanel;
   private JPanel notificationPanel;
   private JLabel notificationLabel;
-  private Timer notificationTimer;
-  private Timer notificationSlideTimer;
-  private int notificationY = -100;
+  private int notificationY = -70;
   private int notificationTargetY = 10;
+  private final NotificationManager notifications = new NotificationManager(new NotificationPanelView());
   private boolean isOverrideMode = false;
-  private boolean communicationLost = false;
   private boolean isDiagnosticMode = false;
 
   // Status Display Components
@@ -67,66 +63,219 @@ public class Gui {
   private JLabel roadLightsLabel;
   private JLabel boatLightsLabel;
   private JLabel bridgeLightsLabel;
-  private JLabel modeLabel;
-  private JLabel bridgeStatusLabel;
-  private JLabel gateStatusLabel;
-  private JLabel roadDistanceLabel;
-  private JLabel boatDistanceLabel;
-  private JLabel bridgeMovementLabel;
-  private JLabel boatClearanceLabel;
-  private JLabel sequenceStateLabel;
-  private JLabel queueStatusLabel;
-  private JLabel manualLightsLabel;
-  private JLabel lastWeightLabel;
-  private JTextPane messageLogArea;
+  private TelemetryReadout telemetryReadout;
+  private MessageLogView messageLogArea;
 
   // Mode control buttons
   private JButton overrideModeButton;
   private JButton automaticModeButton;
 
   // Send object reference
-  private Send mcpSendObject;
+  private MessageSender mcpSendObject;
+  // Optional reliable delivery (sequence numbers, acks, retransmission)
+  private ReliableCommands reliableCommands;
+  // Every bridge the console is connected to, for the fleet overview
+  private Fleet fleet;
+  private JFrame fleetFrame;
+  private final FleetBroadcast fleetBroadcast = new FleetBroadcast();
+  // Commands offered for fleet-wide broadcast
+  private static final String[] BROADCAST_COMMANDS = {
+      "manual_bridge_lights_on", "manual_bridge_lights_off", "road_lights_red", "boat_lights_red" };
+  private static final long BROADCAST_DEADLINE = 5000;
+  private static final Font OVERLAY_FONT = new Font("Consolas", Font.PLAIN, 11);
+  private static final Color OVERLAY_BACKGROUND = new Color(18, 18, 18, 170);
+  private static final Color OVERLAY_TEXT = new Color(200, 200, 200);
 
   // Current state
-  private long lastStatusTime = 0;
-  private String lastWeightReading = "N/A";
 
-  // Communication timeout timer
-  private Timer communicationCheckTimer;
+  // Blocks interaction while communication is lost
   private JComponent communicationLostPane;
 
   // Responsive sizing
   private boolean isLaptopSize = false;
 
+  // Packet-to-pixels latency for STATUS telemetry
+  private final LatencyTracker latencyTracker = new LatencyTracker();
+
   // Constructor
   public Gui() {
     SwingUtilities.invokeLater(this::createGUI);
-    startCommunicationMonitor();
   }
 
   // Update this GUI's sender object
-  public void initializeSender(Send sendObject) {
+  public void initializeSender(MessageSender sendObject) {
     this.mcpSendObject = sendObject;
     updateMessageLog("Send object initialized - ready for communication");
   }
 
-  // Timer for detecting communication loss
-  private void startCommunicationMonitor() {
-    communicationCheckTimer = new Timer(1000, e -> {
-      long timeSinceLastStatus = System.currentTimeMillis() - lastStatusTime;
-      if (timeSinceLastStatus > 5000 && lastStatusTime > 0) {
-        if (!communicationLost) {
-          communicationLost = true;
-          updateCommunicationStatus(false);
-          updateMessageLog("WARNING: Communication lost - No status received for 5 seconds");
+  public LatencyTracker getLatencyTracker() {
+    return latencyTracker;
+  }
+
+  public void initializeFleet(Fleet fleet) {
+    this.fleet = fleet;
+  }
+
+  // Opens (or brings forward) the grid of every bridge in the fleet
+  private void showFleetOverview() {
+    if (fleet == null) {
+      updateMessageLog("ERROR: Fleet not initialized");
+      return;
+    }
+    if (fleetFrame == null) {
+      fleetFrame = new JFrame("Fleet Overview");
+      fleetFrame.setDefaultCloseOperation(JFrame.HIDE_ON_CLOSE);
+      FleetOverviewPanel overviewPanel = new FleetOverviewPanel(fleet, this::openBridgeView);
+      JScrollPane scrollPane = new JScrollPane(overviewPanel);
+      scrollPane.setBorder(null);
+      scrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
+      scrollPane.getVerticalScrollBar().setUnitIncrement(FleetOverviewPanel.TILE_HEIGHT / 2);
+      fleetFrame.add(createBroadcastBar(overviewPanel), BorderLayout.NORTH);
+      fleetFrame.add(scrollPane, BorderLayout.CENTER);
+      fleetFrame.setSize(1000, 700);
+      fleetFrame.setLocationRelativeTo(frame);
+    }
+    fleetFrame.setVisible(true);
+    fleetFrame.toFront();
+  }
+
+  private JPanel createBroadcastBar(FleetOverviewPanel overviewPanel) {
+    JPanel bar = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 6));
+    bar.setBackground(new Color(28, 28, 30));
+
+    JComboBox<String> commandBox = new JComboBox<>(BROADCAST_COMMANDS);
+    JButton broadcastButton = createModeButton("BROADCAST", new Color(101, 181, 109), isLaptopSize ? 28 : 32);
+    JLabel hintLabel = new JLabel("Ctrl-click tiles to choose bridges (none selected = all)");
+    hintLabel.setForeground(new Color(160, 160, 160));
+    hintLabel.setFont(new Font("Arial", Font.PLAIN, 11));
+
+    broadcastButton.addActionListener(e -> {
+      String command = (String) commandBox.getSelectedItem();
+      java.util.Collection<BridgeEndpoint> targets = overviewPanel.getSelectedEndpoints();
+      int choice = JOptionPane.showConfirmDialog(fleetFrame,
+          "Send \"" + command + "\" to " + targets.size() + " bridge(s)?", "Broadcast Command",
+          JOptionPane.OK_CANCEL_OPTION, JOptionPane.WARNING_MESSAGE);
+      if (choice == JOptionPane.OK_OPTION) {
+        broadcastCommand(command, targets);
+      }
+    });
+
+    bar.add(commandBox);
+    bar.add(broadcastButton);
+    bar.add(hintLabel);
+    return bar;
+  }
+
+  // Fans the command out without blocking the EDT; the outcome is logged when every
+  // bridge has replied or the deadline passes
+  private void broadcastCommand(String command, java.util.Collection<BridgeEndpoint> targets) {
+    updateMessageLog("SENT: " + command + " to " + targets.size() + " bridge(s)");
+    fleetBroadcast.broadcast(command, targets, BROADCAST_DEADLINE, TimeUnit.MILLISECONDS).thenAccept(report -> {
+      updateMessageLog("INFO: Broadcast " + report.formatSummary());
+      int listed = 0;
+      for (FleetBroadcast.Result result : report.results) {
+        if (result.outcome != FleetBroadcast.Outcome.EXECUTED && listed++ < 10) {
+          updateMessageLog("WARNING: [" + result.endpoint.getName() + "] " + command + " "
+              + (result.outcome == FleetBroadcast.Outcome.TIMED_OUT ? "not confirmed" : "failed: " + result.error));
         }
-      } else if (communicationLost && timeSinceLastStatus <= 5000) {
-        communicationLost = false;
-        updateCommunicationStatus(true);
-        updateMessageLog("SYSTEM: Connected to ESP");
       }
     });
-    communicationCheckTimer.start();
+  }
+
+  // Full animated view of one bridge, fed from its latest STATUS
+  private void openBridgeView(BridgeEndpoint endpoint) {
+    if (endpoint.isDisplayed()) {
+      frame.toFront();
+      return;
+    }
+
+    JFrame bridgeFrame = new JFrame("Bridge " + endpoint.getName());
+    BridgeAnimationPanel panel = new BridgeAnimationPanel();
+    panel.setShowLatencyOverlay(false);
+    FrameScheduler.Registration statusTask = FrameScheduler.shared().schedule("bridge view " + endpoint.getName(),
+        now -> {
+          BridgeStatus status = endpoint.getLatestStatus();
+          if (status != null) {
+            panel.updateState(status.getBridgeState(), status.getGateState(), status.getRoadLight(),
+                status.getBoatLight());
+            panel.updateBridgeLights(status.isBridgeLightOn());
+          }
+          return true;
+        }, 100, TimeUnit.MILLISECONDS);
+
+    bridgeFrame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+    bridgeFrame.addWindowListener(new java.awt.event.WindowAdapter() {
+      @Override
+      public void windowClosed(java.awt.event.WindowEvent e) {
+        statusTask.cancel();
+        panel.stopAnimation();
+      }
+    });
+    bridgeFrame.add(panel);
+    bridgeFrame.setSize(900, 650);
+    bridgeFrame.setLocationRelativeTo(fleetFrame);
+    bridgeFrame.setVisible(true);
+  }
+
+  public void initializeReliableCommands(ReliableCommands reliableCommands) {
+    this.reliableCommands = reliableCommands;
+    updateMessageLog("Reliable command delivery enabled");
+  }
+
+  // Queue a command without blocking the EDT - failures are reported in the log
+  // Operator commands only; heartbeats, retransmissions, resync requests and fleet
+  // broadcasts go out without a notification so they can't crowd out warnings
+  private void sendCommand(String command) {
+    if (reliableCommands != null) {
+      reliableCommands.sendCommand(command).whenComplete((rttNanos, error) -> {
+        if (error != null) {
+          updateMessageLog("ERROR: " + error.getMessage());
+        } else {
+          showNotification("Sent message to esp: " + command);
+          updateMessageLog(String.format("INFO: %s acknowledged in %.1f ms", command, rttNanos / 1_000_000.0));
+        }
+      });
+      updateMessageLog("SENT: " + command);
+      return;
+    }
+
+    mcpSendObject.sendAsync(command).whenComplete((ignored, error) -> {
+      if (error instanceof CancellationException) {
+        // A newer command in the same group replaced it before it went out
+        updateMessageLog("INFO: " + error.getMessage());
+      } else if (error != null) {
+        updateMessageLog("ERROR: Failed to send " + command + " - " + error.getMessage());
+      } else {
+        showNotification("Sent message to esp: " + command);
+      }
+    });
+    updateMessageLog("SENT: " + command);
+  }
+
+  // Called by the LivenessMonitor (off the EDT) only when the link state changes
+  public void updateLiveness(LivenessMonitor.State previous, LivenessMonitor.State current, double phi,
+      long silenceMillis) {
+    switch (current) {
+      case SUSPECT:
+        updateMessageLog(String.format("WARNING: STATUS overdue for %.1f seconds (phi %.1f)",
+            silenceMillis / 1000.0, phi));
+        break;
+      case LOST:
+        updateCommunicationStatus(false);
+        updateMessageLog(String.format("WARNING: Communication lost - No status received for %.1f seconds",
+            silenceMillis / 1000.0));
+        break;
+      case HEALTHY:
+        if (previous == LivenessMonitor.State.LOST) {
+          updateCommunicationStatus(true);
+          updateMessageLog("SYSTEM: Connected to ESP");
+        } else if (previous == LivenessMonitor.State.SUSPECT) {
+          updateMessageLog("INFO: STATUS stream recovered");
+        }
+        break;
+      default:
+        break;
+    }
   }
 
   private void updateCommunicationStatus(boolean connected) {
@@ -142,7 +291,7 @@ public class Gui {
   }
 
   private void createGUI() {
-    System.out.println("Creating GUI window");
+    Log.debug("Creating GUI window");
 
     frame = new JFrame("Bridge Control Interface");
 
@@ -213,7 +362,7 @@ public class Gui {
     // Create notification panel after frame is visible
     createNotificationPanel();
 
-    System.out.println("GUI window should now be visible");
+    Log.debug("GUI window should now be visible");
   }
 
   private void handleResize() {
@@ -223,14 +372,7 @@ public class Gui {
 
     // Update notification panel width based on frame, but center on bridge panel
     if (notificationPanel != null && bridgePanel != null) {
-      // Calculate position based on bridge panel center
-      java.awt.Point bridgePanelLocationInLayeredPane = javax.swing.SwingUtilities.convertPoint(
-          bridgePanel.getParent(), bridgePanel.getX(), bridgePanel.getY(), frame.getLayeredPane());
-
-      int panelWidth = frame.getWidth() / 3;
-      int bridgeCenterX = bridgePanelLocationInLayeredPane.x + bridgePanel.getWidth() / 2;
-      int panelX = bridgeCenterX - panelWidth / 2;
-      notificationPanel.setBounds(panelX, notificationY, panelWidth, 70);
+      layoutNotificationPanel();
     }
 
     if (wasLaptopSize != isLaptopSize) {
@@ -268,11 +410,10 @@ public class Gui {
     }
   }
 
-  private JPanel createStatsPanel() {
-    JPanel statsPanel = new JPanel();
-    statsPanel.setLayout(new BoxLayout(statsPanel, BoxLayout.Y_AXIS));
-    statsPanel.setBackground(new Color(28, 28, 30));
-    statsPanel.setBorder(BorderFactory.createCompoundBorder(
+  private JComponent createStatsPanel() {
+    int panelWidth = isLaptopSize ? 220 : 250;
+    telemetryReadout = new TelemetryReadout(panelWidth);
+    telemetryReadout.setBorder(BorderFactory.createCompoundBorder(
         BorderFactory.createTitledBorder(
             BorderFactory.createLineBorder(new Color(60, 60, 62), 2),
             "System Status",
@@ -281,59 +422,27 @@ public class Gui {
             new Font("Arial", Font.BOLD, 13),
             new Color(200, 200, 200)),
         BorderFactory.createEmptyBorder(10, 10, 10, 10)));
-    int panelWidth = isLaptopSize ? 220 : 250;
-    statsPanel.setPreferredSize(new Dimension(panelWidth, 0));
-
-    // Create all status labels - vertical list
-    modeLabel = createStatLabel("Mode: AUTOMATIC");
-    bridgeStatusLabel = createStatLabel("Bridge: CLOSED");
-    gateStatusLabel = createStatLabel("Gate: OPEN");
-    sequenceStateLabel = createStatLabel("State: IDLE");
-    roadDistanceLabel = createStatLabel("Road: 0 cm");
-    boatDistanceLabel = createStatLabel("Boat: 0 cm");
-    bridgeMovementLabel = createStatLabel("Bridge: 0 cm");
-    boatClearanceLabel = createStatLabel("Clearance: 0 cm");
-    manualLightsLabel = createStatLabel("Manual Lights: No");
-    lastWeightLabel = createStatLabel("Last Weight: N/A");
-    queueStatusLabel = createStatLabel("");
-
-    // Add all labels vertically
-    statsPanel.add(modeLabel);
-    statsPanel.add(Box.createVerticalStrut(5));
-    statsPanel.add(bridgeStatusLabel);
-    statsPanel.add(Box.createVerticalStrut(5));
-    statsPanel.add(gateStatusLabel);
-    statsPanel.add(Box.createVerticalStrut(5));
-    statsPanel.add(sequenceStateLabel);
-    statsPanel.add(Box.createVerticalStrut(8));
-    statsPanel.add(roadDistanceLabel);
-    statsPanel.add(Box.createVerticalStrut(5));
-    statsPanel.add(boatDistanceLabel);
-    statsPanel.add(Box.createVerticalStrut(5));
-    statsPanel.add(bridgeMovementLabel);
-    statsPanel.add(Box.createVerticalStrut(5));
-    statsPanel.add(boatClearanceLabel);
-    statsPanel.add(Box.createVerticalStrut(8));
-    statsPanel.add(manualLightsLabel);
-    statsPanel.add(Box.createVerticalStrut(5));
-    statsPanel.add(lastWeightLabel);
-    statsPanel.add(Box.createVerticalStrut(5));
-    statsPanel.add(queueStatusLabel);
-
-    // Add glue to push everything to top
-    statsPanel.add(Box.createVerticalGlue());
 
+    telemetryReadout.set(TelemetryReadout.Cell.MODE, "AUTOMATIC");
+    telemetryReadout.set(TelemetryReadout.Cell.BRIDGE, "CLOSED");
+    telemetryReadout.set(TelemetryReadout.Cell.GATE, "OPEN");
+    telemetryReadout.set(TelemetryReadout.Cell.STATE, "IDLE");
+    telemetryReadout.set(TelemetryReadout.Cell.ROAD_DISTANCE, "0 cm");
+    telemetryReadout.set(TelemetryReadout.Cell.BOAT_DISTANCE, "0 cm");
+    telemetryReadout.set(TelemetryReadout.Cell.BRIDGE_MOVEMENT, "0 cm");
+    telemetryReadout.set(TelemetryReadout.Cell.BOAT_CLEARANCE, "0 cm");
+    telemetryReadout.set(TelemetryReadout.Cell.MANUAL_LIGHTS, "No");
+    telemetryReadout.set(TelemetryReadout.Cell.WEIGHT, "N/A");
+    telemetryReadout.setHeartbeats(0, 0, 0);
+    telemetryReadout.set(TelemetryReadout.Cell.LINK, "Link: no echo yet");
+
+    // The readout sits at the top; the outer panel fills the rest of the height
+    JPanel statsPanel = new JPanel(new BorderLayout());
+    statsPanel.setBackground(new Color(28, 28, 30));
+    statsPanel.add(telemetryReadout, BorderLayout.NORTH);
     return statsPanel;
   }
 
-  private JLabel createStatLabel(String text) {
-    JLabel label = new JLabel(text);
-    label.setFont(new Font("Arial", Font.PLAIN, 14));
-    label.setForeground(new Color(180, 180, 180));
-    label.setAlignmentX(Component.LEFT_ALIGNMENT);
-    return label;
-  }
-
   private JPanel createCenterPanel() {
     JPanel centerPanel = new JPanel(new BorderLayout());
     centerPanel.setBackground(new Color(18, 18, 18));
@@ -403,8 +512,11 @@ public class Gui {
 
     // Add to layered pane so it appears on top of everything
     frame.getLayeredPane().add(notificationPanel, javax.swing.JLayeredPane.MODAL_LAYER);
+    layoutNotificationPanel();
+  }
 
-    // Calculate position based on bridge panel center
+  // Centered over the bridge panel, a third of the window wide
+  private void layoutNotificationPanel() {
     java.awt.Point bridgePanelLocationInLayeredPane = javax.swing.SwingUtilities.convertPoint(
         bridgePanel.getParent(), bridgePanel.getX(), bridgePanel.getY(), frame.getLayeredPane());
 
@@ -415,83 +527,48 @@ public class Gui {
   }
 
   public void showNotification(String message) {
-    SwingUtilities.invokeLater(() -> {
-      // Stop any existing notification animations/timers
-      if (notificationTimer != null && notificationTimer.isRunning()) {
-        notificationTimer.stop();
-      }
-      if (notificationSlideTimer != null && notificationSlideTimer.isRunning()) {
-        notificationSlideTimer.stop();
-      }
-
-      // If a notification is already visible, slide it out first
-      if (notificationPanel.isVisible()) {
-        slideOutNotification(() -> {
-          // After sliding out, show the new notification
-          displayNewNotification(message);
-        });
-      } else {
-        // No notification visible, show immediately
-        displayNewNotification(message);
-      }
-    });
+    notifications.post(message, NotificationManager.Severity.INFO);
   }
 
-  private void displayNewNotification(String message) {
-    notificationLabel.setText(message);
-    notificationPanel.setVisible(true);
-    notificationY = -70;
-
-    // Calculate position based on bridge panel center
-    java.awt.Point bridgePanelLocationInLayeredPane = javax.swing.SwingUtilities.convertPoint(
-        bridgePanel.getParent(), bridgePanel.getX(), bridgePanel.getY(), frame.getLayeredPane());
-
-    int panelWidth = frame.getWidth() / 3;
-    int bridgeCenterX = bridgePanelLocationInLayeredPane.x + bridgePanel.getWidth() / 2;
-    int panelX = bridgeCenterX - panelWidth / 2;
-    notificationPanel.setBounds(panelX, notificationY, panelWidth, 70);
-
-    // Slide in animation
-    notificationSlideTimer = new Timer(10, e -> {
-      notificationY += 3;
-      if (notificationY >= notificationTargetY) {
-        notificationY = notificationTargetY;
-        notificationSlideTimer.stop();
-
-        // Start timer to hide notification after 5 seconds
-        notificationTimer = new Timer(5000, evt -> {
-          slideOutNotification(null);
-        });
-        notificationTimer.setRepeats(false);
-        notificationTimer.start();
-      }
-      notificationPanel.setBounds(panelX, notificationY, panelWidth, 70);
-    });
-    notificationSlideTimer.start();
+  // Identical messages are merged with a repeat count and the most severe is shown first
+  public void showNotification(String message, NotificationManager.Severity severity) {
+    notifications.post(message, severity);
   }
 
-  private void slideOutNotification(Runnable onComplete) {
-    // Calculate position based on bridge panel center
-    java.awt.Point bridgePanelLocationInLayeredPane = javax.swing.SwingUtilities.convertPoint(
-        bridgePanel.getParent(), bridgePanel.getX(), bridgePanel.getY(), frame.getLayeredPane());
+  // Slides the notification panel for the NotificationManager's frame clock
+  private final class NotificationPanelView implements NotificationManager.View {
+    @Override
+    public void show(String text, NotificationManager.Severity severity) {
+      if (notificationPanel == null) {
+        return;
+      }
+      notificationLabel.setText(text);
+      Color borderColor;
+      switch (severity) {
+        case ERROR:
+          borderColor = new Color(231, 76, 60);
+          break;
+        case WARNING:
+          borderColor = new Color(241, 196, 15);
+          break;
+        default:
+          borderColor = new Color(100, 100, 102);
+          break;
+      }
+      notificationPanel.setBorder(BorderFactory.createCompoundBorder(
+          BorderFactory.createLineBorder(borderColor, 2),
+          BorderFactory.createEmptyBorder(15, 30, 15, 30)));
+    }
 
-    int panelWidth = frame.getWidth() / 3;
-    int bridgeCenterX = bridgePanelLocationInLayeredPane.x + bridgePanel.getWidth() / 2;
-    int panelX = bridgeCenterX - panelWidth / 2;
-    notificationSlideTimer = new Timer(10, e -> {
-      notificationY -= 3;
-      if (notificationY <= -70) {
-        notificationY = -70;
-        notificationSlideTimer.stop();
-        notificationPanel.setVisible(false);
-
-        if (onComplete != null) {
-          onComplete.run();
-        }
+    @Override
+    public void setSlide(double visible) {
+      if (notificationPanel == null) {
+        return;
       }
-      notificationPanel.setBounds(panelX, notificationY, panelWidth, 70);
-    });
-    notificationSlideTimer.start();
+      notificationPanel.setVisible(visible > 0);
+      notificationY = -70 + (int) Math.round((notificationTargetY + 70) * visible);
+      layoutNotificationPanel();
+    }
   }
 
   private JPanel createRightPanel() {
@@ -585,7 +662,7 @@ public class Gui {
         new Font("Arial", Font.BOLD, 13),
         new Color(200, 200, 200)));
     panel.setBackground(new Color(28, 28, 30));
-    panel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 120));
+    panel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 165));
 
     GridBagConstraints gbc = new GridBagConstraints();
     gbc.insets = new Insets(5, 10, 5, 10);
@@ -601,8 +678,7 @@ public class Gui {
       if (!isOverrideMode)
         return;
       if (mcpSendObject != null) {
-        mcpSendObject.sendMessage("automatic_mode");
-        updateMessageLog("SENT: automatic_mode");
+        sendCommand("automatic_mode");
       } else {
         updateMessageLog("ERROR: Send object not initialized");
       }
@@ -613,8 +689,7 @@ public class Gui {
       if (isOverrideMode)
         return;
       if (mcpSendObject != null) {
-        mcpSendObject.sendMessage("override_mode");
-        updateMessageLog("SENT: override_mode");
+        sendCommand("override_mode");
       } else {
         updateMessageLog("ERROR: Send object not initialized");
       }
@@ -629,9 +704,15 @@ public class Gui {
     overrideModeButton.setText("SWITCH TO OVERRIDE MODE");
     overrideModeButton.setBackground(new Color(101, 181, 109));
 
+    // Fleet overview is available in either mode
+    JButton fleetButton = createModeButton("FLEET OVERVIEW", buttonColor, buttonHeight);
+    fleetButton.addActionListener(e -> showFleetOverview());
+
     panel.add(automaticModeButton, gbc);
     gbc.gridy = 1;
     panel.add(overrideModeButton, gbc);
+    gbc.gridy = 2;
+    panel.add(fleetButton, gbc);
 
     return panel;
   }
@@ -726,11 +807,9 @@ public class Gui {
     manualControlCheckbox.addActionListener(e -> {
       if (isOverrideMode && mcpSendObject != null) {
         if (manualControlCheckbox.isSelected()) {
-          mcpSendObject.sendMessage("manual_bridge_lights_true");
-          updateMessageLog("SENT: manual_bridge_lights_true");
+          sendCommand("manual_bridge_lights_true");
         } else {
-          mcpSendObject.sendMessage("manual_bridge_lights_false");
-          updateMessageLog("SENT: manual_bridge_lights_false");
+          sendCommand("manual_bridge_lights_false");
         }
       }
     });
@@ -815,8 +894,7 @@ public class Gui {
       if (!button.isEnabled())
         return;
       if (isOverrideMode && mcpSendObject != null) {
-        mcpSendObject.sendMessage(command);
-        updateMessageLog("SENT: " + command);
+        sendCommand(command);
       } else {
         updateMessageLog("ERROR: Send object not initialized");
       }
@@ -886,14 +964,34 @@ public class Gui {
       }
     });
 
+    // Saves the raw datagram flight recording, not the formatted log
+    JButton recordingButton = new JButton("Recording");
+    recordingButton.setFont(new Font("Arial", Font.PLAIN, 10));
+    recordingButton.setBackground(new Color(127, 140, 141));
+    recordingButton.setForeground(Color.WHITE);
+    recordingButton.setFocusPainted(false);
+    recordingButton.setBorderPainted(false);
+    recordingButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
+    recordingButton.addActionListener(e -> exportDatagramRecording());
+
+    recordingButton.addMouseListener(new java.awt.event.MouseAdapter() {
+      public void mouseEntered(java.awt.event.MouseEvent evt) {
+        recordingButton.setBackground(new Color(149, 165, 166));
+      }
+
+      public void mouseExited(java.awt.event.MouseEvent evt) {
+        recordingButton.setBackground(new Color(127, 140, 141));
+      }
+    });
+
     buttonPanel.add(clearButton);
     buttonPanel.add(exportButton);
+    buttonPanel.add(recordingButton);
 
     headerPanel.add(titleLabel, BorderLayout.WEST);
     headerPanel.add(buttonPanel, BorderLayout.EAST);
 
-    messageLogArea = new JTextPane();
-    messageLogArea.setEditable(false);
+    messageLogArea = new MessageLogView();
     if (isLaptopSize) {
       messageLogArea.setFont(new Font("Consolas", Font.PLAIN, 12));
     } else {
@@ -965,7 +1063,7 @@ public class Gui {
   }
 
   private void clearMessageLog() {
-    messageLogArea.setText("");
+    messageLogArea.clear();
     updateMessageLog("Message log cleared");
   }
 
@@ -997,6 +1095,35 @@ public class Gui {
     }
   }
 
+  private void exportDatagramRecording() {
+    JFileChooser fileChooser = new JFileChooser();
+    fileChooser.setDialogTitle("Save Datagram Recording");
+
+    String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+    fileChooser.setSelectedFile(new File("datagrams_" + timestamp + ".txt"));
+
+    int result = fileChooser.showSaveDialog(frame);
+
+    if (result == JFileChooser.APPROVE_OPTION) {
+      File file = fileChooser.getSelectedFile();
+      // Up to 8 MB of datagrams to format and write, so not on the EDT
+      Thread dumper = new Thread(() -> {
+        try {
+          int records = DatagramRecorder.shared().dump(file.toPath(), "saved from the console");
+          updateMessageLog("Datagram recording (" + records + " datagrams) saved to: " + file.getName());
+        } catch (IOException ex) {
+          SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(frame,
+              "Error saving recording:\n" + ex.getMessage(),
+              "Recording Error",
+              JOptionPane.ERROR_MESSAGE));
+          updateMessageLog("ERROR: Failed to save datagram recording - " + ex.getMessage());
+        }
+      }, "datagram-dump");
+      dumper.setDaemon(true);
+      dumper.start();
+    }
+  }
+
   private void setControlPanelEnabled(boolean enabled) {
     // Update section labels
     if (enabled) {
@@ -1059,96 +1186,71 @@ public class Gui {
     }
   }
 
-  public void updateSystemStatus(String mode, String bridgeState, String gateState,
-      String roadDistance, String boatDistance, String bridgeMovementDistance,
-      String boatClearanceDistance, String roadLight, String boatLight,
-      String bridgeLight, String manualBridgeLights, String sequenceState,
-      String movementState, String queueSize, String executing) {
+  public void updateSystemStatus(BridgeStatus status) {
+    long receivedNanos = status.getReceivedNanos();
+    BridgeStatus.Mode mode = status.getMode();
+    BridgeStatus.SequenceState sequenceState = status.getSequenceState();
+    String queueSize = status.get(BridgeStatus.Field.QUEUE);
 
+    long queuedAt = System.nanoTime();
     SwingUtilities.invokeLater(() -> {
-      lastStatusTime = System.currentTimeMillis();
-
-      // Update mode label
-      modeLabel.setText("Mode: " + mode);
-      if (mode.equals("AUTOMATIC")) {
-        modeLabel.setForeground(new Color(46, 204, 113));
-      } else if (mode.equals("OVERRIDE")) {
-        modeLabel.setForeground(new Color(231, 76, 60));
-      }
-
-      // Update bridge status
-      bridgeStatusLabel.setText("Bridge: " + bridgeState);
-      if (bridgeState.equals("OPEN")) {
-        bridgeStatusLabel.setForeground(new Color(46, 204, 113));
-      } else if (bridgeState.equals("CLOSED")) {
-        bridgeStatusLabel.setForeground(new Color(231, 76, 60));
-      } else {
-        bridgeStatusLabel.setForeground(new Color(150, 150, 150));
-      }
-
-      // Update gate status
-      gateStatusLabel.setText("Gate: " + gateState);
-      if (gateState.equals("OPEN")) {
-        gateStatusLabel.setForeground(new Color(46, 204, 113));
-      } else if (gateState.equals("CLOSED")) {
-        gateStatusLabel.setForeground(new Color(231, 76, 60));
-      } else {
-        gateStatusLabel.setForeground(new Color(150, 150, 150));
+      long appliedAt = System.nanoTime();
+      JfrEvents.GuiUpdateApplied appliedEvent = new JfrEvents.GuiUpdateApplied();
+      appliedEvent.begin();
+
+      // Cells show the raw text so values the console doesn't know are still visible
+      Color modeColor = TelemetryReadout.DEFAULT_COLOR;
+      if (mode == BridgeStatus.Mode.AUTOMATIC) {
+        modeColor = new Color(46, 204, 113);
+      } else if (mode == BridgeStatus.Mode.OVERRIDE) {
+        modeColor = new Color(231, 76, 60);
       }
+      telemetryReadout.set(TelemetryReadout.Cell.MODE, status.get(BridgeStatus.Field.MODE), modeColor);
+      telemetryReadout.set(TelemetryReadout.Cell.BRIDGE, status.get(BridgeStatus.Field.BRIDGE),
+          positionColor(status.getBridgeState()));
+      telemetryReadout.set(TelemetryReadout.Cell.GATE, status.get(BridgeStatus.Field.GATE),
+          positionColor(status.getGateState()));
 
       // Update sequence state
       boolean wasDiagnostic = isDiagnosticMode;
-      isDiagnosticMode = sequenceState.equals("DIAGNOSTIC");
-
-      if (isLaptopSize) {
-        sequenceStateLabel.setText("State: " + sequenceState);
-      } else {
-        sequenceStateLabel.setText("State: " + "\n" + sequenceState);
-      }
+      isDiagnosticMode = sequenceState == BridgeStatus.SequenceState.DIAGNOSTIC;
 
-      if (sequenceState.equals("DIAGNOSTIC")) {
-        sequenceStateLabel.setForeground(new Color(231, 76, 60));
-      } else if (sequenceState.equals("IDLE") || sequenceState.equals("CARS_PASSING")
-          || sequenceState.equals("BOATS_PASSING")) {
-        sequenceStateLabel.setForeground(new Color(46, 204, 113));
+      Color sequenceColor;
+      if (isDiagnosticMode) {
+        sequenceColor = new Color(231, 76, 60);
+      } else if (sequenceState.isSteady()) {
+        sequenceColor = new Color(46, 204, 113);
       } else {
-        sequenceStateLabel.setForeground(new Color(241, 196, 15));
+        sequenceColor = new Color(241, 196, 15);
       }
+      telemetryReadout.set(TelemetryReadout.Cell.STATE, status.get(BridgeStatus.Field.SEQUENCE), sequenceColor);
 
       // Update distances
-      roadDistanceLabel.setText("Road: " + roadDistance + " cm");
-      boatDistanceLabel.setText("Boat: " + boatDistance + " cm");
-      bridgeMovementLabel.setText("Bridge: " + bridgeMovementDistance + " cm");
-      boatClearanceLabel.setText("Clearance: " + boatClearanceDistance + " cm");
+      telemetryReadout.set(TelemetryReadout.Cell.ROAD_DISTANCE, status.get(BridgeStatus.Field.ROAD_DISTANCE) + " cm");
+      telemetryReadout.set(TelemetryReadout.Cell.BOAT_DISTANCE, status.get(BridgeStatus.Field.BOAT_DISTANCE) + " cm");
+      telemetryReadout.set(TelemetryReadout.Cell.BRIDGE_MOVEMENT,
+          status.get(BridgeStatus.Field.BRIDGE_MOVEMENT_DISTANCE) + " cm");
+      telemetryReadout.set(TelemetryReadout.Cell.BOAT_CLEARANCE,
+          status.get(BridgeStatus.Field.BOAT_CLEARANCE_DISTANCE) + " cm");
 
       // Update manual lights status
-      manualLightsLabel.setText("Manual Lights: " + manualBridgeLights);
-      if (manualBridgeLights.equals("Yes")) {
-        manualLightsLabel.setForeground(new Color(241, 196, 15));
-      } else {
-        manualLightsLabel.setForeground(new Color(180, 180, 180));
-      }
-
-      // Update weight label
-      lastWeightLabel.setText("Last Weight: " + lastWeightReading);
+      telemetryReadout.set(TelemetryReadout.Cell.MANUAL_LIGHTS, status.get(BridgeStatus.Field.MANUAL_BRIDGE_LIGHTS),
+          status.isManualBridgeLights() ? new Color(241, 196, 15) : TelemetryReadout.DEFAULT_COLOR);
 
       // Update queue status if in override mode
-      if (mode.equals("OVERRIDE") && queueSize != null && !queueSize.isEmpty()) {
-        String queueText = "Queue: " + queueSize;
-        if (executing != null && executing.equals("YES")) {
-          queueText += " (Executing)";
-          queueStatusLabel.setForeground(new Color(241, 196, 15));
+      if (mode == BridgeStatus.Mode.OVERRIDE && !queueSize.isEmpty()) {
+        if (status.isExecuting()) {
+          telemetryReadout.set(TelemetryReadout.Cell.QUEUE, queueSize + " (Executing)", new Color(241, 196, 15));
         } else {
-          queueStatusLabel.setForeground(new Color(180, 180, 180));
+          telemetryReadout.set(TelemetryReadout.Cell.QUEUE, queueSize, TelemetryReadout.DEFAULT_COLOR);
         }
-        queueStatusLabel.setText(queueText);
       } else {
-        queueStatusLabel.setText("");
+        telemetryReadout.set(TelemetryReadout.Cell.QUEUE, "");
       }
 
       // Update mode if it has changed
-      if (!mode.equals("UNKNOWN")) {
-        boolean newOverrideMode = mode.equals("OVERRIDE");
+      if (mode != BridgeStatus.Mode.UNKNOWN) {
+        boolean newOverrideMode = mode == BridgeStatus.Mode.OVERRIDE;
         if (newOverrideMode != isOverrideMode) {
           isOverrideMode = newOverrideMode;
           updateModeButtons();
@@ -1166,19 +1268,56 @@ public class Gui {
       }
 
       // Update animation
-      bridgePanel.updateState(bridgeState, gateState, roadLight, boatLight);
-      bridgePanel.updateBridgeLights(bridgeLight.equals("ON"));
+      bridgePanel.updateState(status.getBridgeState(), status.getGateState(), status.getRoadLight(),
+          status.getBoatLight());
+      bridgePanel.updateBridgeLights(status.isBridgeLightOn());
+
+      long doneAt = System.nanoTime();
+      latencyTracker.record(LatencyTracker.Stage.DISPATCH, queuedAt, doneAt);
+      bridgePanel.traceStatusApplied(receivedNanos, doneAt);
+
+      appliedEvent.end();
+      if (appliedEvent.shouldCommit()) {
+        appliedEvent.queueDelay = appliedAt - queuedAt;
+        appliedEvent.commit();
+      }
     });
   }
 
+  // Open green, closed red, anything in between grey
+  private static Color positionColor(BridgeStatus.Position position) {
+    if (position == BridgeStatus.Position.OPEN) {
+      return new Color(46, 204, 113);
+    } else if (position == BridgeStatus.Position.CLOSED) {
+      return new Color(231, 76, 60);
+    }
+    return new Color(150, 150, 150);
+  }
+
   public void updateWeightReading(String weight) {
     SwingUtilities.invokeLater(() -> {
-      lastWeightReading = weight;
-      lastWeightLabel.setText("Last Weight: " + weight);
-      if (Integer.parseInt(weight) > 3500 * 0.8) {
-        lastWeightLabel.setForeground(new Color(231, 76, 60));
-      } else {
-        lastWeightLabel.setForeground(new Color(46, 204, 113));
+      boolean heavy = Integer.parseInt(weight) > 3500 * 0.8;
+      telemetryReadout.set(TelemetryReadout.Cell.WEIGHT, weight,
+          heavy ? new Color(231, 76, 60) : new Color(46, 204, 113));
+    });
+  }
+
+  // Heartbeats are summarised here rather than logged individually
+  public void updateHeartbeatStats(long sent, long skipped, long intervalMillis) {
+    SwingUtilities.invokeLater(() -> {
+      if (telemetryReadout != null) {
+        telemetryReadout.setHeartbeats(sent, skipped, intervalMillis);
+      }
+    });
+  }
+
+  public void updateLinkMetrics(LinkMetrics linkMetrics) {
+    String linkText = linkMetrics.formatSummary();
+    String offsetText = String.format("Clock offset: %+.1f ms", linkMetrics.getClockOffsetNanos() / 1_000_000.0);
+    SwingUtilities.invokeLater(() -> {
+      if (telemetryReadout != null) {
+        telemetryReadout.set(TelemetryReadout.Cell.LINK, linkText);
+        telemetryReadout.set(TelemetryReadout.Cell.CLOCK_OFFSET, offsetText);
       }
     });
   }
@@ -1201,123 +1340,156 @@ public class Gui {
     }
   }
 
+  // Called from any thread. The message is stored as is; the log view wraps it
+  // when it's painted.
   public void updateMessageLog(String message) {
     if (messageLogArea != null) {
       SwingUtilities.invokeLater(() -> {
-        try {
-          String timeStamp = new SimpleDateFormat("HH:mm:ss").format(new Date());
-
-          // Add line break after MANUAL_BRIDGE_LIGHTS value
-          String processedMessage = message;
-          int manualLightsIndex = message.indexOf("MANUAL_BRIDGE_LIGHTS:");
-          if (manualLightsIndex != -1) {
-            // Find the end of the MANUAL_BRIDGE_LIGHTS value (either YES or NO)
-            int afterValue = -1;
-            if (message.indexOf("MANUAL_BRIDGE_LIGHTS:YES", manualLightsIndex) != -1) {
-              afterValue = manualLightsIndex + "MANUAL_BRIDGE_LIGHTS:YES".length();
-            } else if (message.indexOf("MANUAL_BRIDGE_LIGHTS:NO", manualLightsIndex) != -1) {
-              afterValue = manualLightsIndex + "MANUAL_BRIDGE_LIGHTS:NO".length();
-            }
-
-            // Insert line break after the value if there's more content
-            if (afterValue != -1 && afterValue < message.length()) {
-              // Check if next character is a pipe separator
-              if (message.charAt(afterValue) == '|') {
-                processedMessage = message.substring(0, afterValue) + "\n    " + message.substring(afterValue + 1);
-              }
-            }
-          }
-
-          String newMessage = timeStamp + " - " + processedMessage + "\n";
-
-          StyledDocument doc = messageLogArea.getStyledDocument();
-
-          // Change all existing text to light gray
-          javax.swing.text.Style defaultStyle = messageLogArea.addStyle("Default", null);
-          StyleConstants.setForeground(defaultStyle, new Color(180, 180, 180));
-          doc.setCharacterAttributes(0, doc.getLength(), defaultStyle, false);
-
-          // Determine color based on message type
-          javax.swing.text.Style messageStyle = messageLogArea.addStyle("MessageStyle", null);
-          if (message.startsWith("ERROR") || message.startsWith("SYSTEM: communication_lost")) {
-            StyleConstants.setForeground(messageStyle, new Color(231, 76, 60));
-          } else if (message.startsWith("WARNING")) {
-            StyleConstants.setForeground(messageStyle, new Color(241, 196, 15));
-          } else if (message.startsWith("EXECUTED") || message.startsWith("MODE CHANGE")
-              || message.startsWith("SYSTEM: communication_connected")) {
-            StyleConstants.setForeground(messageStyle, new Color(46, 204, 113));
-          } else if (message.startsWith("INFO") || message.startsWith("SENT") || message.startsWith("RECEIVED")) {
-            StyleConstants.setForeground(messageStyle, new Color(52, 152, 219));
-          } else {
-            StyleConstants.setForeground(messageStyle, new Color(149, 165, 166));
-          }
-
-          doc.insertString(0, newMessage, messageStyle);
-          messageLogArea.setCaretPosition(0);
-        } catch (BadLocationException e) {
-          System.err.println("Error updating message log: " + e.getMessage());
+        String newMessage = new SimpleDateFormat("HH:mm:ss").format(new Date()) + " - " + message;
+
+        JfrEvents.LogAppend appendEvent = new JfrEvents.LogAppend();
+        appendEvent.begin();
+        messageLogArea.append(newMessage, messageColor(message));
+        appendEvent.end();
+        if (appendEvent.shouldCommit()) {
+          appendEvent.length = newMessage.length();
+          appendEvent.entries = messageLogArea.getEntryCount();
+          appendEvent.commit();
         }
+        // Keep the newest entry in view, as the log always has
+        messageLogArea.scrollRectToVisible(new Rectangle(0, 0, 1, 1));
       });
     }
   }
 
+  private static Color messageColor(String message) {
+    if (message.startsWith("ERROR") || message.startsWith("SYSTEM: communication_lost")) {
+      return new Color(231, 76, 60);
+    } else if (message.startsWith("WARNING")) {
+      return new Color(241, 196, 15);
+    } else if (message.startsWith("EXECUTED") || message.startsWith("MODE CHANGE")
+        || message.startsWith("SYSTEM: communication_connected")) {
+      return new Color(46, 204, 113);
+    } else if (message.startsWith("INFO") || message.startsWith("SENT") || message.startsWith("RECEIVED")) {
+      return new Color(52, 152, 219);
+    }
+    return new Color(149, 165, 166);
+  }
+
   // Bridge Animation Panel
   class BridgeAnimationPanel extends JPanel {
-    private String bridgeState = "CLOSED";
-    private String gateState = "OPEN";
-    private String roadLight = "RED";
-    private String boatLight = "RED";
+    private BridgeStatus.Position bridgeState = BridgeStatus.Position.CLOSED;
+    private BridgeStatus.Position gateState = BridgeStatus.Position.OPEN;
+    private BridgeStatus.Light roadLight = BridgeStatus.Light.RED;
+    private BridgeStatus.Light boatLight = BridgeStatus.Light.RED;
     private boolean bridgeLightsOn = false;
 
     private float bridgeAngle = 0f;
     private float gateAngle = 90f;
-    private Timer animationTimer;
+    private final FrameScheduler.Registration animationTask;
     private double waveOffset = 0;
     private int lightPulse = 0;
 
+    // Oldest applied-but-not-yet-painted STATUS, used to close the latency trace
+    private long pendingReceivedNanos = 0;
+    private long pendingAppliedNanos = 0;
+    private boolean showLatencyOverlay = true;
+    private String[] overlayLines;
+    private int overlayTextWidth;
+
     public BridgeAnimationPanel() {
       setBackground(new Color(18, 18, 18));
 
-      animationTimer = new Timer(16, e -> {
-        boolean needsRepaint = false;
-
-        float targetBridgeAngle = this.bridgeState.equals("OPEN") ? 90f : 0f;
-        if (Math.abs(bridgeAngle - targetBridgeAngle) > 0.5f) {
-          bridgeAngle += (targetBridgeAngle - bridgeAngle) * 0.1f;
-          needsRepaint = true;
-        }
-
-        float targetGateAngle = this.gateState.equals("OPEN") ? 90f : 0f;
-        if (Math.abs(gateAngle - targetGateAngle) > 0.5f) {
-          gateAngle += (targetGateAngle - gateAngle) * 0.1f;
-          needsRepaint = true;
-        }
+      // Runs only while the bridge or gate is moving; waves and light pulse hold
+      // still in between, so an idle view costs no frames. updateState resumes it.
+      animationTask = FrameScheduler.shared().scheduleEveryFrame("animation", now -> {
+        float targetBridgeAngle = this.bridgeState == BridgeStatus.Position.OPEN ? 90f : 0f;
+        float targetGateAngle = this.gateState == BridgeStatus.Position.OPEN ? 90f : 0f;
+        bridgeAngle = approach(bridgeAngle, targetBridgeAngle);
+        gateAngle = approach(gateAngle, targetGateAngle);
 
         // Continuously increment wave offset without resetting
         waveOffset += 1.0;
         lightPulse = (lightPulse + 1) % 60;
-        needsRepaint = true;
-
-        if (needsRepaint) {
-          repaint();
-        }
+        repaint();
+        return bridgeAngle != targetBridgeAngle || gateAngle != targetGateAngle;
       });
-      animationTimer.start();
     }
 
-    public void updateState(String bridge, String gate, String road, String boat) {
+    // One frame of easing towards target, snapping once within half a degree
+    private static float approach(float angle, float target) {
+      if (Math.abs(angle - target) <= 0.5f) {
+        return target;
+      }
+      return angle + (target - angle) * 0.1f;
+    }
+
+    public void updateState(BridgeStatus.Position bridge, BridgeStatus.Position gate, BridgeStatus.Light road,
+        BridgeStatus.Light boat) {
+      boolean targetChanged = bridge != this.bridgeState || gate != this.gateState;
+      boolean lightsChanged = road != this.roadLight || boat != this.boatLight;
       this.bridgeState = bridge;
       this.gateState = gate;
       this.roadLight = road;
       this.boatLight = boat;
+      if (targetChanged) {
+        animationTask.resume();
+      } else if (lightsChanged) {
+        repaint();
+      }
     }
 
     public void updateBridgeLights(boolean lightsOn) {
-      this.bridgeLightsOn = lightsOn;
+      if (lightsOn != this.bridgeLightsOn) {
+        this.bridgeLightsOn = lightsOn;
+        repaint();
+      }
+    }
+
+    public void traceStatusApplied(long receivedNanos, long appliedNanos) {
+      // Keep the oldest pending trace so a burst of updates reports its worst case
+      if (pendingReceivedNanos == 0) {
+        pendingReceivedNanos = receivedNanos;
+        pendingAppliedNanos = appliedNanos;
+      }
+      // The trace closes on the next paint, which an idle view wouldn't otherwise get
+      repaint();
+    }
+
+    public void stopAnimation() {
+      animationTask.cancel();
+    }
+
+    public void setShowLatencyOverlay(boolean show) {
+      this.showLatencyOverlay = show;
+      repaint();
     }
 
     @Override
     protected void paintComponent(Graphics g) {
+      JfrEvents.FramePainted paintedEvent = new JfrEvents.FramePainted();
+      paintedEvent.begin();
+      paintScene(g);
+      if (showLatencyOverlay) {
+        drawLatencyOverlay((Graphics2D) g);
+      }
+      paintedEvent.end();
+
+      if (pendingReceivedNanos != 0) {
+        long paintedAt = System.nanoTime();
+        latencyTracker.record(LatencyTracker.Stage.PAINT, pendingAppliedNanos, paintedAt);
+        latencyTracker.record(LatencyTracker.Stage.END_TO_END, pendingReceivedNanos, paintedAt);
+        pendingReceivedNanos = 0;
+        pendingAppliedNanos = 0;
+      }
+      if (paintedEvent.shouldCommit()) {
+        paintedEvent.width = getWidth();
+        paintedEvent.height = getHeight();
+        paintedEvent.commit();
+      }
+    }
+
+    private void paintScene(Graphics g) {
       super.paintComponent(g);
       Graphics2D g2d = (Graphics2D) g;
       g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
@@ -1490,8 +1662,8 @@ public class Gui {
       }
 
       // Draw gates on both sides
-      drawGate(g2d, centerX - 200, waterY, liftOffset, true);
-      drawGate(g2d, centerX + 200, waterY, liftOffset, false);
+      BridgeDrawing.drawGate(g2d, centerX - 200, waterY, gateAngle, true);
+      BridgeDrawing.drawGate(g2d, centerX + 200, waterY, gateAngle, false);
 
       // Draw traffic lights
       drawTrafficLights(g2d, centerX, waterY);
@@ -1537,6 +1709,32 @@ public class Gui {
       }
     }
 
+    // The tracker rebuilds the summary once a second; its box width is only measured when it changes
+    private void drawLatencyOverlay(Graphics2D g2d) {
+      String[] lines = latencyTracker.getRecentSummary();
+      g2d.setFont(OVERLAY_FONT);
+      java.awt.FontMetrics metrics = g2d.getFontMetrics();
+      if (lines != overlayLines) {
+        overlayLines = lines;
+        overlayTextWidth = 0;
+        for (String line : lines) {
+          overlayTextWidth = Math.max(overlayTextWidth, metrics.stringWidth(line));
+        }
+      }
+      int lineHeight = metrics.getHeight();
+      int boxWidth = overlayTextWidth + 16;
+      int boxHeight = lineHeight * lines.length + 10;
+      int x = getWidth() - boxWidth - 10;
+      int y = 10;
+
+      g2d.setColor(OVERLAY_BACKGROUND);
+      g2d.fillRoundRect(x, y, boxWidth, boxHeight, 8, 8);
+      g2d.setColor(OVERLAY_TEXT);
+      for (int i = 0; i < lines.length; i++) {
+        g2d.drawString(lines[i], x + 8, y + 5 + metrics.getAscent() + i * lineHeight);
+      }
+    }
+
     private void drawClouds(Graphics2D g2d, int width, int waterY) {
       g2d.setColor(new Color(255, 255, 255, 180));
 
@@ -1610,63 +1808,9 @@ public class Gui {
       }
     }
 
-    private void drawGate(Graphics2D g2d, int gateX, int waterY, int liftOffset, boolean isLeftSide) {
-      int gateY = waterY - 81;
-
-      g2d.setColor(new Color(180, 60, 50));
-      g2d.fillRect(gateX - 8, gateY - 40, 16, 40);
-
-      AffineTransform old = g2d.getTransform();
-      g2d.translate(gateX, gateY - 40);
-
-      if (isLeftSide) {
-        g2d.rotate(-Math.toRadians(gateAngle));
-      } else {
-        g2d.rotate(Math.toRadians(gateAngle));
-        g2d.scale(-1, 1);
-      }
-
-      g2d.setColor(new Color(180, 60, 50));
-      g2d.fillRect(0, -6, 120, 12);
-
-      g2d.setColor(new Color(240, 240, 240));
-      for (int i = 0; i < 120; i += 20) {
-        g2d.fillRect(i, -6, 10, 12);
-      }
-
-      g2d.setTransform(old);
-    }
-
     private void drawTrafficLights(Graphics2D g2d, int centerX, int waterY) {
-      drawTrafficLightPole(g2d, centerX - 285, waterY - 81, roadLight, true);
-      drawTrafficLightPole(g2d, centerX + 285, waterY - 81, boatLight, false);
-    }
-
-    private void drawTrafficLightPole(Graphics2D g2d, int x, int y, String activeLight, boolean isRoadLight) {
-      g2d.setColor(new Color(40, 45, 50));
-      g2d.fillRect(x - 4, y - 120, 8, 120);
-
-      g2d.setColor(new Color(30, 35, 40));
-      int boxHeight = isRoadLight ? 90 : 60;
-      g2d.fillRect(x - 20, y - 150, 40, boxHeight);
-
-      if (isRoadLight) {
-        drawLight(g2d, x, y - 133, activeLight.equals("RED") || activeLight.equals("ALL"), Color.RED);
-        drawLight(g2d, x, y - 105, activeLight.equals("YELLOW") || activeLight.equals("ALL"), new Color(255, 200, 0));
-        drawLight(g2d, x, y - 77, activeLight.equals("GREEN") || activeLight.equals("ALL"), Color.GREEN);
-      } else {
-        drawLight(g2d, x, y - 133, activeLight.equals("RED") || activeLight.equals("ALL"), Color.RED);
-        drawLight(g2d, x, y - 100, activeLight.equals("GREEN") || activeLight.equals("ALL"), Color.GREEN);
-      }
-    }
-
-    private void drawLight(Graphics2D g2d, int x, int y, boolean active, Color color) {
-      g2d.setColor(active ? color : new Color(40, 40, 40));
-      g2d.fillOval(x - 8, y - 8, 16, 16);
-
-      g2d.setColor(new Color(20, 20, 20));
-      g2d.setStroke(new BasicStroke(1));
-      g2d.drawOval(x - 8, y - 8, 16, 16);
+      BridgeDrawing.drawTrafficLightPole(g2d, centerX - 285, waterY - 81, roadLight, true);
+      BridgeDrawing.drawTrafficLightPole(g2d, centerX + 285, waterY - 81, boatLight, false);
     }
   }
 }
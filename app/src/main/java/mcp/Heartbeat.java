@@ -1,48 +1,201 @@
 package mcp;
 
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
 
-public class Heartbeat extends Thread {
-    private Send heartBeatSendObject;
-    private Timer heartBeatTimer;
+public class Heartbeat {
+    private OutboundScheduler heartBeatSendObject;
+    private TimerWheel timerWheel;
+    private TimerWheel.Timeout heartBeatTimeout;
     private Gui userInterface;
 
-    // Heartbeat interval in milliseconds (2 seconds)
-    private static final long HEARTBEAT_INTERVAL = 2000;
+    // Heartbeat interval bounds in milliseconds. On a clean link the full 2 seconds is
+    // used; as STATUS packets start going missing the interval shrinks towards 1 second
+    private static final long MAX_HEARTBEAT_INTERVAL = 2000;
+    private static final long MIN_HEARTBEAT_INTERVAL = 1000;
+    // How often the heartbeat decides whether a beat is due
+    private static final long CHECK_INTERVAL = 250;
     // Initial delay before first heartbeat (1 second)
     private static final long INITIAL_DELAY = 1000;
+    // Maps System.nanoTime() onto wall-clock nanoseconds so the clock offset is
+    // relative to real time rather than an arbitrary JVM origin
+    private static final long WALL_CLOCK_BIAS_NANOS = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis())
+            - System.nanoTime();
+    // T: is sent relative to this so it is never negative - System.nanoTime() can be,
+    // and the echo parser only reads digits
+    private static final long TIMESTAMP_ORIGIN_NANOS = System.nanoTime();
+    // A STATUS gap this many times the usual spacing counts as a missed packet
+    private static final double LOSS_GAP_FACTOR = 1.5;
+    private static final double QUALITY_SMOOTHING = 0.1;
+    // Send times kept for echoes that arrive after a later beat went out
+    private static final int SENT_BEAT_HISTORY = 8;
 
-    Heartbeat(Send heartbeatObject, Gui userInterface) {
+    // Link quality (1.0 = every STATUS on time), updated from the receive thread
+    private volatile double linkQuality = 1.0;
+    private long lastStatusNanos = 0;
+    private double smoothedStatusGapNanos = 0;
+
+    // Only touched from the timer wheel thread
+    private long lastBeatNanos = 0;
+    private long heartbeatsSent = 0;
+    private long heartbeatsSkipped = 0;
+    private long heartbeatSequence = 0;
+
+    private final LinkMetrics linkMetrics = new LinkMetrics();
+    // When each recent timestamped beat actually left, by slot sequence % SENT_BEAT_HISTORY
+    private final long[] sentBeatSequences = new long[SENT_BEAT_HISTORY];
+    private final long[] sentBeatNanos = new long[SENT_BEAT_HISTORY];
+    private volatile boolean timestamped = false;
+
+    Heartbeat(OutboundScheduler heartbeatObject, Gui userInterface) {
+        this(heartbeatObject, userInterface, TimerWheel.shared());
+    }
+
+    // Heartbeats for every bridge share one timer wheel instead of a Timer thread each
+    Heartbeat(OutboundScheduler heartbeatObject, Gui userInterface, TimerWheel timerWheel) {
         this.heartBeatSendObject = heartbeatObject;
         this.userInterface = userInterface;
-        // Make it a daemon thread
-        this.heartBeatTimer = new Timer(true);
-    }
-
-    @Override
-    public void run() {
-        // scheduleAtFixedRate for repeating task
-        heartBeatTimer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                try {
-                    heartBeatSendObject.sendMessage("heartbeat");
-                    if (userInterface != null) {
-                        userInterface.updateMessageLog(
-                                "SENT: heartbeat");
-                    }
-                } catch (Exception e) {
-                    System.err.println("Error sending heartbeat: " + e.getMessage());
-                }
+        this.timerWheel = timerWheel;
+    }
+
+    // Send "heartbeat|HB:<seq>|T:<nanos>" for the controller to echo back as
+    // "HEARTBEAT_ACK:HB:<seq>|T:<nanos>|CT:<controller millis>" instead of a bare
+    // "heartbeat". Only for firmware that understands it.
+    public void setTimestamped(boolean timestamped) {
+        this.timestamped = timestamped;
+    }
+
+    public void start() {
+        lastBeatNanos = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(MAX_HEARTBEAT_INTERVAL);
+        // Staggered so heartbeats for many bridges don't all land on the same tick
+        heartBeatTimeout = timerWheel.schedulePeriodicStaggered(this::checkHeartbeat, INITIAL_DELAY,
+                CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    // Called for every STATUS packet to track how reliably the link delivers them
+    public synchronized void noteStatusReceived(long receivedNanos) {
+        if (lastStatusNanos != 0) {
+            long gap = receivedNanos - lastStatusNanos;
+            if (smoothedStatusGapNanos == 0) {
+                smoothedStatusGapNanos = gap;
+            }
+            double onTime = gap <= smoothedStatusGapNanos * LOSS_GAP_FACTOR ? 1.0 : 0.0;
+            linkQuality += (onTime - linkQuality) * QUALITY_SMOOTHING;
+            // Only learn the normal spacing from on-time packets so outages don't inflate it
+            if (onTime > 0) {
+                smoothedStatusGapNanos += (gap - smoothedStatusGapNanos) * QUALITY_SMOOTHING;
             }
-        }, INITIAL_DELAY, HEARTBEAT_INTERVAL);
+        }
+        lastStatusNanos = receivedNanos;
+    }
+
+    public long getCurrentIntervalMillis() {
+        return MIN_HEARTBEAT_INTERVAL + Math.round((MAX_HEARTBEAT_INTERVAL - MIN_HEARTBEAT_INTERVAL) * linkQuality);
+    }
+
+    private void checkHeartbeat() {
+        long now = System.nanoTime();
+        long intervalMillis = getCurrentIntervalMillis();
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        if (now - lastBeatNanos < intervalNanos) {
+            return;
+        }
+
+        // Any command sent within the interval already proves we're alive, and counts
+        // as the beat - the next one is due a full interval after that command
+        long lastCommandNanos = heartBeatSendObject.getLastCommandSentNanos();
+        if (lastCommandNanos != 0 && now - lastCommandNanos < intervalNanos) {
+            lastBeatNanos = lastCommandNanos;
+            heartbeatsSkipped++;
+        } else {
+            lastBeatNanos = now;
+            try {
+                sendBeat();
+                heartbeatsSent++;
+            } catch (Exception e) {
+                Log.error("Error sending heartbeat: " + e.getMessage());
+            }
+        }
+
+        // Aggregated counter instead of a log line per beat
+        if (userInterface != null) {
+            userInterface.updateHeartbeatStats(heartbeatsSent, heartbeatsSkipped, intervalMillis);
+        }
+    }
+
+    // A beat waits in the scheduler's lowest-priority lane for a token, so the
+    // round trip is timed from when the send completes, not from T:, which is
+    // stamped when the beat is queued
+    void sendBeat() {
+        if (!timestamped) {
+            heartBeatSendObject.sendAsync("heartbeat");
+            return;
+        }
+        long sequence = ++heartbeatSequence;
+        heartBeatSendObject.sendAsync(beatMessage(sequence, System.nanoTime())).whenComplete((ignored, error) -> {
+            if (error == null) {
+                noteBeatSent(sequence, System.nanoTime());
+            }
+        });
+    }
+
+    private synchronized void noteBeatSent(long sequence, long sentNanos) {
+        int slot = (int) (sequence % SENT_BEAT_HISTORY);
+        sentBeatSequences[slot] = sequence;
+        sentBeatNanos[slot] = sentNanos;
+    }
+
+    // When beat sequence was sent, or 0 if it hasn't gone out or is too old
+    private synchronized long beatSentNanos(long sequence) {
+        int slot = (int) (sequence % SENT_BEAT_HISTORY);
+        return sentBeatSequences[slot] == sequence ? sentBeatNanos[slot] : 0;
+    }
+
+    static String beatMessage(long sequence, long sentNanos) {
+        return "heartbeat|HB:" + sequence + "|T:" + (sentNanos - TIMESTAMP_ORIGIN_NANOS);
+    }
+
+    public LinkMetrics getLinkMetrics() {
+        return linkMetrics;
+    }
+
+    // Handles "HEARTBEAT_ACK:HB:<seq>|T:<our nanos>|CT:<controller millis>"
+    public void handleEcho(String message, long receivedNanos) {
+        long sequence = Receive.parseLongValue(message, "HB:");
+        long sentSinceOrigin = Receive.parseLongValue(message, "|T:");
+        long controllerMillis = Receive.parseLongValue(message, "|CT:");
+        if (sequence < 0 || sentSinceOrigin < 0 || controllerMillis < 0) {
+            Log.warn("Ignoring malformed heartbeat echo: " + message);
+            return;
+        }
+        long sentNanos = beatSentNanos(sequence);
+        if (sentNanos == 0) {
+            return;
+        }
+
+        long controllerNanos = TimeUnit.MILLISECONDS.toNanos(controllerMillis) - WALL_CLOCK_BIAS_NANOS;
+        if (!linkMetrics.addEcho(sequence, sentNanos, controllerNanos, receivedNanos)) {
+            return;
+        }
+
+        JfrEvents.LinkQuality linkEvent = new JfrEvents.LinkQuality();
+        if (linkEvent.isEnabled()) {
+            linkEvent.rtt = linkMetrics.getLastRttNanos();
+            linkEvent.smoothedRtt = linkMetrics.getSmoothedRttNanos();
+            linkEvent.jitter = linkMetrics.getJitterNanos();
+            linkEvent.clockOffset = linkMetrics.getClockOffsetNanos();
+            linkEvent.sequence = sequence;
+            linkEvent.commit();
+        }
+
+        if (userInterface != null) {
+            userInterface.updateLinkMetrics(linkMetrics);
+        }
     }
 
     public void stopHeartbeat() {
-        if (heartBeatTimer != null) {
-            heartBeatTimer.cancel();
-            System.out.println("Heartbeat stopped");
+        if (heartBeatTimeout != null) {
+            heartBeatTimeout.cancel();
+            Log.debug("Heartbeat stopped");
         }
     }
 }
@@ -0,0 +1,162 @@
+package mcp;
+
+import java.nio.charset.StandardCharsets;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// Custom JDK Flight Recorder events for the console.
+// Every call site allocates the event and checks isEnabled()/shouldCommit() before
+// filling in any fields, so with recording off the JIT removes the allocation and
+// the cost is a single branch. Stack traces are disabled to keep recordings small.
+final class JfrEvents {
+  private static final String CATEGORY = "Bridge Console";
+
+  private JfrEvents() {
+  }
+
+  // Extracts the message type (e.g. "STATUS", "WARNING") from a raw protocol message
+  static String messageType(String message) {
+    int colonIndex = message.indexOf(':');
+    if (colonIndex <= 0) {
+      return "OTHER";
+    }
+    return message.substring(0, colonIndex).trim();
+  }
+
+  // As above, straight from a received datagram
+  static String messageType(byte[] data, int length) {
+    if (BridgeStatus.isBinaryFrame(data, length)) {
+      return "STATUS_BINARY";
+    }
+    for (int i = 0; i < length; i++) {
+      if (data[i] == ':') {
+        return i == 0 ? "OTHER" : new String(data, 0, i, StandardCharsets.US_ASCII).trim();
+      }
+    }
+    return "OTHER";
+  }
+
+  @Name("mcp.DatagramReceived")
+  @Label("Datagram Received")
+  @Description("A UDP datagram read from the ESP32 receive socket")
+  @Category({ CATEGORY, "Network" })
+  @StackTrace(false)
+  static final class DatagramReceived extends Event {
+    @Label("Size")
+    @DataAmount
+    int size;
+
+    @Label("Source")
+    String source;
+
+    @Label("Message Type")
+    String messageType;
+  }
+
+  @Name("mcp.StatusParsed")
+  @Label("Status Parsed")
+  @Description("Time spent parsing a STATUS message into its fields")
+  @Category({ CATEGORY, "Protocol" })
+  @StackTrace(false)
+  static final class StatusParsed extends Event {
+    @Label("Field Count")
+    int fieldCount;
+  }
+
+  @Name("mcp.GuiUpdateApplied")
+  @Label("GUI Update Applied")
+  @Description("A system status update applied on the event dispatch thread")
+  @Category({ CATEGORY, "GUI" })
+  @StackTrace(false)
+  static final class GuiUpdateApplied extends Event {
+    @Label("EDT Queue Delay")
+    @Timespan(Timespan.NANOSECONDS)
+    long queueDelay;
+  }
+
+  @Name("mcp.LogAppend")
+  @Label("Log Append")
+  @Description("A line appended to the message log")
+  @Category({ CATEGORY, "GUI" })
+  @StackTrace(false)
+  static final class LogAppend extends Event {
+    @Label("Length")
+    int length;
+
+    @Label("Log Entries")
+    int entries;
+  }
+
+  @Name("mcp.FramePainted")
+  @Label("Animation Frame Painted")
+  @Description("One paint of the bridge animation panel")
+  @Category({ CATEGORY, "GUI" })
+  @StackTrace(false)
+  static final class FramePainted extends Event {
+    @Label("Width")
+    int width;
+
+    @Label("Height")
+    int height;
+  }
+
+  @Name("mcp.FrameTaskRun")
+  @Label("Frame Task Run")
+  @Description("One run of a GUI task on the shared frame clock")
+  @Category({ CATEGORY, "GUI" })
+  @StackTrace(false)
+  static final class FrameTaskRun extends Event {
+    @Label("Task")
+    String task;
+  }
+
+  @Name("mcp.LinkQuality")
+  @Label("Link Quality")
+  @Description("Heartbeat echo from the controller with link round-trip metrics")
+  @Category({ CATEGORY, "Network" })
+  @StackTrace(false)
+  static final class LinkQuality extends Event {
+    @Label("Round Trip Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long rtt;
+
+    @Label("Smoothed RTT")
+    @Timespan(Timespan.NANOSECONDS)
+    long smoothedRtt;
+
+    @Label("Jitter")
+    @Timespan(Timespan.NANOSECONDS)
+    long jitter;
+
+    @Label("Clock Offset")
+    @Timespan(Timespan.NANOSECONDS)
+    long clockOffset;
+
+    @Label("Heartbeat Sequence")
+    long sequence;
+  }
+
+  @Name("mcp.CommandSent")
+  @Label("Command Sent")
+  @Description("A message sent to the ESP32")
+  @Category({ CATEGORY, "Network" })
+  @StackTrace(false)
+  static final class CommandSent extends Event {
+    @Label("Command")
+    String command;
+
+    @Label("Size")
+    @DataAmount
+    int size;
+
+    @Label("Destination")
+    String destination;
+  }
+}
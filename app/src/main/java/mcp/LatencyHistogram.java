@@ -0,0 +1,90 @@
+package mcp;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Lock-free log-linear histogram of nanosecond latencies.
+// Values below 32 get their own bucket; above that each power of two is split into
+// 32 sub-buckets, so any reported percentile is within ~3% of the recorded value.
+// Safe to record from any thread and read from the EDT.
+class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+  private final AtomicLong totalCount = new AtomicLong();
+  private final AtomicLong maxValue = new AtomicLong();
+
+  public void record(long valueNanos) {
+    if (valueNanos < 0) {
+      valueNanos = 0;
+    }
+    counts.incrementAndGet(bucketIndex(valueNanos));
+    totalCount.incrementAndGet();
+    maxValue.accumulateAndGet(valueNanos, Math::max);
+  }
+
+  public long getCount() {
+    return totalCount.get();
+  }
+
+  public long getMax() {
+    return maxValue.get();
+  }
+
+  // Returns the value at the given percentile (0-100), or 0 if nothing was recorded
+  public long getPercentile(double percentile) {
+    long count = totalCount.get();
+    if (count == 0) {
+      return 0;
+    }
+    long target = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += counts.get(i);
+      if (seen >= target) {
+        return Math.min(bucketUpperBound(i), maxValue.get());
+      }
+    }
+    return maxValue.get();
+  }
+
+  // Adds every value recorded in other, e.g. to merge the slots of a time window
+  public void add(LatencyHistogram other) {
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      long count = other.counts.get(i);
+      if (count != 0) {
+        counts.addAndGet(i, count);
+      }
+    }
+    totalCount.addAndGet(other.totalCount.get());
+    maxValue.accumulateAndGet(other.maxValue.get(), Math::max);
+  }
+
+  public void reset() {
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      counts.set(i, 0);
+    }
+    totalCount.set(0);
+    maxValue.set(0);
+  }
+
+  static int bucketIndex(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+    return (shift + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  static long bucketUpperBound(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int shift = index / SUB_BUCKETS - 1;
+    long subBucket = index % SUB_BUCKETS + SUB_BUCKETS;
+    return ((subBucket + 1) << shift) - 1;
+  }
+}
@@ -0,0 +1,118 @@
+package mcp;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Per-stage latency histograms for STATUS telemetry, from the moment the datagram
+// leaves the socket until the bridge animation has painted the new state.
+// All timestamps are System.nanoTime() values stamped at socket receive.
+// Besides the totals since startup, each stage keeps one histogram per second of
+// the last WINDOW_SECONDS. Once a second a frame task merges those into the
+// recent summary the overlay draws, so painting never formats or scans buckets.
+class LatencyTracker {
+  enum Stage {
+    PARSE("Parse"), // socket receive -> fields parsed
+    DISPATCH("EDT"), // fields parsed -> applied on the EDT (includes the invokeLater hop)
+    PAINT("Paint"), // applied -> next BridgeAnimationPanel paint completed
+    END_TO_END("Total"); // socket receive -> pixels
+
+    final String label;
+
+    Stage(String label) {
+      this.label = label;
+    }
+  }
+
+  static final int WINDOW_SECONDS = 10;
+  private static final Stage[] STAGES = Stage.values();
+
+  private final Map<Stage, LatencyHistogram> histograms = new EnumMap<>(Stage.class);
+  // [stage][second]; currentSlot is the one being recorded into
+  private final LatencyHistogram[][] slots = new LatencyHistogram[STAGES.length][WINDOW_SECONDS];
+  // Scratch for merging the slots, EDT only
+  private final LatencyHistogram[] window = new LatencyHistogram[STAGES.length];
+  private volatile int currentSlot = 0;
+  private volatile String[] recentSummary;
+  private volatile long recentCount = 0;
+
+  LatencyTracker() {
+    this(FrameScheduler.shared());
+  }
+
+  LatencyTracker(FrameScheduler frameScheduler) {
+    for (Stage stage : STAGES) {
+      histograms.put(stage, new LatencyHistogram());
+      window[stage.ordinal()] = new LatencyHistogram();
+      for (int i = 0; i < WINDOW_SECONDS; i++) {
+        slots[stage.ordinal()][i] = new LatencyHistogram();
+      }
+    }
+    recentSummary = format(window, 0);
+    frameScheduler.schedule("latency window", now -> {
+      rollWindow();
+      return true;
+    }, 1, TimeUnit.SECONDS);
+  }
+
+  public void record(Stage stage, long startNanos, long endNanos) {
+    if (startNanos == 0) {
+      return;
+    }
+    long latency = endNanos - startNanos;
+    histograms.get(stage).record(latency);
+    slots[stage.ordinal()][currentSlot].record(latency);
+  }
+
+  // Totals since startup (or the last reset)
+  public LatencyHistogram getHistogram(Stage stage) {
+    return histograms.get(stage);
+  }
+
+  public void reset() {
+    for (LatencyHistogram histogram : histograms.values()) {
+      histogram.reset();
+    }
+  }
+
+  // Rebuilds the recent summary from the last WINDOW_SECONDS, then starts a new
+  // second by clearing the oldest. A sample racing with the clear may be lost.
+  void rollWindow() {
+    for (int s = 0; s < STAGES.length; s++) {
+      window[s].reset();
+      for (LatencyHistogram slot : slots[s]) {
+        window[s].add(slot);
+      }
+    }
+    recentCount = window[Stage.END_TO_END.ordinal()].getCount();
+    recentSummary = format(window, recentCount);
+
+    int next = (currentSlot + 1) % WINDOW_SECONDS;
+    for (int s = 0; s < STAGES.length; s++) {
+      slots[s][next].reset();
+    }
+    currentSlot = next;
+  }
+
+  // A title, then one line per stage over the last WINDOW_SECONDS, e.g.
+  // "Total  p50 1.2 ms  p99 4.8 ms". The same array until the next roll, so
+  // callers can cache anything derived from it.
+  public String[] getRecentSummary() {
+    return recentSummary;
+  }
+
+  // Painted STATUS updates in the recent summary
+  public long getRecentCount() {
+    return recentCount;
+  }
+
+  private static String[] format(LatencyHistogram[] histograms, long count) {
+    String[] lines = new String[STAGES.length + 1];
+    lines[0] = "Display latency, last " + WINDOW_SECONDS + " s (n=" + count + ")";
+    for (int i = 0; i < STAGES.length; i++) {
+      lines[i + 1] = String.format("%-5s p50 %6.2f ms  p99 %6.2f ms", STAGES[i].label,
+          histograms[i].getPercentile(50) / 1_000_000.0, histograms[i].getPercentile(99) / 1_000_000.0);
+    }
+    return lines;
+  }
+}
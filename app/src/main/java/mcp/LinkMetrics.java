@@ -0,0 +1,94 @@
+package mcp;
+
+// Round-trip time, jitter and clock offset for one controller, measured from
+// timestamped heartbeats the controller echoes back.
+// - RTT is smoothed with the same estimator as command retransmission.
+// - Jitter is the RFC 3550 running mean of successive RTT differences.
+// - Clock offset (controller clock minus console clock, assuming symmetric
+//   paths) is taken from the lowest-RTT sample of the last few echoes, as NTP
+//   does, since that sample has the least queueing error.
+class LinkMetrics {
+  private static final int OFFSET_FILTER_SIZE = 8;
+
+  private final RttEstimator rttEstimator = new RttEstimator(0, 0, Long.MAX_VALUE);
+  private final long[] filterRtt = new long[OFFSET_FILTER_SIZE];
+  private final long[] filterOffset = new long[OFFSET_FILTER_SIZE];
+  private int filterCount = 0;
+  private int filterNext = 0;
+
+  private double jitterNanos = 0;
+  private long lastRttNanos = -1;
+  private long clockOffsetNanos = 0;
+  private long echoesReceived = 0;
+  private long lastEchoedSequence = -1;
+
+  // Returns false for duplicate or out-of-order echoes, which are ignored
+  public synchronized boolean addEcho(long sequence, long sentNanos, long controllerTimeNanos, long receivedNanos) {
+    if (sequence <= lastEchoedSequence) {
+      return false;
+    }
+    lastEchoedSequence = sequence;
+    echoesReceived++;
+
+    long rtt = receivedNanos - sentNanos;
+    rttEstimator.addSample(rtt);
+    if (lastRttNanos >= 0) {
+      jitterNanos += (Math.abs(rtt - lastRttNanos) - jitterNanos) / 16.0;
+    }
+    lastRttNanos = rtt;
+
+    // Controller stamped its clock roughly half way through the round trip
+    long offset = controllerTimeNanos - (sentNanos + rtt / 2);
+    filterRtt[filterNext] = rtt;
+    filterOffset[filterNext] = offset;
+    filterNext = (filterNext + 1) % OFFSET_FILTER_SIZE;
+    filterCount = Math.min(filterCount + 1, OFFSET_FILTER_SIZE);
+
+    int best = 0;
+    for (int i = 1; i < filterCount; i++) {
+      if (filterRtt[i] < filterRtt[best]) {
+        best = i;
+      }
+    }
+    clockOffsetNanos = filterOffset[best];
+    return true;
+  }
+
+  public synchronized long getSmoothedRttNanos() {
+    return rttEstimator.getSmoothedRttNanos();
+  }
+
+  public synchronized long getLastRttNanos() {
+    return lastRttNanos;
+  }
+
+  public synchronized long getJitterNanos() {
+    return (long) jitterNanos;
+  }
+
+  public synchronized long getClockOffsetNanos() {
+    return clockOffsetNanos;
+  }
+
+  public synchronized long getEchoesReceived() {
+    return echoesReceived;
+  }
+
+  public synchronized long getLastEchoedSequence() {
+    return lastEchoedSequence;
+  }
+
+  public synchronized boolean hasSample() {
+    return echoesReceived > 0;
+  }
+
+  public String formatSummary() {
+    synchronized (this) {
+      if (echoesReceived == 0) {
+        return "Link: no echo yet";
+      }
+      return String.format("Link: RTT %.1f ms, jitter %.1f ms",
+          getSmoothedRttNanos() / 1_000_000.0, jitterNanos / 1_000_000.0);
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package mcp;
+
+import java.util.concurrent.TimeUnit;
+
+// Tracks whether one controller is still sending STATUS packets. Arrivals feed a
+// phi accrual detector from the receive thread, and the shared timer wheel
+// re-evaluates phi every 100 ms against separate warn and lost thresholds, so the
+// EDT is only involved when the state actually changes.
+class LivenessMonitor {
+  enum State {
+    WAITING, HEALTHY, SUSPECT, LOST
+  }
+
+  interface Listener {
+    void onLivenessChanged(State previous, State current, double phi, long silenceMillis);
+  }
+
+  // phi 3: ~0.1% chance the packet is merely late. phi 8: ~1 in 100 million
+  static final double DEFAULT_WARN_PHI = 3.0;
+  static final double DEFAULT_LOST_PHI = 8.0;
+
+  private static final long EVALUATION_INTERVAL = 100;
+  private static final int WINDOW_SIZE = 100;
+  private static final long MIN_STD_DEV = 200;
+  // One missing STATUS on its own is not suspicious
+  private static final long ACCEPTABLE_PAUSE = 1000;
+  private static final long FIRST_INTERVAL_ESTIMATE = 1000;
+
+  private final PhiAccrualDetector detector = new PhiAccrualDetector(WINDOW_SIZE,
+      TimeUnit.MILLISECONDS.toNanos(MIN_STD_DEV), TimeUnit.MILLISECONDS.toNanos(ACCEPTABLE_PAUSE),
+      TimeUnit.MILLISECONDS.toNanos(FIRST_INTERVAL_ESTIMATE));
+  private final Listener listener;
+  private final double warnPhi;
+  private final double lostPhi;
+  private final TimerWheel timerWheel;
+  private TimerWheel.Timeout evaluationTimeout;
+  private State state = State.WAITING;
+
+  LivenessMonitor(Listener listener) {
+    this(listener, DEFAULT_WARN_PHI, DEFAULT_LOST_PHI, TimerWheel.shared());
+  }
+
+  LivenessMonitor(Listener listener, double warnPhi, double lostPhi, TimerWheel timerWheel) {
+    if (warnPhi >= lostPhi) {
+      throw new IllegalArgumentException("Warn threshold must be below lost threshold");
+    }
+    this.listener = listener;
+    this.warnPhi = warnPhi;
+    this.lostPhi = lostPhi;
+    this.timerWheel = timerWheel;
+  }
+
+  public void start() {
+    evaluationTimeout = timerWheel.schedulePeriodicStaggered(() -> evaluate(System.nanoTime()), 0,
+        EVALUATION_INTERVAL, TimeUnit.MILLISECONDS);
+  }
+
+  public void stop() {
+    if (evaluationTimeout != null) {
+      evaluationTimeout.cancel();
+    }
+  }
+
+  // Called from the receive thread for every STATUS packet; recovers immediately
+  public void noteStatusReceived(long receivedNanos) {
+    detector.heartbeat(receivedNanos);
+    evaluate(receivedNanos);
+  }
+
+  public double getPhi() {
+    return detector.phi(System.nanoTime());
+  }
+
+  public synchronized State getState() {
+    return state;
+  }
+
+  // Synchronized so a wheel evaluation can't apply a phi computed just before a packet arrived
+  synchronized void evaluate(long nowNanos) {
+    long lastArrivalNanos = detector.getLastArrivalNanos();
+    if (lastArrivalNanos == 0) {
+      return;
+    }
+    double phi = detector.phi(nowNanos);
+    State current;
+    if (phi >= lostPhi) {
+      current = State.LOST;
+    } else if (phi >= warnPhi) {
+      // Stay lost until packets resume rather than bouncing through SUSPECT
+      current = state == State.LOST ? State.LOST : State.SUSPECT;
+    } else {
+      current = State.HEALTHY;
+    }
+    if (current == state) {
+      return;
+    }
+    State previous = state;
+    state = current;
+    listener.onLivenessChanged(previous, current, phi, TimeUnit.NANOSECONDS.toMillis(nowNanos - lastArrivalNanos));
+  }
+}
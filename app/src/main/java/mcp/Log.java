@@ -0,0 +1,236 @@
+package mcp;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+// Console logging off the calling thread. A call below the current level costs
+// one comparison; anything else is queued on a lock-free queue and written by a
+// background thread, so the receive and send paths never wait on a slow terminal.
+// The same message repeated within REPEAT_WINDOW is only written once, followed
+// by how many copies were suppressed. Set the level with -Dmcp.log.level=DEBUG.
+final class Log {
+  enum Level {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR
+  }
+
+  private static final int QUEUE_CAPACITY = 8192;
+  private static final long REPEAT_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+  // Repeat tracking is reset rather than grown past this many distinct messages
+  private static final int MAX_TRACKED_MESSAGES = 1024;
+  private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+
+  private static volatile int minimumLevel = initialLevel().ordinal();
+
+  private static final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+  private static final AtomicInteger queued = new AtomicInteger();
+  private static final AtomicLong dropped = new AtomicLong();
+  private static final ConcurrentHashMap<String, Repeat> recent = new ConcurrentHashMap<>();
+  private static final Thread writer;
+  private static volatile boolean writerParked = false;
+  // Writer thread only
+  private static long reportedDropped = 0;
+
+  private static final class Entry {
+    final Level level;
+    final long timeMillis;
+    final String message;
+    final Throwable error;
+    final int suppressed;
+
+    Entry(Level level, String message, Throwable error, int suppressed) {
+      this.level = level;
+      this.timeMillis = System.currentTimeMillis();
+      this.message = message;
+      this.error = error;
+      this.suppressed = suppressed;
+    }
+  }
+
+  private static final class Repeat {
+    long windowStartNanos;
+    int suppressed;
+  }
+
+  static {
+    writer = new Thread(Log::drainLoop, "log-writer");
+    writer.setDaemon(true);
+    writer.start();
+    Runtime.getRuntime().addShutdownHook(new Thread(Log::flush, "log-flush"));
+  }
+
+  private Log() {
+  }
+
+  private static Level initialLevel() {
+    String configured = System.getProperty("mcp.log.level");
+    if (configured != null) {
+      for (Level level : Level.values()) {
+        if (level.name().equalsIgnoreCase(configured)) {
+          return level;
+        }
+      }
+    }
+    return Level.INFO;
+  }
+
+  static void setLevel(Level level) {
+    minimumLevel = level.ordinal();
+  }
+
+  static boolean isEnabled(Level level) {
+    return level.ordinal() >= minimumLevel;
+  }
+
+  static boolean isDebugEnabled() {
+    return minimumLevel == 0;
+  }
+
+  static void debug(String message) {
+    if (minimumLevel == 0) {
+      enqueue(Level.DEBUG, message, null);
+    }
+  }
+
+  // The message is only built if DEBUG is on
+  static void debug(Supplier<String> message) {
+    if (minimumLevel == 0) {
+      enqueue(Level.DEBUG, message.get(), null);
+    }
+  }
+
+  static void info(String message) {
+    if (Level.INFO.ordinal() >= minimumLevel) {
+      enqueue(Level.INFO, message, null);
+    }
+  }
+
+  static void warn(String message) {
+    if (Level.WARN.ordinal() >= minimumLevel) {
+      enqueue(Level.WARN, message, null);
+    }
+  }
+
+  static void error(String message) {
+    error(message, null);
+  }
+
+  static void error(String message, Throwable error) {
+    enqueue(Level.ERROR, message, error);
+  }
+
+  // Messages lost because the writer fell QUEUE_CAPACITY behind
+  static long getDroppedCount() {
+    return dropped.get();
+  }
+
+  private static void enqueue(Level level, String message, Throwable error) {
+    int suppressed = 0;
+    if (error == null) {
+      suppressed = checkRepeat(message);
+      if (suppressed < 0) {
+        return;
+      }
+    }
+    if (queued.incrementAndGet() > QUEUE_CAPACITY) {
+      queued.decrementAndGet();
+      dropped.incrementAndGet();
+      return;
+    }
+    queue.add(new Entry(level, message, error, suppressed));
+    if (writerParked) {
+      LockSupport.unpark(writer);
+    }
+  }
+
+  // -1 if message was already written within the window, otherwise how many
+  // copies were suppressed since it was last written
+  private static int checkRepeat(String message) {
+    if (recent.size() > MAX_TRACKED_MESSAGES) {
+      recent.clear();
+    }
+    Repeat repeat = recent.computeIfAbsent(message, key -> new Repeat());
+    long now = System.nanoTime();
+    synchronized (repeat) {
+      if (repeat.windowStartNanos != 0 && now - repeat.windowStartNanos < REPEAT_WINDOW_NANOS) {
+        repeat.suppressed++;
+        return -1;
+      }
+      int suppressed = repeat.suppressed;
+      repeat.suppressed = 0;
+      repeat.windowStartNanos = now;
+      return suppressed;
+    }
+  }
+
+  private static void drainLoop() {
+    while (true) {
+      if (!drain()) {
+        writerParked = true;
+        // Re-check so an entry queued just before the flag was set isn't stranded
+        if (queue.isEmpty()) {
+          LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+        }
+        writerParked = false;
+      }
+    }
+  }
+
+  // Writes everything queued, returning false if there was nothing
+  private static synchronized boolean drain() {
+    Entry entry = queue.poll();
+    if (entry == null) {
+      return false;
+    }
+    while (entry != null) {
+      queued.decrementAndGet();
+      write(entry);
+      entry = queue.poll();
+    }
+    long droppedNow = dropped.get();
+    if (droppedNow != reportedDropped) {
+      write(new Entry(Level.WARN, (droppedNow - reportedDropped) + " log messages dropped - writer fell behind",
+          null, 0));
+      reportedDropped = droppedNow;
+    }
+    System.out.flush();
+    System.err.flush();
+    return true;
+  }
+
+  private static void write(Entry entry) {
+    PrintStream out = entry.level == Level.ERROR ? System.err : System.out;
+    StringBuilder line = new StringBuilder(entry.message.length() + 32);
+    LocalTime time = LocalTime.ofInstant(Instant.ofEpochMilli(entry.timeMillis), ZoneId.systemDefault());
+    line.append(time.format(TIME_FORMAT));
+    line.append(' ').append(entry.level.name());
+    for (int i = entry.level.name().length(); i < 6; i++) {
+      line.append(' ');
+    }
+    line.append(entry.message);
+    if (entry.suppressed > 0) {
+      line.append(" (").append(entry.suppressed).append(" identical messages suppressed)");
+    }
+    out.println(line);
+    if (entry.error != null) {
+      entry.error.printStackTrace(out);
+    }
+  }
+
+  // Writes anything still queued; called at shutdown and by tests
+  static void flush() {
+    drain();
+  }
+}
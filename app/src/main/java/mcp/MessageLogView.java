@@ -0,0 +1,331 @@
+package mcp;
+
+import java.awt.Color;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Insets;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.util.Arrays;
+
+import javax.swing.JComponent;
+import javax.swing.JViewport;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+
+// The message log, newest entry at the top. Each entry keeps only its raw text;
+// wrapping is worked out while painting, for the entries actually on screen,
+// from the component's real width and font metrics. A wrapped layout is cached
+// on its entry until the width or font changes. Entries not laid out yet count
+// as an estimate of their height, corrected the first time they're painted.
+// EDT only.
+class MessageLogView extends JComponent implements Scrollable {
+  static final int MAX_ENTRIES = 5000;
+  static final Color OLDER_COLOR = new Color(180, 180, 180);
+  // Continuation lines are indented by this many spaces
+  private static final int CONTINUATION_INDENT = 4;
+  // The bridge's STATUS lines break after the manual lights value
+  private static final String[] LINE_BREAKS = { "MANUAL_BRIDGE_LIGHTS:YES|", "MANUAL_BRIDGE_LIGHTS:NO|" };
+
+  private static final class Entry {
+    final String text;
+    final Color color;
+    // start, end and x offset of each line; null until laid out at layoutWidth
+    int[] lines;
+    int lineCount;
+
+    Entry(String text, Color color) {
+      this.text = text;
+      this.color = color;
+    }
+  }
+
+  // Ring of entries; newest is the most recently written slot
+  private final Entry[] entries = new Entry[MAX_ENTRIES];
+  private int newest = -1;
+  private int count = 0;
+  private long totalLines = 0;
+  // The width and font the cached layouts were made for
+  private int layoutWidth = -1;
+  private FontMetrics layoutMetrics;
+  private int[] scratch = new int[48];
+  private long layoutsComputed = 0;
+
+  MessageLogView() {
+    setOpaque(true);
+  }
+
+  // Adds an entry at the top; shown in its own colour until the next one arrives
+  public void append(String text, Color color) {
+    Entry entry = new Entry(text, color);
+    newest = (newest + 1) % MAX_ENTRIES;
+    if (entries[newest] != null) {
+      totalLines -= entries[newest].lineCount;
+    } else {
+      count++;
+    }
+    entries[newest] = entry;
+    if (layoutMetrics != null) {
+      entry.lineCount = estimateLines(entry);
+    } else {
+      entry.lineCount = 1;
+    }
+    totalLines += entry.lineCount;
+    revalidate();
+    repaint();
+  }
+
+  public void clear() {
+    Arrays.fill(entries, null);
+    newest = -1;
+    count = 0;
+    totalLines = 0;
+    revalidate();
+    repaint();
+  }
+
+  // Raw text of every entry, newest first, one per line
+  public String getText() {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      text.append(entry(i).text).append('\n');
+    }
+    return text.toString();
+  }
+
+  public int getEntryCount() {
+    return count;
+  }
+
+  // Entries wrapped so far; each costs one pass over its text
+  long getLayoutsComputed() {
+    return layoutsComputed;
+  }
+
+  // Lines entry i (0 = newest) takes at the current width, laying it out if needed
+  int getLineCount(int i) {
+    checkLayoutWidth();
+    layout(entry(i));
+    return entry(i).lineCount;
+  }
+
+  // Line n of entry i as drawn, without its indent
+  String getLine(int i, int n) {
+    Entry entry = entry(i);
+    checkLayoutWidth();
+    layout(entry);
+    return entry.text.substring(entry.lines[n * 3], entry.lines[n * 3 + 1]);
+  }
+
+  private Entry entry(int i) {
+    return entries[(newest - i + MAX_ENTRIES) % MAX_ENTRIES];
+  }
+
+  private int availableWidth() {
+    Insets insets = getInsets();
+    return getWidth() - insets.left - insets.right;
+  }
+
+  // Drops every cached layout when the width or font has changed since they were made
+  private void checkLayoutWidth() {
+    int width = availableWidth();
+    FontMetrics metrics = getFontMetrics(getFont());
+    if (width == layoutWidth && metrics.equals(layoutMetrics)) {
+      return;
+    }
+    layoutWidth = width;
+    layoutMetrics = metrics;
+    totalLines = 0;
+    for (int i = 0; i < count; i++) {
+      Entry entry = entry(i);
+      entry.lines = null;
+      entry.lineCount = estimateLines(entry);
+      totalLines += entry.lineCount;
+    }
+  }
+
+  // Cheap guess from the text length alone, good enough until the entry is shown
+  private int estimateLines(Entry entry) {
+    if (layoutWidth <= 0) {
+      return 1;
+    }
+    long textWidth = (long) entry.text.length() * layoutMetrics.charWidth('0');
+    return (int) Math.max(1, (textWidth + layoutWidth - 1) / layoutWidth);
+  }
+
+  private void layout(Entry entry) {
+    if (entry.lines != null) {
+      return;
+    }
+    layoutsComputed++;
+    int lineIndex = 0;
+    int indent = 0;
+    int start = 0;
+    String text = entry.text;
+    while (true) {
+      int end = nextBreak(text, start);
+      lineIndex = wrapSegment(text, start, end, indent, lineIndex);
+      if (end >= text.length()) {
+        break;
+      }
+      // A forced break continues the same line of text, so it's indented
+      indent = text.charAt(end) == '|' ? layoutMetrics.charWidth(' ') * CONTINUATION_INDENT : 0;
+      start = end + 1;
+    }
+    entry.lines = Arrays.copyOf(scratch, lineIndex * 3);
+    totalLines += lineIndex - entry.lineCount;
+    entry.lineCount = lineIndex;
+  }
+
+  // The next '\n', or the '|' ending one of LINE_BREAKS, at or after from
+  private static int nextBreak(String text, int from) {
+    int end = text.indexOf('\n', from);
+    if (end == -1) {
+      end = text.length();
+    }
+    for (String lineBreak : LINE_BREAKS) {
+      int index = text.indexOf(lineBreak, from);
+      if (index != -1 && index + lineBreak.length() - 1 < end) {
+        end = index + lineBreak.length() - 1;
+      }
+    }
+    return end;
+  }
+
+  // Breaks text[start, end) into lines no wider than layoutWidth, at the last
+  // space that fits or mid-word if there is none. Returns the new line count.
+  private int wrapSegment(String text, int start, int end, int indent, int lineIndex) {
+    FontMetrics metrics = layoutMetrics;
+    int contentStart = start;
+    int leadingWidth = 0;
+    while (contentStart < end && text.charAt(contentStart) == ' ') {
+      leadingWidth += metrics.charWidth(' ');
+      contentStart++;
+    }
+    int lineStart = start;
+    int x = indent;
+    while (true) {
+      int available = layoutWidth - x;
+      int width = 0;
+      int lastSpace = -1;
+      int pos = lineStart;
+      while (pos < end) {
+        char c = text.charAt(pos);
+        width += metrics.charWidth(c);
+        if (width > available && pos > lineStart) {
+          break;
+        }
+        if (c == ' ' && pos > contentStart) {
+          lastSpace = pos;
+        }
+        pos++;
+      }
+      if (pos >= end) {
+        return addLine(lineStart, end, x, lineIndex);
+      }
+      int breakAt = lastSpace > lineStart ? lastSpace : pos;
+      lineIndex = addLine(lineStart, breakAt, x, lineIndex);
+      lineStart = breakAt;
+      while (lineStart < end && text.charAt(lineStart) == ' ') {
+        lineStart++;
+      }
+      if (lineStart >= end) {
+        return lineIndex;
+      }
+      x = indent + leadingWidth + metrics.charWidth(' ') * CONTINUATION_INDENT;
+    }
+  }
+
+  private int addLine(int start, int end, int x, int lineIndex) {
+    if (scratch.length < (lineIndex + 1) * 3) {
+      scratch = Arrays.copyOf(scratch, scratch.length * 2);
+    }
+    scratch[lineIndex * 3] = start;
+    scratch[lineIndex * 3 + 1] = end;
+    scratch[lineIndex * 3 + 2] = x;
+    return lineIndex + 1;
+  }
+
+  private int lineHeight() {
+    return getFontMetrics(getFont()).getHeight();
+  }
+
+  @Override
+  public Dimension getPreferredSize() {
+    checkLayoutWidth();
+    Insets insets = getInsets();
+    long height = insets.top + insets.bottom + totalLines * lineHeight();
+    return new Dimension(insets.left + insets.right, (int) Math.min(Integer.MAX_VALUE, height));
+  }
+
+  @Override
+  protected void paintComponent(Graphics g) {
+    Graphics2D g2d = (Graphics2D) g;
+    Rectangle clip = g.getClipBounds();
+    if (clip == null) {
+      clip = new Rectangle(0, 0, getWidth(), getHeight());
+    }
+    g2d.setColor(getBackground());
+    g2d.fillRect(clip.x, clip.y, clip.width, clip.height);
+    g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+    g2d.setFont(getFont());
+
+    checkLayoutWidth();
+    long linesBefore = totalLines;
+    int lineHeight = lineHeight();
+    int ascent = layoutMetrics.getAscent();
+    Insets insets = getInsets();
+    int y = insets.top;
+    for (int i = 0; i < count && y < clip.y + clip.height; i++) {
+      Entry entry = entry(i);
+      // Entries above the clip are skipped on their cached or estimated height
+      if (y + entry.lineCount * lineHeight <= clip.y) {
+        y += entry.lineCount * lineHeight;
+        continue;
+      }
+      layout(entry);
+      g2d.setColor(i == 0 ? entry.color : OLDER_COLOR);
+      for (int n = 0; n < entry.lineCount; n++) {
+        int[] lines = entry.lines;
+        g2d.drawString(entry.text.substring(lines[n * 3], lines[n * 3 + 1]), insets.left + lines[n * 3 + 2],
+            y + ascent);
+        y += lineHeight;
+      }
+    }
+    if (totalLines != linesBefore) {
+      // An estimate was corrected, so the scroll height has changed
+      revalidate();
+    }
+  }
+
+  @Override
+  public Dimension getPreferredScrollableViewportSize() {
+    return getPreferredSize();
+  }
+
+  @Override
+  public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+    return orientation == SwingConstants.VERTICAL ? lineHeight() : 16;
+  }
+
+  @Override
+  public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+    return orientation == SwingConstants.VERTICAL ? visibleRect.height - lineHeight() : visibleRect.width;
+  }
+
+  // Always as wide as the viewport: that width is what entries wrap to
+  @Override
+  public boolean getScrollableTracksViewportWidth() {
+    return true;
+  }
+
+  // Fills the viewport when there are too few entries to scroll
+  @Override
+  public boolean getScrollableTracksViewportHeight() {
+    Container parent = getParent();
+    return parent instanceof JViewport && parent.getHeight() > getPreferredSize().height;
+  }
+}
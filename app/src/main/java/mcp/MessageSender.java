@@ -0,0 +1,8 @@
+package mcp;
+
+import java.util.concurrent.CompletableFuture;
+
+// Anything that can queue a message for the ESP32 without blocking the caller
+interface MessageSender {
+  CompletableFuture<Void> sendAsync(String message);
+}
@@ -0,0 +1,206 @@
+package mcp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Queues the pop-up notifications shown over the bridge view. Posting never
+// touches Swing: it only merges or queues the message, and a task on the shared
+// FrameScheduler slides notifications in and out. A message identical to one already
+// showing or waiting just bumps its repeat count, the most severe waiting message
+// is shown next, and each stays up for at least MIN_DISPLAY so a burst stays
+// readable. The task pauses whenever nothing is showing or waiting.
+class NotificationManager {
+  enum Severity {
+    INFO,
+    WARNING,
+    ERROR
+  }
+
+  // What the manager drives; called on the EDT only
+  interface View {
+    void show(String text, Severity severity);
+
+    // 0 = hidden, 1 = fully slid in
+    void setSlide(double visible);
+  }
+
+  static final long SLIDE_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+  static final long MIN_DISPLAY_NANOS = TimeUnit.MILLISECONDS.toNanos(1500);
+  static final long DISPLAY_NANOS = TimeUnit.SECONDS.toNanos(5);
+  static final int MAX_PENDING = 8;
+
+  private enum Phase {
+    HIDDEN,
+    SLIDING_IN,
+    SHOWING,
+    SLIDING_OUT
+  }
+
+  private static final class Notification {
+    final String message;
+    final Severity severity;
+    int repeats = 1;
+    long hideAtNanos;
+
+    Notification(String message, Severity severity) {
+      this.message = message;
+      this.severity = severity;
+    }
+
+    String text() {
+      return repeats > 1 ? message + "  (x" + repeats + ")" : message;
+    }
+  }
+
+  private final View view;
+  private final FrameScheduler.Registration frameTask;
+  private final List<Notification> pending = new ArrayList<>();
+  private Notification current;
+  private Phase phase = Phase.HIDDEN;
+  private long phaseStartNanos;
+  private long shownAtNanos;
+  private boolean textChanged;
+  private long merged = 0;
+  private long dropped = 0;
+
+  NotificationManager(View view) {
+    this(view, FrameScheduler.shared());
+  }
+
+  NotificationManager(View view, FrameScheduler frameScheduler) {
+    this.view = view;
+    this.frameTask = frameScheduler.scheduleEveryFrame("notifications", this::tick);
+  }
+
+  // Safe from any thread
+  public void post(String message, Severity severity) {
+    synchronized (this) {
+      if (current != null && phase != Phase.SLIDING_OUT && current.message.equals(message)) {
+        current.repeats++;
+        current.hideAtNanos = System.nanoTime() + DISPLAY_NANOS;
+        textChanged = true;
+        merged++;
+        return;
+      }
+      Notification waiting = findPending(message);
+      if (waiting != null) {
+        waiting.repeats++;
+        merged++;
+        return;
+      }
+      if (pending.size() >= MAX_PENDING && !dropLessSevere(severity)) {
+        dropped++;
+        return;
+      }
+      pending.add(new Notification(message, severity));
+    }
+    frameTask.resume();
+  }
+
+  private Notification findPending(String message) {
+    for (Notification notification : pending) {
+      if (notification.message.equals(message)) {
+        return notification;
+      }
+    }
+    return null;
+  }
+
+  // Makes room by dropping the oldest of the least severe waiting messages, as
+  // long as it isn't more severe than the one being posted
+  private boolean dropLessSevere(Severity severity) {
+    int drop = 0;
+    for (int i = 1; i < pending.size(); i++) {
+      if (pending.get(i).severity.compareTo(pending.get(drop).severity) < 0) {
+        drop = i;
+      }
+    }
+    if (pending.get(drop).severity.compareTo(severity) > 0) {
+      return false;
+    }
+    pending.remove(drop);
+    dropped++;
+    return true;
+  }
+
+  // The oldest of the most severe waiting messages
+  private Notification takeNext() {
+    if (pending.isEmpty()) {
+      return null;
+    }
+    int next = 0;
+    for (int i = 1; i < pending.size(); i++) {
+      if (pending.get(i).severity.compareTo(pending.get(next).severity) > 0) {
+        next = i;
+      }
+    }
+    return pending.remove(next);
+  }
+
+  // Advances the animation to now. Returns false once there is nothing left to
+  // show, pausing the frame task until the next post().
+  synchronized boolean tick(long now) {
+    switch (phase) {
+      case HIDDEN:
+        current = takeNext();
+        if (current == null) {
+          return false;
+        }
+        current.hideAtNanos = now + SLIDE_NANOS + DISPLAY_NANOS;
+        textChanged = false;
+        view.show(current.text(), current.severity);
+        view.setSlide(0);
+        phase = Phase.SLIDING_IN;
+        phaseStartNanos = now;
+        break;
+      case SLIDING_IN:
+        double in = (double) (now - phaseStartNanos) / SLIDE_NANOS;
+        if (in >= 1) {
+          in = 1;
+          phase = Phase.SHOWING;
+          shownAtNanos = now;
+        }
+        view.setSlide(in);
+        break;
+      case SHOWING:
+        // Waiting messages cut the display short, but never below MIN_DISPLAY
+        boolean replace = !pending.isEmpty() && now - shownAtNanos >= MIN_DISPLAY_NANOS;
+        if (replace || now - current.hideAtNanos >= 0) {
+          phase = Phase.SLIDING_OUT;
+          phaseStartNanos = now;
+        }
+        break;
+      case SLIDING_OUT:
+        double out = 1 - (double) (now - phaseStartNanos) / SLIDE_NANOS;
+        if (out <= 0) {
+          out = 0;
+          phase = Phase.HIDDEN;
+          current = null;
+        }
+        view.setSlide(out);
+        break;
+      default:
+        break;
+    }
+    if (textChanged && current != null) {
+      textChanged = false;
+      view.show(current.text(), current.severity);
+    }
+    return true;
+  }
+
+  public synchronized int getPendingCount() {
+    return pending.size();
+  }
+
+  // Posts folded into a message already showing or waiting
+  public synchronized long getMergedCount() {
+    return merged;
+  }
+
+  // Messages discarded because MAX_PENDING at least as severe were already waiting
+  public synchronized long getDroppedCount() {
+    return dropped;
+  }
+}
@@ -0,0 +1,224 @@
+package mcp;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Paces all outbound traffic to one controller.
+// - Priority lanes: safety commands first, heartbeats last.
+// - Token bucket sized to the controller's command queue, so bursts never
+//   overflow it. A "command_queue_full" warning empties the bucket and
+//   shrinks it to the size the controller reported.
+// - Pending commands in the same group (e.g. road light colour) are coalesced:
+//   only the newest is sent. A superseded caller's future fails with a
+//   CancellationException, unless its message was identical to the newer one.
+class OutboundScheduler implements MessageSender {
+  enum Priority {
+    SAFETY,
+    OPERATOR,
+    HEARTBEAT
+  }
+
+  private static final int DEFAULT_CONTROLLER_QUEUE_SIZE = 5;
+  private static final double DEFAULT_REFILL_PER_SECOND = 5.0;
+
+  private final MessageSender transport;
+  private final TimerWheel drainTimer;
+  private final Map<Priority, ArrayDeque<PendingCommand>> lanes = new EnumMap<>(Priority.class);
+  private final Map<String, PendingCommand> pendingByGroup = new HashMap<>();
+
+  private double bucketCapacity;
+  private final double refillPerNanosecond;
+  private double tokens;
+  private long lastRefillNanos = System.nanoTime();
+  private boolean drainScheduled = false;
+  // When anything other than a heartbeat last went out, for heartbeat suppression
+  private volatile long lastCommandSentNanos = 0;
+
+  private final AtomicLong coalescedCount = new AtomicLong();
+  private final AtomicLong queueFullWarnings = new AtomicLong();
+
+  private static class PendingCommand {
+    final String message;
+    final String group;
+    final Priority priority;
+    final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    PendingCommand(String message) {
+      this.message = message;
+      this.group = coalesceGroup(message);
+      this.priority = classify(message);
+    }
+  }
+
+  OutboundScheduler(MessageSender transport) {
+    this(transport, DEFAULT_CONTROLLER_QUEUE_SIZE, DEFAULT_REFILL_PER_SECOND);
+  }
+
+  OutboundScheduler(MessageSender transport, int controllerQueueSize, double refillPerSecond) {
+    this(transport, controllerQueueSize, refillPerSecond, TimerWheel.shared());
+  }
+
+  OutboundScheduler(MessageSender transport, int controllerQueueSize, double refillPerSecond,
+      TimerWheel drainTimer) {
+    this.transport = transport;
+    this.drainTimer = drainTimer;
+    this.bucketCapacity = controllerQueueSize;
+    this.tokens = controllerQueueSize;
+    this.refillPerNanosecond = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+    for (Priority priority : Priority.values()) {
+      lanes.put(priority, new ArrayDeque<>());
+    }
+  }
+
+  @Override
+  public CompletableFuture<Void> sendAsync(String message) {
+    PendingCommand command = new PendingCommand(message);
+    PendingCommand superseded;
+    synchronized (this) {
+      superseded = pendingByGroup.put(command.group, command);
+      if (superseded != null) {
+        lanes.get(superseded.priority).remove(superseded);
+        coalescedCount.incrementAndGet();
+      }
+      lanes.get(command.priority).addLast(command);
+    }
+    if (superseded != null) {
+      if (superseded.message.equals(message)) {
+        // The same message still goes out, so its caller follows the new send
+        propagate(command.future, superseded.future);
+      } else {
+        // Failed outside the lock, since callers' callbacks run here
+        superseded.future.completeExceptionally(
+            new CancellationException(superseded.message + " superseded by " + message + " before it was sent"));
+      }
+    }
+    drain();
+    return command.future;
+  }
+
+  // Called when the controller reports its command queue overflowed
+  public void onControllerQueueFull(int reportedQueueSize) {
+    synchronized (this) {
+      queueFullWarnings.incrementAndGet();
+      if (reportedQueueSize > 0) {
+        bucketCapacity = reportedQueueSize;
+      }
+      tokens = 0;
+      lastRefillNanos = System.nanoTime();
+    }
+    drain();
+  }
+
+  public synchronized int getPendingCount() {
+    return pendingByGroup.size();
+  }
+
+  public long getLastCommandSentNanos() {
+    return lastCommandSentNanos;
+  }
+
+  public long getCoalescedCount() {
+    return coalescedCount.get();
+  }
+
+  public long getQueueFullWarnings() {
+    return queueFullWarnings.get();
+  }
+
+  static Priority classify(String message) {
+    if (message.startsWith("heartbeat")) {
+      return Priority.HEARTBEAT;
+    }
+    if (message.startsWith("restart") || message.startsWith("road_lights_red")
+        || message.startsWith("boat_lights_red")) {
+      return Priority.SAFETY;
+    }
+    return Priority.OPERATOR;
+  }
+
+  // Commands that overwrite each other's effect share a group; anything else is
+  // only coalesced with an identical pending command. Sequenced commands from
+  // ReliableCommands are never merged with a different SEQ, only with their own
+  // retransmissions, otherwise an unsent SEQ would keep being retried.
+  static String coalesceGroup(String command) {
+    if (command.contains("|SEQ:")) {
+      return command;
+    }
+    if (command.startsWith("road_lights_")) {
+      return "road_lights";
+    } else if (command.startsWith("boat_lights_")) {
+      return "boat_lights";
+    } else if (command.equals("manual_bridge_lights_on") || command.equals("manual_bridge_lights_off")) {
+      return "manual_bridge_lights_power";
+    } else if (command.equals("manual_bridge_lights_true") || command.equals("manual_bridge_lights_false")) {
+      return "manual_bridge_lights_control";
+    } else if (command.equals("automatic_mode") || command.equals("override_mode")) {
+      return "mode";
+    } else if (command.startsWith("heartbeat")) {
+      return "heartbeat";
+    }
+    return command;
+  }
+
+  private void drain() {
+    long delayNanos;
+    synchronized (this) {
+      refill();
+      while (tokens >= 1) {
+        PendingCommand next = pollHighestPriority();
+        if (next == null) {
+          break;
+        }
+        tokens -= 1;
+        if (next.priority != Priority.HEARTBEAT) {
+          lastCommandSentNanos = System.nanoTime();
+        }
+        propagate(transport.sendAsync(next.message), next.future);
+      }
+      if (pendingByGroup.isEmpty() || drainScheduled) {
+        return;
+      }
+      drainScheduled = true;
+      delayNanos = (long) Math.ceil((1 - tokens) / refillPerNanosecond);
+    }
+    drainTimer.schedule(() -> {
+      synchronized (this) {
+        drainScheduled = false;
+      }
+      drain();
+    }, delayNanos, TimeUnit.NANOSECONDS);
+  }
+
+  private PendingCommand pollHighestPriority() {
+    for (Priority priority : Priority.values()) {
+      PendingCommand next = lanes.get(priority).pollFirst();
+      if (next != null) {
+        pendingByGroup.remove(next.group, next);
+        return next;
+      }
+    }
+    return null;
+  }
+
+  private void refill() {
+    long now = System.nanoTime();
+    tokens = Math.min(bucketCapacity, tokens + (now - lastRefillNanos) * refillPerNanosecond);
+    lastRefillNanos = now;
+  }
+
+  private static void propagate(CompletableFuture<Void> source, CompletableFuture<Void> target) {
+    source.whenComplete((ignored, error) -> {
+      if (error != null) {
+        target.completeExceptionally(error);
+      } else {
+        target.complete(null);
+      }
+    });
+  }
+}
@@ -0,0 +1,95 @@
+package mcp;
+
+// Phi accrual failure detector (Hayashibara et al.) over STATUS inter-arrival times.
+// Instead of a fixed timeout it keeps a sliding window of recent gaps and reports
+// phi = -log10(P(next packet arrives later than now)), so phi 1 means a 10% chance
+// the controller is merely late, phi 3 a 0.1% chance, and so on. Steady links are
+// suspected quickly; jittery links widen the distribution and avoid false alarms.
+// Mean and variance are kept as running sums, so both updates and phi are O(1).
+class PhiAccrualDetector {
+  private final long[] intervals;
+  private final double minStdDevNanos;
+  private final long acceptablePauseNanos;
+  private final long firstIntervalEstimateNanos;
+
+  private int count = 0;
+  private int next = 0;
+  private double sum = 0;
+  private double sumOfSquares = 0;
+  private long lastArrivalNanos = 0;
+
+  // acceptablePauseNanos is added to the mean so a single dropped packet is tolerated
+  PhiAccrualDetector(int windowSize, long minStdDevNanos, long acceptablePauseNanos,
+      long firstIntervalEstimateNanos) {
+    this.intervals = new long[windowSize];
+    this.minStdDevNanos = minStdDevNanos;
+    this.acceptablePauseNanos = acceptablePauseNanos;
+    this.firstIntervalEstimateNanos = firstIntervalEstimateNanos;
+  }
+
+  public synchronized void heartbeat(long arrivalNanos) {
+    if (lastArrivalNanos == 0) {
+      // Seed the window around the expected spacing so phi is meaningful from the
+      // second packet onwards
+      long spread = firstIntervalEstimateNanos / 4;
+      addInterval(firstIntervalEstimateNanos - spread);
+      addInterval(firstIntervalEstimateNanos + spread);
+    } else {
+      addInterval(arrivalNanos - lastArrivalNanos);
+    }
+    lastArrivalNanos = arrivalNanos;
+  }
+
+  // 0 until the first packet has been seen
+  public synchronized double phi(long nowNanos) {
+    if (lastArrivalNanos == 0) {
+      return 0;
+    }
+    double elapsed = nowNanos - lastArrivalNanos;
+    double mean = getMeanIntervalNanos() + acceptablePauseNanos;
+    double stdDev = getStdDevNanos();
+
+    // Logistic approximation of the normal CDF, accurate to ~1e-4
+    double y = (elapsed - mean) / stdDev;
+    double e = Math.exp(-y * (1.5976 + 0.070566 * y * y));
+    if (elapsed > mean) {
+      return -Math.log10(e / (1.0 + e));
+    }
+    return -Math.log10(1.0 - 1.0 / (1.0 + e));
+  }
+
+  public synchronized long getLastArrivalNanos() {
+    return lastArrivalNanos;
+  }
+
+  public synchronized double getMeanIntervalNanos() {
+    return count == 0 ? 0 : sum / count;
+  }
+
+  public synchronized double getStdDevNanos() {
+    if (count == 0) {
+      return minStdDevNanos;
+    }
+    double mean = sum / count;
+    double variance = Math.max(0, sumOfSquares / count - mean * mean);
+    return Math.max(minStdDevNanos, Math.sqrt(variance));
+  }
+
+  public synchronized int getSampleCount() {
+    return count;
+  }
+
+  private void addInterval(long interval) {
+    if (count == intervals.length) {
+      long evicted = intervals[next];
+      sum -= evicted;
+      sumOfSquares -= (double) evicted * evicted;
+    } else {
+      count++;
+    }
+    intervals[next] = interval;
+    sum += interval;
+    sumOfSquares += (double) interval * interval;
+    next = (next + 1) % intervals.length;
+  }
+}
@@ -3,21 +3,54 @@ package mcp;
 import java.io.IOException;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
 import java.net.SocketException;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class Receive extends Thread {
   private DatagramSocket espReceiveSocket;
-  private byte[] receiveBuffer;
   private Gui userInterface;
-
-  Receive(int espReceivePortNumber, Gui userInterface) {
+  private Fleet fleet;
+  // Optional - re-broadcasts STATUS to viewer consoles
+  private TelemetryRelay telemetryRelay;
+  // Multicast only: controllers allowed to feed this console (null = any)
+  private Set<InetAddress> allowedSources;
+  private final AtomicLong filteredDatagrams = new AtomicLong();
+  private final AtomicLong unknownSourceDatagrams = new AtomicLong();
+  private final AtomicLong outOfSequenceDatagrams = new AtomicLong();
+  private final AtomicLong malformedFrames = new AtomicLong();
+  private final AtomicLong duplicateFrames = new AtomicLong();
+  private final AtomicLong fullFrames = new AtomicLong();
+  private final AtomicLong deltaFrames = new AtomicLong();
+  private final AtomicLong deltaResyncs = new AtomicLong();
+  private final DatagramRecorder recorder = DatagramRecorder.shared();
+  // Datagrams are read on this thread and handled on the dispatcher, most urgent first
+  private final IngestLanes ingestLanes = new IngestLanes();
+  private Thread dispatcher;
+
+  // Datagrams from every controller arrive on one socket and are routed to their
+  // BridgeEndpoint in the fleet by source address
+  Receive(int espReceivePortNumber, Gui userInterface, Fleet fleet) {
     this.userInterface = userInterface;
+    this.fleet = fleet;
     try {
       espReceiveSocket = new DatagramSocket(espReceivePortNumber);
-      System.out.println("Receive socket initialized on port " + espReceivePortNumber);
+      Log.info("Receive socket initialized on port " + espReceivePortNumber);
     } catch (SocketException e) {
-      System.out.println("CRITICAL ERROR - Failed to create receive socket: " + e);
-      System.out.println("Port " + espReceivePortNumber + " is likely already in use.");
+      Log.error("Failed to create receive socket: " + e + " - port " + espReceivePortNumber
+          + " is likely already in use");
 
       espReceiveSocket = null;
 
@@ -26,80 +59,499 @@ public class Receive extends Thread {
             "ERROR: Failed to bind to port " + espReceivePortNumber + " - " + e.getMessage());
       }
     }
-    receiveBuffer = new byte[1024];
+  }
+
+  // Joins a multicast group so any number of consoles can receive the same
+  // telemetry. With sources given, membership is source-specific so the kernel
+  // drops other senders; datagrams are also checked here in case it can't.
+  Receive(String groupAddress, int port, String interfaceName, String[] sources, Gui userInterface,
+      Fleet fleet) {
+    this.userInterface = userInterface;
+    this.fleet = fleet;
+    try {
+      InetAddress group = InetAddress.getByName(groupAddress);
+      NetworkInterface networkInterface = interfaceName != null ? NetworkInterface.getByName(interfaceName)
+          : defaultMulticastInterface();
+      if (networkInterface == null) {
+        throw new IOException("No multicast interface " + (interfaceName != null ? interfaceName : "available"));
+      }
+
+      DatagramChannel channel = DatagramChannel.open(
+          group.getAddress().length == 4 ? StandardProtocolFamily.INET : StandardProtocolFamily.INET6);
+      channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+      channel.bind(new InetSocketAddress(port));
+      if (sources == null || sources.length == 0) {
+        channel.join(group, networkInterface);
+      } else {
+        allowedSources = new HashSet<>();
+        for (String source : sources) {
+          allowedSources.add(InetAddress.getByName(source));
+        }
+        joinSources(new MulticastMembership() {
+          @Override
+          public Runnable joinSource(InetAddress source) throws IOException {
+            return channel.join(group, networkInterface, source)::drop;
+          }
+
+          @Override
+          public void joinAnySource() throws IOException {
+            channel.join(group, networkInterface);
+          }
+        }, allowedSources);
+      }
+      espReceiveSocket = channel.socket();
+      Log.info("Joined multicast group " + groupAddress + ":" + port + " on "
+          + networkInterface.getName());
+    } catch (IOException e) {
+      Log.error("Failed to join multicast group " + groupAddress + ": " + e);
+      espReceiveSocket = null;
+      if (userInterface != null) {
+        userInterface.updateMessageLog(
+            "ERROR: Failed to join multicast group " + groupAddress + " - " + e.getMessage());
+      }
+    }
+  }
+
+  // The two ways of joining the group, so the fallback can be tested without a kernel lacking SSM
+  interface MulticastMembership {
+    // Returns how to leave again; throws UnsupportedOperationException without source-specific multicast
+    Runnable joinSource(InetAddress source) throws IOException;
+
+    void joinAnySource() throws IOException;
+  }
+
+  // Joins for every source, or - if source-specific multicast isn't supported -
+  // leaves any source joins already made and joins the whole group once instead;
+  // the two are never mixed. Returns false for the fallback, where only the
+  // allowedSources check keeps other senders out.
+  static boolean joinSources(MulticastMembership membership, Set<InetAddress> sources) throws IOException {
+    List<Runnable> joined = new ArrayList<>();
+    try {
+      for (InetAddress source : sources) {
+        joined.add(membership.joinSource(source));
+      }
+      return true;
+    } catch (UnsupportedOperationException e) {
+      for (Runnable leave : joined) {
+        leave.run();
+      }
+      Log.warn("No source-specific multicast - joining the whole group and filtering by source");
+      membership.joinAnySource();
+      return false;
+    }
+  }
+
+  private static NetworkInterface defaultMulticastInterface() throws SocketException {
+    Enumeration<NetworkInterface> interfaces = NetworkInterface.getNetworkInterfaces();
+    while (interfaces.hasMoreElements()) {
+      NetworkInterface candidate = interfaces.nextElement();
+      if (candidate.isUp() && candidate.supportsMulticast() && !candidate.isLoopback()) {
+        return candidate;
+      }
+    }
+    return null;
+  }
+
+  // For a viewer console fed by a TelemetryViewer instead of a socket
+  Receive(Gui userInterface, Fleet fleet) {
+    this.userInterface = userInterface;
+    this.fleet = fleet;
+  }
+
+  public void setTelemetryRelay(TelemetryRelay telemetryRelay) {
+    this.telemetryRelay = telemetryRelay;
   }
 
   @Override
   public void run() {
-    System.out.println("Receive thread started - listening for ESP32 messages...");
+    Log.info("Receive thread started - listening for ESP32 messages...");
 
     if (espReceiveSocket == null) {
-      System.out.println("Cannot start receive thread - socket creation failed");
+      Log.error("Cannot start receive thread - socket creation failed");
       if (userInterface != null) {
         userInterface.updateMessageLog("ERROR: Cannot receive messages - socket failed to initialize");
       }
       return;
     }
 
+    dispatcher = new Thread(this::dispatchLoop, "receive-dispatch");
+    dispatcher.setDaemon(true);
+    dispatcher.start();
+
+    DatagramPacket receivePacket = new DatagramPacket(new byte[0], 0);
+    IngestLanes.Frame frame = null;
     while (true) {
       try {
-        DatagramPacket receivePacket = new DatagramPacket(receiveBuffer, receiveBuffer.length);
-        espReceiveSocket.receive(receivePacket);
-
-        String receivedMessage = new String(receivePacket.getData(), 0, receivePacket.getLength()).trim();
-        System.out.println("Received from ESP32: " + receivedMessage);
-
-        // Handle STATUS messages (with or without space after colon)
-        if (receivedMessage.startsWith("STATUS:") || receivedMessage.startsWith("STATUS :")) {
-          parseStatusMessage(receivedMessage);
-          userInterface.updateMessageLog(wrapMessage("RECEIVED: " + receivedMessage));
-        }
-        // Handle WEIGHT_CHECK messages
-        else if (receivedMessage.startsWith("WEIGHT_CHECK:") || receivedMessage.startsWith("WEIGHT_CHECK :")) {
-          int colonIndex = receivedMessage.indexOf(":");
-          if (colonIndex != -1 && colonIndex + 1 < receivedMessage.length()) {
-            String weight = receivedMessage.substring(colonIndex + 1).trim();
-            userInterface.updateWeightReading(weight);
-            userInterface.updateMessageLog(wrapMessage("RECEIVED: WEIGHT_CHECK: " + weight));
-          }
-        }
-        // Handle MODE_CHANGE messages
-        else if (receivedMessage.startsWith("MODE_CHANGE:") || receivedMessage.startsWith("MODE_CHANGE :")) {
-          handleModeChange(receivedMessage);
-        }
-        // Handle INFO messages
-        else if (receivedMessage.startsWith("INFO:") || receivedMessage.startsWith("INFO :")) {
-          handleInfoMessage(receivedMessage);
+        if (frame == null) {
+          frame = ingestLanes.acquire();
         }
-        // Handle WARNING messages
-        else if (receivedMessage.startsWith("WARNING:") || receivedMessage.startsWith("WARNING :")) {
-          handleWarningMessage(receivedMessage);
-        }
-        // Handle ERROR messages
-        else if (receivedMessage.startsWith("ERROR:") || receivedMessage.startsWith("ERROR :")) {
-          handleErrorMessage(receivedMessage);
-        }
-        // Handle COMMAND_EXECUTION messages
-        else if (receivedMessage.startsWith("COMMAND_EXECUTION:")
-            || receivedMessage.startsWith("COMMAND_EXECUTION :")) {
-          handleCommandExecution(receivedMessage);
-        }
-        // Handle SYSTEM_UPDATE messages
-        else if (receivedMessage.startsWith("SYSTEM_UPDATE:") || receivedMessage.startsWith("SYSTEM_UPDATE :")) {
-          handleSystemUpdate(receivedMessage);
+        // Read straight into a pooled frame so queueing it needs no copy
+        receivePacket.setData(frame.data);
+        espReceiveSocket.receive(receivePacket);
+        long receivedNanos = System.nanoTime();
+        recorder.recordInbound(receivePacket.getAddress(), receivePacket.getPort(), frame.data,
+            receivePacket.getLength(), receivedNanos);
+
+        JfrEvents.DatagramReceived receivedEvent = new JfrEvents.DatagramReceived();
+        if (receivedEvent.isEnabled()) {
+          receivedEvent.size = receivePacket.getLength();
+          receivedEvent.source = receivePacket.getAddress().getHostAddress() + ":" + receivePacket.getPort();
+          receivedEvent.messageType = JfrEvents.messageType(frame.data, receivePacket.getLength());
+          receivedEvent.commit();
         }
-        // Handle other messages
-        else {
-          userInterface.updateMessageLog(wrapMessage("RECEIVED: " + receivedMessage));
+
+        frame.source = receivePacket.getAddress();
+        frame.length = receivePacket.getLength();
+        frame.receivedNanos = receivedNanos;
+        if (!ingestLanes.offer(frame)) {
+          Log.warn("Receive backlog full - shedding the least urgent datagrams");
         }
+        frame = null;
       } catch (IOException e) {
-        System.out.println("IOException in receive: " + e.getMessage());
+        if (espReceiveSocket.isClosed()) {
+          dispatcher.interrupt();
+          Log.info("Receive thread stopped");
+          return;
+        }
+        Log.warn("IOException in receive: " + e.getMessage());
         if (userInterface != null) {
           userInterface.updateMessageLog("Network error: " + e.getMessage());
         }
       } catch (Exception e) {
-        System.out.println("Unexpected error in receive: " + e.getMessage());
-        e.printStackTrace();
+        Log.error("Unexpected error in receive: " + e.getMessage(), e);
+      }
+    }
+  }
+
+  private void dispatchLoop() {
+    while (true) {
+      IngestLanes.Frame frame;
+      try {
+        frame = ingestLanes.poll(1, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        return;
+      }
+      if (frame == null) {
+        continue;
+      }
+      try {
+        handleFrame(frame.source, frame.data, frame.length, frame.receivedNanos);
+      } catch (Exception e) {
+        Log.error("Unexpected error handling datagram: " + e.getMessage(), e);
+      } finally {
+        ingestLanes.release(frame);
+      }
+    }
+  }
+
+  // Per-lane queueing delay and shed counts
+  public IngestLanes getIngestLanes() {
+    return ingestLanes;
+  }
+
+  // Closes the socket, which ends the receive loop
+  public void stopReceiving() {
+    if (espReceiveSocket != null) {
+      espReceiveSocket.close();
+    }
+  }
+
+  public long getFilteredDatagrams() {
+    return filteredDatagrams.get();
+  }
+
+  // Dropped because they came from an address that hasn't sent a valid STATUS
+  public long getUnknownSourceDatagrams() {
+    return unknownSourceDatagrams.get();
+  }
+
+  public long getOutOfSequenceDatagrams() {
+    return outOfSequenceDatagrams.get();
+  }
+
+  public long getMalformedFrames() {
+    return malformedFrames.get();
+  }
+
+  // Repeated STATUS datagrams dropped before decoding
+  public long getDuplicateFrames() {
+    return duplicateFrames.get();
+  }
+
+  public long getFullFrames() {
+    return fullFrames.get();
+  }
+
+  public long getDeltaFrames() {
+    return deltaFrames.get();
+  }
+
+  // Deltas that couldn't be applied because their base state was missed
+  public long getDeltaResyncs() {
+    return deltaResyncs.get();
+  }
+
+  // The endpoint for an accepted datagram, or null if it is filtered out, from an
+  // unknown source or the fleet is full. An unknown source is only registered -
+  // and sent heartbeats - once it sends a STATUS that parses, so a stray, scanning
+  // or spoofed packet never makes the console transmit or takes a fleet slot.
+  private BridgeEndpoint endpointForDatagram(InetAddress source, byte[] data, int length) {
+    if (!isAllowedSource(source)) {
+      return null;
+    }
+    BridgeEndpoint endpoint = fleet.endpointFor(source);
+    if (endpoint == null && isValidStatus(data, length)) {
+      endpoint = fleet.register(source);
+    }
+    return accept(endpoint);
+  }
+
+  private BridgeEndpoint endpointForDatagram(InetAddress source, String message) {
+    if (!isAllowedSource(source)) {
+      return null;
+    }
+    BridgeEndpoint endpoint = fleet.endpointFor(source);
+    if (endpoint == null && isValidStatus(message)) {
+      endpoint = fleet.register(source);
+    }
+    return accept(endpoint);
+  }
+
+  private boolean isAllowedSource(InetAddress source) {
+    if (allowedSources != null && !allowedSources.contains(source)) {
+      filteredDatagrams.incrementAndGet();
+      return false;
+    }
+    return true;
+  }
+
+  private BridgeEndpoint accept(BridgeEndpoint endpoint) {
+    if (endpoint == null) {
+      unknownSourceDatagrams.incrementAndGet();
+    } else {
+      endpoint.notePacketReceived();
+    }
+    return endpoint;
+  }
+
+  private static boolean isValidStatus(byte[] data, int length) {
+    if (BridgeStatus.isBinaryFrame(data, length)) {
+      return BridgeStatus.decode(ByteBuffer.wrap(data, 0, length), 0) != null;
+    }
+    return isTextStatus(data, length) && isValidStatus(new String(data, 0, length).trim());
+  }
+
+  private static boolean isValidStatus(String message) {
+    return (message.startsWith("STATUS:") || message.startsWith("STATUS :")) && BridgeStatus.parse(message, 0) != null;
+  }
+
+  // A raw datagram from the socket. A STATUS identical to the previous one from
+  // the same controller (common while the bridge is idle) is dropped here, before
+  // any String is built; it only counts as proof the link is up, for this console
+  // and, through the relay's keepalive, for its viewers.
+  void handleFrame(InetAddress source, byte[] data, int length, long receivedNanos) {
+    BridgeEndpoint endpoint = endpointForDatagram(source, data, length);
+    if (endpoint == null) {
+      return;
+    }
+
+    boolean binary = BridgeStatus.isBinaryFrame(data, length);
+    boolean status = binary || isTextStatus(data, length);
+    int hash = 0;
+    if (status) {
+      hash = frameHash(data, length);
+      if (endpoint.isRepeatedFrame(hash, data, length)) {
+        duplicateFrames.incrementAndGet();
+        noteStatusArrival(endpoint, receivedNanos);
+        if (telemetryRelay != null) {
+          telemetryRelay.publishKeepalive(endpoint.getName(), receivedNanos);
+        }
+        return;
+      }
+    }
+
+    BridgeStatus before = endpoint.getLatestStatus();
+    if (binary) {
+      handleBinaryStatus(endpoint, ByteBuffer.wrap(data, 0, length), receivedNanos);
+    } else {
+      handleMessage(endpoint, new String(data, 0, length).trim(), receivedNanos);
+    }
+    // Only a frame that was applied stands in for its repeats; a malformed or
+    // stale one is decoded and rejected again every time it arrives
+    if (status && endpoint.getLatestStatus() != before) {
+      endpoint.rememberFrame(hash, data, length);
+    }
+  }
+
+  // "STATUS:" or "STATUS :", but not STATUS_DELTA
+  private static boolean isTextStatus(byte[] data, int length) {
+    if (length < 7 || data[0] != 'S' || data[1] != 'T' || data[2] != 'A' || data[3] != 'T' || data[4] != 'U'
+        || data[5] != 'S') {
+      return false;
+    }
+    return data[6] == ':' || data[6] == ' ';
+  }
+
+  private static int frameHash(byte[] data, int length) {
+    int hash = 1;
+    for (int i = 0; i < length; i++) {
+      hash = 31 * hash + data[i];
+    }
+    return hash;
+  }
+
+  private void handleBinaryStatus(BridgeEndpoint endpoint, ByteBuffer frame, long receivedNanos) {
+    noteStatusArrival(endpoint, receivedNanos);
+
+    JfrEvents.StatusParsed parsedEvent = new JfrEvents.StatusParsed();
+    parsedEvent.begin();
+    BridgeStatus status = BridgeStatus.decode(frame, receivedNanos);
+    parsedEvent.end();
+    if (status == null) {
+      malformedFrames.incrementAndGet();
+      Log.warn("Malformed binary STATUS frame from " + endpoint.getName());
+      return;
+    }
+    if (parsedEvent.shouldCommit()) {
+      parsedEvent.fieldCount = status.getPartCount();
+      parsedEvent.commit();
+    }
+    if (!endpoint.getSequenceTracker().accept(status.getSequence())) {
+      outOfSequenceDatagrams.incrementAndGet();
+      return;
+    }
+    fullFrames.incrementAndGet();
+    endpoint.setLastFullStatus(status);
+    storeStatus(endpoint, status);
+    if (endpoint.isDisplayed() && userInterface != null) {
+      displayStatus(status);
+    }
+  }
+
+  void handleDatagram(InetAddress source, String receivedMessage, long receivedNanos) {
+    BridgeEndpoint endpoint = endpointForDatagram(source, receivedMessage);
+    if (endpoint != null) {
+      handleMessage(endpoint, receivedMessage, receivedNanos);
+    }
+  }
+
+  private void handleMessage(BridgeEndpoint endpoint, String receivedMessage, long receivedNanos) {
+
+    // STATUS may carry a per-source "TSEQ:<n>" so lost, repeated or reordered
+    // datagrams (common with multicast) can be detected and stale ones dropped
+    long sequence = -1;
+    if (receivedMessage.startsWith("STATUS")) {
+      sequence = parseLongValue(receivedMessage, "TSEQ:");
+      if (sequence >= 0 && !endpoint.getSequenceTracker().accept(sequence)) {
+        outOfSequenceDatagrams.incrementAndGet();
+        return;
+      }
+    }
+
+    if (!endpoint.isDisplayed()) {
+      handleBackgroundMessage(endpoint, receivedMessage, sequence, receivedNanos);
+      return;
+    }
+
+    if (Log.isDebugEnabled()) {
+      Log.debug("Received from ESP32: " + receivedMessage);
+    }
+
+    // Handle STATUS messages (with or without space after colon)
+    if (receivedMessage.startsWith("STATUS:") || receivedMessage.startsWith("STATUS :")) {
+      BridgeStatus status = handleStatus(endpoint, receivedMessage, sequence, receivedNanos);
+      if (status != null) {
+        displayStatus(status);
+      } else {
+        userInterface.updateMessageLog("Error parsing status: " + receivedMessage);
+      }
+      userInterface.updateMessageLog("RECEIVED: " + receivedMessage);
+    }
+    // Handle STATUS_DELTA messages carrying only the changed fields
+    else if (receivedMessage.startsWith("STATUS_DELTA:")) {
+      BridgeStatus status = handleStatusDelta(endpoint, receivedMessage, sequence, receivedNanos);
+      if (status != null) {
+        displayStatus(status);
+      }
+    }
+    // Handle WEIGHT_CHECK messages
+    else if (receivedMessage.startsWith("WEIGHT_CHECK:") || receivedMessage.startsWith("WEIGHT_CHECK :")) {
+      int colonIndex = receivedMessage.indexOf(":");
+      if (colonIndex != -1 && colonIndex + 1 < receivedMessage.length()) {
+        String weight = receivedMessage.substring(colonIndex + 1).trim();
+        userInterface.updateWeightReading(weight);
+        userInterface.updateMessageLog("RECEIVED: WEIGHT_CHECK: " + weight);
+      }
+    }
+    // Handle MODE_CHANGE messages
+    else if (receivedMessage.startsWith("MODE_CHANGE:") || receivedMessage.startsWith("MODE_CHANGE :")) {
+      handleModeChange(receivedMessage);
+    }
+    // Handle INFO messages
+    else if (receivedMessage.startsWith("INFO:") || receivedMessage.startsWith("INFO :")) {
+      handleInfoMessage(receivedMessage);
+    }
+    // Handle WARNING messages
+    else if (receivedMessage.startsWith("WARNING:") || receivedMessage.startsWith("WARNING :")) {
+      handleWarningMessage(endpoint, receivedMessage);
+    }
+    // Handle ERROR messages
+    else if (receivedMessage.startsWith("ERROR:") || receivedMessage.startsWith("ERROR :")) {
+      recorder.dumpOnError(endpoint.getName() + " " + receivedMessage);
+      handleErrorMessage(receivedMessage);
+    }
+    // Handle COMMAND_EXECUTION messages
+    else if (receivedMessage.startsWith("COMMAND_EXECUTION:")
+        || receivedMessage.startsWith("COMMAND_EXECUTION :")) {
+      handleCommandExecution(endpoint, receivedMessage, receivedNanos);
+    }
+    // Handle ACK messages for reliable commands
+    else if (receivedMessage.startsWith("ACK:") || receivedMessage.startsWith("ACK :")) {
+      handleAck(endpoint, receivedMessage);
+    }
+    // Handle heartbeat echoes used for RTT and clock offset
+    else if (receivedMessage.startsWith("HEARTBEAT_ACK:") || receivedMessage.startsWith("HEARTBEAT_ACK :")) {
+      endpoint.getHeartbeat().handleEcho(receivedMessage, receivedNanos);
+    }
+    // Handle SYSTEM_UPDATE messages
+    else if (receivedMessage.startsWith("SYSTEM_UPDATE:") || receivedMessage.startsWith("SYSTEM_UPDATE :")) {
+      handleSystemUpdate(receivedMessage);
+    }
+    // Handle other messages
+    else {
+      userInterface.updateMessageLog("RECEIVED: " + receivedMessage);
+    }
+  }
+
+  // Bridges not shown in the main window keep their link and STATUS state current,
+  // and only warnings and errors reach the log
+  private void handleBackgroundMessage(BridgeEndpoint endpoint, String receivedMessage, long sequence,
+      long receivedNanos) {
+    if (receivedMessage.startsWith("STATUS:") || receivedMessage.startsWith("STATUS :")) {
+      handleStatus(endpoint, receivedMessage, sequence, receivedNanos);
+    } else if (receivedMessage.startsWith("STATUS_DELTA:")) {
+      handleStatusDelta(endpoint, receivedMessage, sequence, receivedNanos);
+    } else if (receivedMessage.startsWith("ACK:") || receivedMessage.startsWith("ACK :")) {
+      handleAck(endpoint, receivedMessage);
+    } else if (receivedMessage.startsWith("COMMAND_EXECUTION:")
+        || receivedMessage.startsWith("COMMAND_EXECUTION :")) {
+      String content = executionContent(endpoint, receivedMessage);
+      if (content != null) {
+        endpoint.noteCommandExecuted(content, receivedNanos);
+      }
+    } else if (receivedMessage.startsWith("HEARTBEAT_ACK:") || receivedMessage.startsWith("HEARTBEAT_ACK :")) {
+      endpoint.getHeartbeat().handleEcho(receivedMessage, receivedNanos);
+    } else if (receivedMessage.startsWith("WARNING:") || receivedMessage.startsWith("WARNING :")
+        || receivedMessage.startsWith("ERROR:") || receivedMessage.startsWith("ERROR :")) {
+      if (receivedMessage.startsWith("ERROR")) {
+        recorder.dumpOnError(endpoint.getName() + " " + receivedMessage);
+      }
+      if (receivedMessage.contains("command_queue_full")) {
+        endpoint.getOutboundScheduler()
+            .onControllerQueueFull(parseQueueSize(extractValue(receivedMessage, "SIZE:")));
+      }
+      if (userInterface != null) {
+        userInterface.updateMessageLog("[" + endpoint.getName() + "] RECEIVED: " + receivedMessage);
       }
     }
   }
@@ -111,15 +563,15 @@ public class Receive extends Thread {
 
       if (content.equals("override_mode_active")) {
         userInterface.showNotification("Mode changed to OVERRIDE");
-        userInterface.updateMessageLog(wrapMessage("MODE_CHANGE: Successfully switched to override mode"));
+        userInterface.updateMessageLog("MODE_CHANGE: Successfully switched to override mode");
       } else if (content.equals("automatic_mode_active")) {
         userInterface.showNotification("Mode changed to AUTOMATIC");
-        userInterface.updateMessageLog(wrapMessage("MODE_CHANGE: Successfully switched to automatic mode"));
+        userInterface.updateMessageLog("MODE_CHANGE: Successfully switched to automatic mode");
       } else if (content.equals("mode_change_completed")) {
         userInterface.showNotification("Mode change successful");
-        userInterface.updateMessageLog(wrapMessage("MODE_CHANGE: Mode change completed successfully"));
+        userInterface.updateMessageLog("MODE_CHANGE: Mode change completed successfully");
       } else {
-        userInterface.updateMessageLog(wrapMessage("RECEIVED: MODE_CHANGE: " + content));
+        userInterface.updateMessageLog("RECEIVED: MODE_CHANGE: " + content);
       }
     }
   }
@@ -131,36 +583,37 @@ public class Receive extends Thread {
 
       if (content.contains("mode_change_queued")) {
         userInterface.showNotification("Mode change queued - waiting for safe state");
-        userInterface
-            .updateMessageLog(wrapMessage("INFO: Mode change request queued, waiting for bridge to reach safe state"));
+        userInterface.updateMessageLog("INFO: Mode change request queued, waiting for bridge to reach safe state");
       } else if (content.contains("full_test_starting")) {
         userInterface.showNotification("Full system test starting");
-        userInterface.updateMessageLog(wrapMessage("INFO: Full system test sequence initiated - please standby"));
+        userInterface.updateMessageLog("INFO: Full system test sequence initiated - please standby");
       } else if (content.contains("test_phase")) {
         // Parse test phase info
         String phase = extractValue(content, "PHASE:");
         String action = extractValue(content, "ACTION:");
         userInterface.showNotification("Test Phase " + phase + " - " + action);
-        userInterface.updateMessageLog(wrapMessage("INFO: Performing Test Phase " + phase + " - Action: " + action));
+        userInterface.updateMessageLog("INFO: Performing Test Phase " + phase + " - Action: " + action);
       } else {
-        userInterface.updateMessageLog(wrapMessage("RECEIVED: INFO: " + content));
+        userInterface.updateMessageLog("RECEIVED: INFO: " + content);
       }
     }
   }
 
-  private void handleWarningMessage(String message) {
+  private void handleWarningMessage(BridgeEndpoint endpoint, String message) {
     int colonIndex = message.indexOf(":");
     if (colonIndex != -1 && colonIndex + 1 < message.length()) {
       String content = message.substring(colonIndex + 1).trim();
 
       if (content.contains("command_queue_full")) {
         String queueSize = extractValue(content, "SIZE:");
-        userInterface.showNotification("Command queue full (" + queueSize + ") - please wait");
-        userInterface.updateMessageLog(wrapMessage(
-            "WARNING: Command queue is full (Size: " + queueSize + ") - wait for operations to complete"));
+        endpoint.getOutboundScheduler().onControllerQueueFull(parseQueueSize(queueSize));
+        userInterface.showNotification("Command queue full (" + queueSize + ") - please wait",
+            NotificationManager.Severity.WARNING);
+        userInterface.updateMessageLog(
+            "WARNING: Command queue is full (Size: " + queueSize + ") - wait for operations to complete");
       } else {
-        userInterface.showNotification(content);
-        userInterface.updateMessageLog(wrapMessage("RECEIVED: WARNING: " + content));
+        userInterface.showNotification(content, NotificationManager.Severity.WARNING);
+        userInterface.updateMessageLog("RECEIVED: WARNING: " + content);
       }
     }
   }
@@ -171,52 +624,80 @@ public class Receive extends Thread {
       String content = message.substring(colonIndex + 1).trim();
 
       if (content.contains("override_denied_traffic_present")) {
-        userInterface.showNotification("Cannot enter override - traffic present");
-        userInterface
-            .updateMessageLog(wrapMessage("ERROR: Override mode denied - Clear all traffic before switching modes"));
+        userInterface.showNotification("Cannot enter override - traffic present", NotificationManager.Severity.ERROR);
+        userInterface.updateMessageLog("ERROR: Override mode denied - Clear all traffic before switching modes");
       } else if (content.contains("mode_change_timeout")) {
-        userInterface.showNotification("Mode change timeout");
-        userInterface.updateMessageLog(wrapMessage("ERROR: Mode change request timed out - please try again"));
+        userInterface.showNotification("Mode change timeout", NotificationManager.Severity.ERROR);
+        userInterface.updateMessageLog("ERROR: Mode change request timed out - please try again");
       } else if (content.contains("bridge_opening_failed")) {
-        userInterface.showNotification("Bridge failed to open");
-        userInterface.updateMessageLog(wrapMessage("ERROR: Bridge opening operation failed - unknown error occurred"));
+        userInterface.showNotification("Bridge failed to open", NotificationManager.Severity.ERROR);
+        userInterface.updateMessageLog("ERROR: Bridge opening operation failed - unknown error occurred");
       } else if (content.contains("bridge_closing_failed")) {
-        userInterface.showNotification("Bridge failed to close");
-        userInterface.updateMessageLog(wrapMessage("ERROR: Bridge closing operation failed - unknown error occurred"));
+        userInterface.showNotification("Bridge failed to close", NotificationManager.Severity.ERROR);
+        userInterface.updateMessageLog("ERROR: Bridge closing operation failed - unknown error occurred");
       } else if (content.contains("bridge_unknown_state")) {
-        userInterface.showNotification("Bridge in unknown state");
-        userInterface.updateMessageLog(wrapMessage("ERROR: Bridge is now in an unknown state - diagnostics required"));
+        userInterface.showNotification("Bridge in unknown state", NotificationManager.Severity.ERROR);
+        userInterface.updateMessageLog("ERROR: Bridge is now in an unknown state - diagnostics required");
       } else if (content.contains("test_failed")) {
         String phase = extractValue(content, "PHASE:");
         String reason = extractValue(content, "REASON:");
-        userInterface.showNotification("Test Phase " + phase + " failed - " + reason);
-        userInterface.updateMessageLog(wrapMessage("ERROR: Test Phase " + phase + " failed - Reason: " + reason));
+        userInterface.showNotification("Test Phase " + phase + " failed - " + reason,
+            NotificationManager.Severity.ERROR);
+        userInterface.updateMessageLog("ERROR: Test Phase " + phase + " failed - Reason: " + reason);
       } else {
-        userInterface.showNotification(content);
-        userInterface.updateMessageLog(wrapMessage("RECEIVED: ERROR: " + content));
+        userInterface.showNotification(content, NotificationManager.Severity.ERROR);
+        userInterface.updateMessageLog("RECEIVED: ERROR: " + content);
       }
     }
   }
 
-  private void handleCommandExecution(String message) {
+  private void handleAck(BridgeEndpoint endpoint, String message) {
+    long sequence = ReliableCommands.parseSequence(message);
+    ReliableCommands reliableCommands = endpoint.getReliableCommands();
+    if (sequence != -1 && reliableCommands != null) {
+      reliableCommands.acknowledge(sequence);
+    }
+  }
+
+  // The executed command with any "|SEQ:<n>" removed, or null if the message is
+  // empty or repeats a reply already seen for that sequence number
+  private String executionContent(BridgeEndpoint endpoint, String message) {
     int colonIndex = message.indexOf(":");
-    if (colonIndex != -1 && colonIndex + 1 < message.length()) {
-      String content = message.substring(colonIndex + 1).trim();
+    if (colonIndex == -1 || colonIndex + 1 >= message.length()) {
+      return null;
+    }
+    String content = message.substring(colonIndex + 1).trim();
+
+    // Replies to reliable commands carry "|SEQ:<n>" - ack it and drop repeats
+    int sequenceIndex = content.indexOf("|SEQ:");
+    if (sequenceIndex != -1) {
+      long sequence = ReliableCommands.parseSequence(content.substring(sequenceIndex));
+      content = content.substring(0, sequenceIndex).trim();
+      ReliableCommands reliableCommands = endpoint.getReliableCommands();
+      if (sequence != -1 && reliableCommands != null && !reliableCommands.acknowledgeExecution(sequence)) {
+        Log.debug("Ignoring duplicate COMMAND_EXECUTION for SEQ:" + sequence);
+        return null;
+      }
+    }
+    return content;
+  }
+
+  private void handleCommandExecution(BridgeEndpoint endpoint, String message, long receivedNanos) {
+    String content = executionContent(endpoint, message);
+    if (content != null) {
+      endpoint.noteCommandExecuted(content, receivedNanos);
 
       if (content.equals("allow_boat_traffic")) {
         userInterface.showNotification("Boat traffic sequence initiated");
-        userInterface
-            .updateMessageLog(wrapMessage("COMMAND_EXECUTION: allow_boat_traffic command executed successfully"));
+        userInterface.updateMessageLog("COMMAND_EXECUTION: allow_boat_traffic command executed successfully");
       } else if (content.equals("allow_road_traffic")) {
         userInterface.showNotification("Road traffic sequence initiated");
-        userInterface
-            .updateMessageLog(wrapMessage("COMMAND_EXECUTION: allow_road_traffic command executed successfully"));
+        userInterface.updateMessageLog("COMMAND_EXECUTION: allow_road_traffic command executed successfully");
       } else if (content.equals("run_full_test_success")) {
         userInterface.showNotification("All tests completed successfully");
-        userInterface
-            .updateMessageLog(wrapMessage("COMMAND_EXECUTION: Full system test completed - all phases passed"));
+        userInterface.updateMessageLog("COMMAND_EXECUTION: Full system test completed - all phases passed");
       } else {
-        userInterface.updateMessageLog(wrapMessage("RECEIVED: EXECUTED: " + content));
+        userInterface.updateMessageLog("RECEIVED: EXECUTED: " + content);
       }
     }
   }
@@ -228,49 +709,69 @@ public class Receive extends Thread {
 
       if (content.contains("bridge_is_executing_sequence")) {
         userInterface.showNotification("Bridge executing sequence - please wait");
-        userInterface.updateMessageLog(
-            wrapMessage("SYSTEM_UPDATE: Bridge is currently executing a sequence - wait for completion"));
+        userInterface.updateMessageLog("SYSTEM_UPDATE: Bridge is currently executing a sequence - wait for completion");
       } else if (content.equals("restarting")) {
         userInterface.showNotification("Bridge system restarting");
-        userInterface.updateMessageLog(wrapMessage("SYSTEM_UPDATE: ESP32 system restart initiated"));
+        userInterface.updateMessageLog("SYSTEM_UPDATE: ESP32 system restart initiated");
       } else if (content.equals("restart_required")) {
-        userInterface.showNotification("Restart required");
-        userInterface
-            .updateMessageLog(
-                wrapMessage("SYSTEM_UPDATE: System restart required - no operations will execute until restart"));
+        userInterface.showNotification("Restart required", NotificationManager.Severity.WARNING);
+        userInterface.updateMessageLog(
+            "SYSTEM_UPDATE: System restart required - no operations will execute until restart");
       } else if (content.contains("diagnostics_command_only")) {
-        userInterface.showNotification("Diagnostics required - bridge state unknown");
-        userInterface.updateMessageLog(wrapMessage(
-            "SYSTEM_UPDATE: Please run diagnostics - bridge state unknown, no other commands accepted"));
+        userInterface.showNotification("Diagnostics required - bridge state unknown",
+            NotificationManager.Severity.WARNING);
+        userInterface.updateMessageLog(
+            "SYSTEM_UPDATE: Please run diagnostics - bridge state unknown, no other commands accepted");
       } else if (content.contains("diagnostic_mode")) {
         userInterface.showNotification("Diagnostic mode active");
-        userInterface
-            .updateMessageLog(wrapMessage("SYSTEM_UPDATE: System entered diagnostic mode - determining bridge state"));
+        userInterface.updateMessageLog("SYSTEM_UPDATE: System entered diagnostic mode - determining bridge state");
       } else if (content.equals("recovered")) {
         userInterface.showNotification("Bridge state recovered");
-        userInterface
-            .updateMessageLog(
-                wrapMessage("SYSTEM_UPDATE: Bridge state successfully determined - normal operations resumed"));
+        userInterface.updateMessageLog(
+            "SYSTEM_UPDATE: Bridge state successfully determined - normal operations resumed");
       } else if (content.contains("bridge_state_mismatch")) {
-        userInterface.showNotification("Bridge state mismatch detected");
-        userInterface
-            .updateMessageLog(
-                wrapMessage("SYSTEM_UPDATE: Bridge state does not match expected state - verification in progress"));
+        userInterface.showNotification("Bridge state mismatch detected", NotificationManager.Severity.WARNING);
+        userInterface.updateMessageLog(
+            "SYSTEM_UPDATE: Bridge state does not match expected state - verification in progress");
       } else if (content.contains("detected_boats_while_closing")) {
         userInterface.showNotification("Boats detected - reopening bridge");
-        userInterface
-            .updateMessageLog(
-                wrapMessage("SYSTEM_UPDATE: Boats detected during bridge closing - returning to BOATS_PASSING state"));
+        userInterface.updateMessageLog(
+            "SYSTEM_UPDATE: Boats detected during bridge closing - returning to BOATS_PASSING state");
       } else if (content.contains("bridge_overloaded")) {
-        userInterface.showNotification("Bridge overloaded - skipping open");
-        userInterface.updateMessageLog(wrapMessage(
-            "SYSTEM_UPDATE: Excessive weight detected on bridge - skipping open operation for safety"));
+        userInterface.showNotification("Bridge overloaded - skipping open", NotificationManager.Severity.WARNING);
+        userInterface.updateMessageLog(
+            "SYSTEM_UPDATE: Excessive weight detected on bridge - skipping open operation for safety");
       } else {
-        userInterface.updateMessageLog(wrapMessage("RECEIVED: SYSTEM: " + content));
+        userInterface.updateMessageLog("RECEIVED: SYSTEM: " + content);
       }
     }
   }
 
+  private int parseQueueSize(String queueSize) {
+    try {
+      return Integer.parseInt(queueSize);
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  // Parses the non-negative number following key, or -1 if the key is absent
+  static long parseLongValue(String content, String key) {
+    int keyIndex = content.indexOf(key);
+    if (keyIndex == -1) {
+      return -1;
+    }
+    int start = keyIndex + key.length();
+    int end = start;
+    while (end < content.length() && Character.isDigit(content.charAt(end))) {
+      end++;
+    }
+    if (end == start || end - start > 18) {
+      return -1;
+    }
+    return Long.parseLong(content.substring(start, end));
+  }
+
   private String extractValue(String content, String key) {
     int keyIndex = content.indexOf(key);
     if (keyIndex == -1)
@@ -286,181 +787,99 @@ public class Receive extends Thread {
     }
   }
 
-  private String wrapMessage(String message) {
-    if (message.length() <= 100) {
-      return message;
+  // Feeds the endpoint's heartbeat and liveness monitor and stores the parsed status.
+  // Returns null if the message has no MODE field.
+  private BridgeStatus handleStatus(BridgeEndpoint endpoint, String statusMessage, long sequence,
+      long receivedNanos) {
+    noteStatusArrival(endpoint, receivedNanos);
+
+    JfrEvents.StatusParsed parsedEvent = new JfrEvents.StatusParsed();
+    parsedEvent.begin();
+    BridgeStatus status = BridgeStatus.parse(statusMessage, receivedNanos, sequence);
+    parsedEvent.end();
+    if (status == null) {
+      Log.warn("Could not find MODE: in status message from " + endpoint.getName());
+      return null;
     }
-
-    StringBuilder wrapped = new StringBuilder();
-    String[] existingLines = message.split("\n");
-
-    for (int lineIdx = 0; lineIdx < existingLines.length; lineIdx++) {
-      String line = existingLines[lineIdx];
-
-      if (line.length() <= 100) {
-        if (lineIdx > 0) {
-          wrapped.append("\n");
-        }
-        wrapped.append(line);
-        continue;
-      }
-
-      // Preserve leading spaces for indented lines
-      String leadingSpaces = "";
-      int firstNonSpace = 0;
-      while (firstNonSpace < line.length() && line.charAt(firstNonSpace) == ' ') {
-        firstNonSpace++;
-      }
-      if (firstNonSpace > 0) {
-        leadingSpaces = line.substring(0, firstNonSpace);
-        line = line.substring(firstNonSpace);
-      }
-
-      int currentIndex = 0;
-      boolean firstSegment = true;
-
-      while (currentIndex < line.length()) {
-        int endIndex = Math.min(currentIndex + 100, line.length());
-
-        if (endIndex < line.length()) {
-          int lastSpace = line.lastIndexOf(' ', endIndex);
-          if (lastSpace > currentIndex) {
-            endIndex = lastSpace;
-          }
-        }
-
-        if (lineIdx > 0 || !firstSegment) {
-          wrapped.append("\n");
-        }
-        if (!firstSegment || firstNonSpace > 0) {
-          wrapped.append("    ");
-        }
-        if (firstSegment && firstNonSpace > 0) {
-          wrapped.append(leadingSpaces);
-        }
-        wrapped.append(line.substring(currentIndex, endIndex).trim());
-        currentIndex = endIndex + 1;
-        firstSegment = false;
-      }
+    if (parsedEvent.shouldCommit()) {
+      parsedEvent.fieldCount = status.getPartCount();
+      parsedEvent.commit();
     }
-
-    return wrapped.toString();
+    fullFrames.incrementAndGet();
+    endpoint.setLastFullStatus(status);
+    storeStatus(endpoint, status);
+    return status;
   }
 
-  private void parseStatusMessage(String statusMessage) {
-    try {
-      System.out.println("DEBUG: Parsing status message: " + statusMessage);
-
-      // Find where the actual data starts (after "STATUS:" or "STATUS :")
-      int dataStart = statusMessage.indexOf("MODE:");
-      if (dataStart == -1) {
-        System.out.println("ERROR: Could not find MODE: in status message");
-        return;
+  // "STATUS_DELTA: TSEQ:<n>|BASE:<m>|<changed fields>" applies on top of the state
+  // with sequence m - either the latest one (chained deltas) or the last full
+  // STATUS (deltas against a key frame). If neither matches a frame was missed, so
+  // the delta is dropped and a full STATUS is requested.
+  private BridgeStatus handleStatusDelta(BridgeEndpoint endpoint, String deltaMessage, long sequence,
+      long receivedNanos) {
+    noteStatusArrival(endpoint, receivedNanos);
+    deltaFrames.incrementAndGet();
+
+    long baseSequence = parseLongValue(deltaMessage, "BASE:");
+    BridgeStatus base = null;
+    if (sequence >= 0 && baseSequence >= 0) {
+      BridgeStatus latest = endpoint.getLatestStatus();
+      BridgeStatus lastFull = endpoint.getLastFullStatus();
+      if (latest != null && latest.getSequence() == baseSequence) {
+        base = latest;
+      } else if (lastFull != null && lastFull.getSequence() == baseSequence) {
+        base = lastFull;
       }
-
-      // Extract the data portion
-      String data = statusMessage.substring(dataStart);
-      System.out.println("DEBUG: Data portion: " + data);
-
-      String[] parts = data.split("\\|");
-      System.out.println("DEBUG: Split into " + parts.length + " parts");
-
-      String mode = "UNKNOWN";
-      String bridgeState = "UNKNOWN";
-      String gateState = "UNKNOWN";
-      String roadDistance = "0";
-      String boatDistance = "0";
-      String bridgeMovementDistance = "0";
-      String boatClearanceDistance = "0";
-      String roadLight = "UNKNOWN";
-      String boatLight = "UNKNOWN";
-      String bridgeLight = "OFF";
-      String manualBridgeLights = "NO";
-      String sequenceState = "UNKNOWN";
-      String movementState = "UNKNOWN";
-      String queueSize = "";
-      String executing = "";
-
-      for (String part : parts) {
-        part = part.trim();
-        if (part.isEmpty())
-          continue;
-
-        int colonIndex = part.indexOf(":");
-        if (colonIndex == -1)
-          continue;
-
-        String key = part.substring(0, colonIndex).trim();
-        String value = part.substring(colonIndex + 1).trim();
-
-        System.out.println("DEBUG: Key=" + key + ", Value=" + value);
-
-        switch (key) {
-          case "MODE":
-            mode = value;
-            break;
-          case "BRIDGE":
-            bridgeState = value;
-            break;
-          case "GATE":
-            gateState = value;
-            break;
-          case "ROAD_DISTANCE":
-            roadDistance = value;
-            break;
-          case "BOAT_DISTANCE":
-            boatDistance = value;
-            break;
-          case "BRIDGE_MOVEMENT_DISTANCE":
-            bridgeMovementDistance = value;
-            break;
-          case "BOAT_CLEARANCE_DISTANCE":
-            boatClearanceDistance = value;
-            break;
-          case "ROAD_LIGHT":
-            roadLight = value;
-            break;
-          case "BOAT_LIGHT":
-            boatLight = value;
-            break;
-          case "BRIDGE_LIGHT":
-            bridgeLight = value;
-            break;
-          case "MANUAL_BRIDGE_LIGHTS":
-            manualBridgeLights = value;
-            break;
-          case "SEQUENCE":
-            sequenceState = value;
-            break;
-          case "MOVEMENT_STATE":
-            movementState = value;
-            break;
-          case "QUEUE":
-            queueSize = value;
-            break;
-          case "EXECUTING":
-            executing = value;
-            break;
-        }
+    }
+    if (base == null) {
+      deltaResyncs.incrementAndGet();
+      if (endpoint.requestResync(receivedNanos)) {
+        Log.info("[" + endpoint.getName() + "] Missed base for STATUS_DELTA - requested full STATUS");
       }
+      return null;
+    }
 
-      System.out.println("DEBUG: Parsed values - Mode:" + mode + " Bridge:" + bridgeState +
-          " Gate:" + gateState + " RoadLight:" + roadLight + " BoatLight:" + boatLight +
-          " Sequence:" + sequenceState + " Movement:" + movementState);
+    JfrEvents.StatusParsed parsedEvent = new JfrEvents.StatusParsed();
+    parsedEvent.begin();
+    BridgeStatus status = BridgeStatus.applyDelta(base, deltaMessage, receivedNanos, sequence);
+    parsedEvent.end();
+    if (parsedEvent.shouldCommit()) {
+      parsedEvent.fieldCount = status.getPartCount();
+      parsedEvent.commit();
+    }
+    storeStatus(endpoint, status);
+    return status;
+  }
 
-      // Update GUI with parsed status
-      userInterface.updateSystemStatus(
-          mode, bridgeState, gateState, roadDistance, boatDistance,
-          bridgeMovementDistance, boatClearanceDistance, roadLight, boatLight,
-          bridgeLight, manualBridgeLights, sequenceState, movementState, queueSize, executing);
+  // Any STATUS, even one that fails to parse, shows the link is up
+  private static void noteStatusArrival(BridgeEndpoint endpoint, long receivedNanos) {
+    endpoint.getHeartbeat().noteStatusReceived(receivedNanos);
+    endpoint.getLivenessMonitor().noteStatusReceived(receivedNanos);
+  }
 
-      // Don't log full status message to reduce clutter - it's shown in the stats
-      // panel
+  private void storeStatus(BridgeEndpoint endpoint, BridgeStatus status) {
+    endpoint.forgetFrame();
+    BridgeStatus previous = endpoint.getLatestStatus();
+    endpoint.setLatestStatus(status);
+    if (telemetryRelay != null) {
+      telemetryRelay.publish(endpoint.getName(), previous, status);
+    }
+  }
 
-    } catch (Exception e) {
-      System.out.println("ERROR parsing status message: " + e.getMessage());
-      e.printStackTrace();
-      userInterface.updateMessageLog(wrapMessage("Error parsing status: " + statusMessage));
+  private void displayStatus(BridgeStatus status) {
+    long receivedNanos = status.getReceivedNanos();
+    userInterface.getLatencyTracker().record(LatencyTracker.Stage.PARSE, receivedNanos, System.nanoTime());
+
+    if (Log.isDebugEnabled()) {
+      Log.debug("Parsed values - Mode:" + status.get(BridgeStatus.Field.MODE)
+          + " Bridge:" + status.get(BridgeStatus.Field.BRIDGE) + " Gate:" + status.get(BridgeStatus.Field.GATE)
+          + " RoadLight:" + status.get(BridgeStatus.Field.ROAD_LIGHT)
+          + " BoatLight:" + status.get(BridgeStatus.Field.BOAT_LIGHT)
+          + " Sequence:" + status.get(BridgeStatus.Field.SEQUENCE)
+          + " Movement:" + status.get(BridgeStatus.Field.MOVEMENT_STATE));
     }
+
+    // Update GUI with parsed status
+    userInterface.updateSystemStatus(status);
   }
 }
@@ -0,0 +1,187 @@
+package mcp;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Optional reliable delivery layer on top of a MessageSender.
+// Each command goes out as "<command>|SEQ:<n>" and stays in flight until the
+// controller replies with "ACK:SEQ:<n>" or a COMMAND_EXECUTION carrying the same
+// SEQ. Unacknowledged commands are retransmitted after an adaptive timeout
+// derived from measured RTT (Karn's algorithm: retransmitted commands are not
+// sampled). RTT runs from when the transport actually sent the latest attempt,
+// not from when it was queued, so local rate limiting doesn't inflate the RTO.
+// The controller uses SEQ to drop repeats, and the console ignores repeated
+// replies for a SEQ it has already completed.
+class ReliableCommands {
+  private static final int MAX_ATTEMPTS = 5;
+  private static final int RECENT_ACK_HISTORY = 256;
+  private static final long INITIAL_RTO_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+  private static final long MIN_RTO_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+  private static final long MAX_RTO_NANOS = TimeUnit.SECONDS.toNanos(4);
+
+  private final MessageSender sendObject;
+  private final TimerWheel retransmitTimer;
+  private final RttEstimator rttEstimator = new RttEstimator(INITIAL_RTO_NANOS, MIN_RTO_NANOS, MAX_RTO_NANOS);
+  // Random start so a restarted console is not mistaken for a replay of old sequence numbers
+  private final AtomicLong nextSequence = new AtomicLong(ThreadLocalRandom.current().nextInt(1, 1_000_000));
+  private final Map<Long, InFlightCommand> inFlight = new ConcurrentHashMap<>();
+  private final LinkedHashSet<Long> recentlyAcked = new LinkedHashSet<>();
+  private final LinkedHashSet<Long> recentlyExecuted = new LinkedHashSet<>();
+
+  private final AtomicLong retransmissions = new AtomicLong();
+  private final AtomicLong duplicateAcks = new AtomicLong();
+
+  private static class InFlightCommand {
+    final long sequence;
+    final String command;
+    final String wireMessage;
+    final long queuedNanos;
+    // When the latest attempt left the transport; 0 while it is still queued
+    volatile long sentNanos = 0;
+    final CompletableFuture<Long> future = new CompletableFuture<>();
+    volatile int attempts = 0;
+    volatile TimerWheel.Timeout retransmit;
+
+    InFlightCommand(long sequence, String command) {
+      this.sequence = sequence;
+      this.command = command;
+      this.wireMessage = command + "|SEQ:" + sequence;
+      this.queuedNanos = System.nanoTime();
+    }
+  }
+
+  ReliableCommands(MessageSender sendObject) {
+    this(sendObject, TimerWheel.shared());
+  }
+
+  ReliableCommands(MessageSender sendObject, TimerWheel retransmitTimer) {
+    this.sendObject = sendObject;
+    this.retransmitTimer = retransmitTimer;
+  }
+
+  // Sends a command reliably. The future completes with the round-trip time of
+  // the attempt that was acknowledged, in nanoseconds, or fails with a TimeoutException after MAX_ATTEMPTS sends.
+  // If the same command is still in flight its existing future is returned,
+  // so a repeated click cannot queue a second execution.
+  public synchronized CompletableFuture<Long> sendCommand(String command) {
+    for (InFlightCommand pending : inFlight.values()) {
+      if (pending.command.equals(command)) {
+        return pending.future;
+      }
+    }
+
+    InFlightCommand pending = new InFlightCommand(nextSequence.getAndIncrement(), command);
+    inFlight.put(pending.sequence, pending);
+    transmit(pending);
+    return pending.future;
+  }
+
+  // Completes the in-flight command with this SEQ. Repeated acks are only counted.
+  public void acknowledge(long sequence) {
+    InFlightCommand pending = inFlight.remove(sequence);
+    if (pending == null) {
+      synchronized (recentlyAcked) {
+        if (recentlyAcked.contains(sequence)) {
+          duplicateAcks.incrementAndGet();
+        }
+      }
+      return;
+    }
+
+    if (pending.retransmit != null) {
+      pending.retransmit.cancel();
+    }
+    long sent = pending.sentNanos;
+    // An ack can beat the send completion; then there's no clean sample
+    long rtt = System.nanoTime() - (sent != 0 ? sent : pending.queuedNanos);
+    if (pending.attempts == 1 && sent != 0) {
+      rttEstimator.addSample(rtt);
+    }
+    remember(recentlyAcked, sequence);
+    pending.future.complete(rtt);
+  }
+
+  // A COMMAND_EXECUTION reply also acknowledges the command. Returns false if an
+  // execution reply for this SEQ was already handled, so it is not shown twice.
+  public boolean acknowledgeExecution(long sequence) {
+    acknowledge(sequence);
+    return remember(recentlyExecuted, sequence);
+  }
+
+  public int getInFlightCount() {
+    return inFlight.size();
+  }
+
+  public long getRetransmissions() {
+    return retransmissions.get();
+  }
+
+  public long getDuplicateAcks() {
+    return duplicateAcks.get();
+  }
+
+  public RttEstimator getRttEstimator() {
+    return rttEstimator;
+  }
+
+  // Parses the number from "SEQ:<n>" anywhere in a message, or -1 if absent
+  static long parseSequence(String content) {
+    return Receive.parseLongValue(content, "SEQ:");
+  }
+
+  // The send time is stamped, and the retransmit timer armed, once the transport
+  // has really sent this attempt. A failed send still arms the timer so it's retried.
+  private void transmit(InFlightCommand pending) {
+    int attempt = ++pending.attempts;
+    pending.sentNanos = 0;
+    sendObject.sendAsync(pending.wireMessage).whenComplete((ignored, error) -> {
+      // A retransmission coalesced with its still-queued original completes both sends
+      if (inFlight.get(pending.sequence) != pending || pending.attempts != attempt) {
+        return;
+      }
+      if (error == null) {
+        pending.sentNanos = System.nanoTime();
+      }
+      // Exponential backoff on top of the adaptive timeout
+      long timeout = Math.min(MAX_RTO_NANOS, rttEstimator.getRtoNanos() << (pending.attempts - 1));
+      pending.retransmit = retransmitTimer.schedule(() -> onTimeout(pending), timeout, TimeUnit.NANOSECONDS);
+    });
+  }
+
+  private void onTimeout(InFlightCommand pending) {
+    if (inFlight.get(pending.sequence) != pending) {
+      return;
+    }
+    if (pending.attempts >= MAX_ATTEMPTS) {
+      inFlight.remove(pending.sequence);
+      pending.future.completeExceptionally(new TimeoutException(
+          "No acknowledgement for " + pending.command + " after " + pending.attempts + " attempts"));
+      return;
+    }
+    retransmissions.incrementAndGet();
+    Log.info("Retransmitting " + pending.wireMessage + " (attempt " + (pending.attempts + 1) + ")");
+    transmit(pending);
+  }
+
+  // Adds to a bounded history, returning false if the SEQ was already present
+  private static boolean remember(LinkedHashSet<Long> history, long sequence) {
+    synchronized (history) {
+      if (!history.add(sequence)) {
+        return false;
+      }
+      if (history.size() > RECENT_ACK_HISTORY) {
+        Iterator<Long> oldest = history.iterator();
+        oldest.next();
+        oldest.remove();
+      }
+      return true;
+    }
+  }
+}
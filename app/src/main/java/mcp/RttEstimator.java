@@ -0,0 +1,60 @@
+package mcp;
+
+// Smoothed round-trip time and retransmission timeout, as in RFC 6298:
+// SRTT and RTTVAR are exponentially weighted, RTO = SRTT + 4 * RTTVAR,
+// clamped to [minRto, maxRto]. All values are in nanoseconds.
+class RttEstimator {
+  private static final double ALPHA = 0.125;
+  private static final double BETA = 0.25;
+
+  private final long initialRtoNanos;
+  private final long minRtoNanos;
+  private final long maxRtoNanos;
+
+  private boolean hasSample = false;
+  private double smoothedRtt;
+  private double rttVariance;
+  private long lastRtt;
+
+  RttEstimator(long initialRtoNanos, long minRtoNanos, long maxRtoNanos) {
+    this.initialRtoNanos = initialRtoNanos;
+    this.minRtoNanos = minRtoNanos;
+    this.maxRtoNanos = maxRtoNanos;
+  }
+
+  public synchronized void addSample(long rttNanos) {
+    lastRtt = rttNanos;
+    if (!hasSample) {
+      smoothedRtt = rttNanos;
+      rttVariance = rttNanos / 2.0;
+      hasSample = true;
+    } else {
+      rttVariance = (1 - BETA) * rttVariance + BETA * Math.abs(smoothedRtt - rttNanos);
+      smoothedRtt = (1 - ALPHA) * smoothedRtt + ALPHA * rttNanos;
+    }
+  }
+
+  public synchronized long getRtoNanos() {
+    if (!hasSample) {
+      return initialRtoNanos;
+    }
+    long rto = (long) (smoothedRtt + 4 * rttVariance);
+    return Math.max(minRtoNanos, Math.min(maxRtoNanos, rto));
+  }
+
+  public synchronized boolean hasSample() {
+    return hasSample;
+  }
+
+  public synchronized long getSmoothedRttNanos() {
+    return (long) smoothedRtt;
+  }
+
+  public synchronized long getRttVarianceNanos() {
+    return (long) rttVariance;
+  }
+
+  public synchronized long getLastRttNanos() {
+    return lastRtt;
+  }
+}
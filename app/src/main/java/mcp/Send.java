@@ -6,48 +6,151 @@ import java.net.DatagramSocket;
 import java.net.InetAddress;
 import java.net.SocketException;
 import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+
+public class Send implements MessageSender {
+  // Outbound messages from every Send instance are written by one shared I/O thread,
+  // so callers (Swing buttons, heartbeat timer) never block on the network. The queue
+  // is shared by every bridge in the fleet.
+  private static final int OUTBOUND_QUEUE_CAPACITY = 1024;
+  private static final int MAX_MESSAGE_BYTES = 1024;
+  private static final BlockingQueue<PendingMessage> outboundQueue = new ArrayBlockingQueue<>(
+      OUTBOUND_QUEUE_CAPACITY);
+  private static Thread ioThread;
 
-public class Send {
   private DatagramSocket espSendSocket;
   private int espSendPortNumber;
   InetAddress espSendIpAddr;
-  private Gui userInterface;
-  private boolean sendNotifications = false;
+
+  // Reused for every message - only touched by the I/O thread
+  private final byte[] sendBuffer = new byte[MAX_MESSAGE_BYTES];
+  private final DatagramPacket sendPacket = new DatagramPacket(sendBuffer, sendBuffer.length);
+
+  private static class PendingMessage {
+    final Send sender;
+    final String message;
+    final CompletableFuture<Void> future;
+
+    PendingMessage(Send sender, String message, CompletableFuture<Void> future) {
+      this.sender = sender;
+      this.message = message;
+      this.future = future;
+    }
+  }
 
   // Constructor to set destination port/ipaddr variables and initialise
   // espSendSocket
-  Send(int espSendPortNumber, String espSendIpAddr, Gui userInterface) {
-    if (userInterface != null) {
-      this.userInterface = userInterface;
-      sendNotifications = true;
-    }
+  Send(int espSendPortNumber, String espSendIpAddr) {
     this.espSendPortNumber = espSendPortNumber;
     try {
       this.espSendIpAddr = InetAddress.getByName(espSendIpAddr);
       espSendSocket = new DatagramSocket();
+      // Connect once so the destination is fixed and not re-checked on every send
+      espSendSocket.connect(this.espSendIpAddr, espSendPortNumber);
     } catch (UnknownHostException e) {
-      System.out.println("Ran into an UnknownHostException: " + e);
+      Log.error("Ran into an UnknownHostException: " + e);
     } catch (SocketException e) {
-      System.out.println("Ran into an SocketException: " + e);
+      Log.error("Ran into an SocketException: " + e);
     }
+    startIoThread();
+  }
+
+  // Queue a message for the I/O thread. Never blocks: if the outbound queue is full
+  // the returned future fails immediately.
+  @Override
+  public CompletableFuture<Void> sendAsync(String message) {
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    if (espSendSocket == null) {
+      future.completeExceptionally(new IllegalStateException("Send socket not initialized"));
+    } else if (!outboundQueue.offer(new PendingMessage(this, message, future))) {
+      Log.warn("Outbound queue full - dropped message: " + message);
+      future.completeExceptionally(new IllegalStateException("Outbound queue full"));
+    }
+    return future;
   }
 
   public void sendMessage(String message) {
-    try {
-      // Create message based on the string and send it to the destination as per the
-      // global variables
-      byte[] sendBuffer = message.getBytes();
+    sendAsync(message);
+  }
 
-      DatagramPacket sendPacket = new DatagramPacket(sendBuffer, sendBuffer.length, espSendIpAddr, espSendPortNumber);
-      espSendSocket.send(sendPacket);
+  public void close() {
+    if (espSendSocket != null) {
+      espSendSocket.close();
+    }
+  }
 
-      if (sendNotifications) {
-        userInterface.showNotification("Sent message to esp: " + message);
+  private static synchronized void startIoThread() {
+    if (ioThread != null) {
+      return;
+    }
+    ioThread = new Thread(Send::runIoLoop, "mcp-send-io");
+    ioThread.setDaemon(true);
+    ioThread.start();
+  }
+
+  private static void runIoLoop() {
+    while (true) {
+      PendingMessage pending;
+      try {
+        pending = outboundQueue.take();
+      } catch (InterruptedException e) {
+        return;
       }
+      try {
+        pending.sender.write(pending.message);
+        pending.future.complete(null);
+      } catch (Exception e) {
+        Log.warn("Failed to send message to esp: " + e);
+        pending.future.completeExceptionally(e);
+      }
+    }
+  }
+
+  private void write(String message) throws IOException {
+    // Create message based on the string and send it to the connected destination
+    int length = encode(message);
+    sendPacket.setLength(length);
+
+    JfrEvents.CommandSent sentEvent = new JfrEvents.CommandSent();
+    sentEvent.begin();
+    espSendSocket.send(sendPacket);
+    sentEvent.end();
+    DatagramRecorder.shared().recordOutbound(espSendIpAddr, espSendPortNumber, sendBuffer, length, System.nanoTime());
 
-      System.out.println("Sent message to esp: " + message);
-    } catch (IOException e) {
-      System.out.println("Ran into an IOException: " + e);
+    if (sentEvent.shouldCommit()) {
+      sentEvent.command = message;
+      sentEvent.size = length;
+      sentEvent.destination = espSendIpAddr.getHostAddress() + ":" + espSendPortNumber;
+      sentEvent.commit();
+    }
+
+    if (Log.isDebugEnabled()) {
+      Log.debug("Sent message to esp: " + message);
+    }
+  }
+
+  // Encode into the reused send buffer. Commands are plain ASCII, so the fast path
+  // copies chars directly; anything else falls back to a UTF-8 encode.
+  private int encode(String message) throws IOException {
+    int length = message.length();
+    if (length > sendBuffer.length) {
+      throw new IOException("Message too long: " + length + " bytes");
+    }
+    for (int i = 0; i < length; i++) {
+      char c = message.charAt(i);
+      if (c >= 0x80) {
+        byte[] encoded = message.getBytes(StandardCharsets.UTF_8);
+        if (encoded.length > sendBuffer.length) {
+          throw new IOException("Message too long: " + encoded.length + " bytes");
+        }
+        System.arraycopy(encoded, 0, sendBuffer, 0, encoded.length);
+        return encoded.length;
+      }
+      sendBuffer[i] = (byte) c;
     }
+    return length;
   }
 }
@@ -0,0 +1,63 @@
+package mcp;
+
+// Telemetry sequence numbers from one source. Gaps are counted as lost datagrams;
+// duplicates and datagrams older than one already applied are rejected, since a
+// late STATUS would roll the display back. A big backwards jump is taken as the
+// controller restarting its counter.
+class SequenceTracker {
+  private static final long RESTART_THRESHOLD = 1000;
+
+  private long highest = -1;
+  private long accepted = 0;
+  private long lost = 0;
+  private long duplicates = 0;
+  private long late = 0;
+  private long restarts = 0;
+
+  public synchronized boolean accept(long sequence) {
+    if (highest >= 0) {
+      if (sequence == highest) {
+        duplicates++;
+        return false;
+      }
+      if (sequence < highest) {
+        if (highest - sequence < RESTART_THRESHOLD) {
+          late++;
+          // The datagram was counted as lost when the gap opened
+          lost = Math.max(0, lost - 1);
+          return false;
+        }
+        restarts++;
+      } else {
+        lost += sequence - highest - 1;
+      }
+    }
+    highest = sequence;
+    accepted++;
+    return true;
+  }
+
+  public synchronized long getHighest() {
+    return highest;
+  }
+
+  public synchronized long getAccepted() {
+    return accepted;
+  }
+
+  public synchronized long getLost() {
+    return lost;
+  }
+
+  public synchronized long getDuplicates() {
+    return duplicates;
+  }
+
+  public synchronized long getLate() {
+    return late;
+  }
+
+  public synchronized long getRestarts() {
+    return restarts;
+  }
+}
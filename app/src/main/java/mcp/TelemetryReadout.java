@@ -0,0 +1,172 @@
+package mcp;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Insets;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.util.Arrays;
+
+import javax.swing.JComponent;
+
+// The "System Status" readout: one painted component in place of a stack of
+// JLabels. Every cell has a fixed row, so a new value never triggers layout;
+// setting a cell only repaints that row, and only if its text or colour really
+// changed. Each cell's text is laid out into a GlyphVector once per change and
+// reused for every paint after that.
+class TelemetryReadout extends JComponent {
+  enum Cell {
+    MODE("Mode: ", 5),
+    BRIDGE("Bridge: ", 5),
+    GATE("Gate: ", 5),
+    STATE("State: ", 8),
+    ROAD_DISTANCE("Road: ", 5),
+    BOAT_DISTANCE("Boat: ", 5),
+    BRIDGE_MOVEMENT("Bridge: ", 5),
+    BOAT_CLEARANCE("Clearance: ", 8),
+    MANUAL_LIGHTS("Manual Lights: ", 5),
+    WEIGHT("Last Weight: ", 5),
+    QUEUE("Queue: ", 8),
+    HEARTBEATS("Heartbeats: ", 5),
+    LINK("", 5),
+    CLOCK_OFFSET("", 5);
+
+    final String prefix;
+    // Space below this row
+    final int gapAfter;
+
+    Cell(String prefix, int gapAfter) {
+      this.prefix = prefix;
+      this.gapAfter = gapAfter;
+    }
+  }
+
+  static final Color DEFAULT_COLOR = new Color(180, 180, 180);
+
+  private static final Cell[] CELLS = Cell.values();
+  private static final Font FONT = new Font("Arial", Font.PLAIN, 14);
+
+  private final String[] values = new String[CELLS.length];
+  private final Color[] colors = new Color[CELLS.length];
+  // null until first painted after a change
+  private final GlyphVector[] glyphs = new GlyphVector[CELLS.length];
+  private final int[] rowTops = new int[CELLS.length];
+  private final int rowHeight;
+  private final int ascent;
+  private FontRenderContext layoutContext;
+  private long cellRepaints = 0;
+
+  // Heartbeat figures, kept so an unchanged report doesn't format a new string
+  private long heartbeatsSent = -1;
+  private long heartbeatsSkipped = -1;
+  private long heartbeatIntervalMillis = -1;
+
+  TelemetryReadout(int width) {
+    setOpaque(true);
+    setBackground(new Color(28, 28, 30));
+    setFont(FONT);
+    FontMetrics metrics = getFontMetrics(FONT);
+    rowHeight = metrics.getHeight();
+    ascent = metrics.getAscent();
+
+    int y = 0;
+    for (Cell cell : CELLS) {
+      rowTops[cell.ordinal()] = y;
+      y += rowHeight + cell.gapAfter;
+      values[cell.ordinal()] = "";
+      colors[cell.ordinal()] = DEFAULT_COLOR;
+    }
+    // Fixed for the life of the component
+    Dimension size = new Dimension(width, y);
+    setPreferredSize(size);
+    setMinimumSize(size);
+  }
+
+  // Values are shown after the cell's prefix; an empty value hides the row
+  public void set(Cell cell, String value, Color color) {
+    int index = cell.ordinal();
+    if (value.equals(values[index]) && color.getRGB() == colors[index].getRGB()) {
+      return;
+    }
+    values[index] = value;
+    colors[index] = color;
+    glyphs[index] = null;
+    cellRepaints++;
+    Rectangle row = rowBounds(index);
+    repaint(row.x, row.y, row.width, row.height);
+  }
+
+  public void set(Cell cell, String value) {
+    set(cell, value, colors[cell.ordinal()]);
+  }
+
+  public void setHeartbeats(long sent, long skipped, long intervalMillis) {
+    if (sent == heartbeatsSent && skipped == heartbeatsSkipped && intervalMillis == heartbeatIntervalMillis) {
+      return;
+    }
+    heartbeatsSent = sent;
+    heartbeatsSkipped = skipped;
+    heartbeatIntervalMillis = intervalMillis;
+    set(Cell.HEARTBEATS, String.format("%d sent, %d skipped (%.1f s)", sent, skipped, intervalMillis / 1000.0));
+  }
+
+  String getValue(Cell cell) {
+    return values[cell.ordinal()];
+  }
+
+  // Rows repainted because a value changed
+  long getCellRepaints() {
+    return cellRepaints;
+  }
+
+  private Rectangle rowBounds(int index) {
+    Insets insets = getInsets();
+    return new Rectangle(insets.left, insets.top + rowTops[index], getWidth() - insets.left - insets.right,
+        rowHeight);
+  }
+
+  @Override
+  public Dimension getPreferredSize() {
+    Dimension size = super.getPreferredSize();
+    Insets insets = getInsets();
+    return new Dimension(size.width, size.height + insets.top + insets.bottom);
+  }
+
+  @Override
+  protected void paintComponent(Graphics g) {
+    Graphics2D g2d = (Graphics2D) g;
+    Rectangle clip = g.getClipBounds();
+    if (clip == null) {
+      clip = new Rectangle(0, 0, getWidth(), getHeight());
+    }
+    g2d.setColor(getBackground());
+    g2d.fillRect(clip.x, clip.y, clip.width, clip.height);
+    g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+    // Layouts depend on the render context, e.g. when moved to a screen with other scaling
+    FontRenderContext context = g2d.getFontRenderContext();
+    if (!context.equals(layoutContext)) {
+      layoutContext = context;
+      Arrays.fill(glyphs, null);
+    }
+
+    Insets insets = getInsets();
+    for (int i = 0; i < CELLS.length; i++) {
+      int top = insets.top + rowTops[i];
+      if (top > clip.y + clip.height || top + rowHeight < clip.y || values[i].isEmpty()) {
+        continue;
+      }
+      if (glyphs[i] == null) {
+        glyphs[i] = FONT.createGlyphVector(context, CELLS[i].prefix + values[i]);
+      }
+      g2d.setColor(colors[i]);
+      g2d.drawGlyphVector(glyphs[i], insets.left, top + ascent);
+    }
+  }
+}
@@ -0,0 +1,192 @@
+package mcp;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+// Serves bridge telemetry from this (ingest) console to any number of viewer
+// consoles over TCP, so the controllers only ever send to one address. A viewer
+// gets a snapshot of every bridge when it joins, then one line per STATUS with
+// only the fields that changed:
+//   RELAY 1
+//   SNAPSHOT <bridge> MODE:AUTOMATIC|BRIDGE:CLOSED|...
+//   DELTA <bridge> BRIDGE:OPEN|GATE:CLOSED
+//   DELTA <bridge>                          (nothing changed - keeps liveness)
+// A STATUS the ingest console drops as an exact repeat still sends the empty
+// DELTA, at most every KEEPALIVE_INTERVAL per bridge.
+// Each viewer has a bounded queue drained by its own writer thread; a viewer that
+// falls too far behind is disconnected and resynchronises from a new snapshot.
+class TelemetryRelay {
+  static final String PROTOCOL_HEADER = "RELAY 1";
+  private static final int VIEWER_QUEUE_CAPACITY = 4096;
+  static final long KEEPALIVE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+  private final ServerSocket serverSocket;
+  private final Fleet fleet;
+  private final List<Viewer> viewers = new CopyOnWriteArrayList<>();
+  private final Object publishLock = new Object();
+  // When each bridge last had a line sent, by the thread calling publish
+  private final Map<String, Long> lastPublishedNanos = new ConcurrentHashMap<>();
+  private Thread acceptThread;
+
+  private class Viewer {
+    final Socket socket;
+    final BlockingQueue<String> queue = new ArrayBlockingQueue<>(VIEWER_QUEUE_CAPACITY);
+    final Thread writer;
+    volatile boolean closed = false;
+
+    Viewer(Socket socket) {
+      this.socket = socket;
+      this.writer = new Thread(this::runWriter, "mcp-relay-" + socket.getRemoteSocketAddress());
+      writer.setDaemon(true);
+    }
+
+    void offer(String line) {
+      if (!closed && !queue.offer(line)) {
+        Log.warn("Relay viewer " + socket.getRemoteSocketAddress() + " too slow - disconnecting");
+        close();
+      }
+    }
+
+    void runWriter() {
+      try (BufferedWriter out = new BufferedWriter(
+          new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+        while (!closed) {
+          String line = queue.take();
+          out.write(line);
+          out.write('\n');
+          // Batch whatever else is queued into the same flush
+          while ((line = queue.poll()) != null) {
+            out.write(line);
+            out.write('\n');
+          }
+          out.flush();
+        }
+      } catch (IOException | InterruptedException e) {
+        // Viewer went away
+      } finally {
+        close();
+      }
+    }
+
+    void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      viewers.remove(this);
+      writer.interrupt();
+      try {
+        socket.close();
+      } catch (IOException e) {
+        // Already closed
+      }
+      Log.info("Relay viewer disconnected: " + socket.getRemoteSocketAddress());
+    }
+  }
+
+  TelemetryRelay(int port, Fleet fleet) throws IOException {
+    this.serverSocket = new ServerSocket(port);
+    this.fleet = fleet;
+  }
+
+  public void start() {
+    acceptThread = new Thread(this::runAcceptLoop, "mcp-relay-accept");
+    acceptThread.setDaemon(true);
+    acceptThread.start();
+    Log.info("Telemetry relay listening on port " + serverSocket.getLocalPort());
+  }
+
+  public int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  public int getViewerCount() {
+    return viewers.size();
+  }
+
+  // Called from the receive thread for every STATUS; never blocks on the network
+  public void publish(String bridge, BridgeStatus previous, BridgeStatus current) {
+    if (viewers.isEmpty()) {
+      return;
+    }
+    lastPublishedNanos.put(bridge, current.getReceivedNanos());
+    offerToAll("DELTA " + bridge + " " + BridgeStatus.formatDelta(previous, current));
+  }
+
+  // For a STATUS identical to the last one: an empty delta so viewers' liveness
+  // monitors stay fed while the bridge is idle, throttled so a burst of repeats
+  // doesn't flood them
+  public void publishKeepalive(String bridge, long receivedNanos) {
+    if (viewers.isEmpty()) {
+      return;
+    }
+    Long last = lastPublishedNanos.get(bridge);
+    if (last != null && receivedNanos - last < KEEPALIVE_INTERVAL_NANOS) {
+      return;
+    }
+    lastPublishedNanos.put(bridge, receivedNanos);
+    offerToAll("DELTA " + bridge + " ");
+  }
+
+  private void offerToAll(String line) {
+    synchronized (publishLock) {
+      for (Viewer viewer : viewers) {
+        viewer.offer(line);
+      }
+    }
+  }
+
+  public void stop() {
+    try {
+      serverSocket.close();
+    } catch (IOException e) {
+      // Ignore on shutdown
+    }
+    for (Viewer viewer : viewers) {
+      viewer.close();
+    }
+  }
+
+  private void runAcceptLoop() {
+    while (!serverSocket.isClosed()) {
+      try {
+        Socket socket = serverSocket.accept();
+        socket.setTcpNoDelay(true);
+        join(new Viewer(socket));
+      } catch (SocketException e) {
+        // Server socket closed
+      } catch (IOException e) {
+        Log.warn("Relay accept failed: " + e.getMessage());
+      }
+    }
+  }
+
+  // Registering and snapshotting under the publish lock means every delta is
+  // queued either before the snapshot (and superseded by it) or after it
+  private void join(Viewer viewer) {
+    synchronized (publishLock) {
+      viewer.offer(PROTOCOL_HEADER);
+      for (BridgeEndpoint endpoint : fleet.getEndpoints()) {
+        BridgeStatus status = endpoint.getLatestStatus();
+        if (status != null) {
+          viewer.offer("SNAPSHOT " + endpoint.getName() + " " + status.format());
+        }
+      }
+      viewers.add(viewer);
+    }
+    viewer.writer.start();
+    Log.info("Relay viewer connected: " + viewer.socket.getRemoteSocketAddress());
+  }
+}
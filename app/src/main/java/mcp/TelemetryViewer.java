@@ -0,0 +1,121 @@
+package mcp;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+// Feeds a read-only console from a TelemetryRelay instead of the controllers.
+// Relay lines are turned back into STATUS messages and handed to Receive as if
+// they had arrived from the bridge itself, so the rest of the console is unchanged.
+// Reconnects (and receives a fresh snapshot) whenever the connection drops.
+public class TelemetryViewer extends Thread {
+  private static final long RECONNECT_DELAY = 2000;
+
+  private final String relayHost;
+  private final int relayPort;
+  private final Receive receive;
+  private final Gui userInterface;
+  // Last full status per bridge, in wire form, that deltas apply to
+  private final Map<String, String> statusByBridge = new HashMap<>();
+  private volatile boolean running = true;
+  private volatile Socket socket;
+
+  TelemetryViewer(String relayHost, int relayPort, Receive receive, Gui userInterface) {
+    super("mcp-relay-viewer");
+    setDaemon(true);
+    this.relayHost = relayHost;
+    this.relayPort = relayPort;
+    this.receive = receive;
+    this.userInterface = userInterface;
+  }
+
+  @Override
+  public void run() {
+    while (running) {
+      try (Socket connection = new Socket(relayHost, relayPort);
+          BufferedReader in = new BufferedReader(
+              new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+        socket = connection;
+        log("SYSTEM: Connected to telemetry relay " + relayHost + ":" + relayPort);
+        String header = in.readLine();
+        if (!TelemetryRelay.PROTOCOL_HEADER.equals(header)) {
+          log("ERROR: Unsupported telemetry relay protocol: " + header);
+          return;
+        }
+        statusByBridge.clear();
+        String line;
+        while ((line = in.readLine()) != null) {
+          handleLine(line);
+        }
+        log("WARNING: Telemetry relay closed the connection");
+      } catch (IOException e) {
+        if (running) {
+          Log.warn("Telemetry relay unavailable: " + e.getMessage());
+        }
+      }
+
+      try {
+        Thread.sleep(RECONNECT_DELAY);
+      } catch (InterruptedException e) {
+        return;
+      }
+    }
+  }
+
+  public void stopViewer() {
+    running = false;
+    interrupt();
+    Socket current = socket;
+    if (current != null) {
+      try {
+        current.close();
+      } catch (IOException e) {
+        // Ignore on shutdown
+      }
+    }
+  }
+
+  void handleLine(String line) {
+    long receivedNanos = System.nanoTime();
+    int bridgeStart = line.indexOf(' ') + 1;
+    if (bridgeStart == 0) {
+      return;
+    }
+    int bridgeEnd = line.indexOf(' ', bridgeStart);
+    String bridge = bridgeEnd == -1 ? line.substring(bridgeStart) : line.substring(bridgeStart, bridgeEnd);
+    String fields = bridgeEnd == -1 ? "" : line.substring(bridgeEnd + 1);
+
+    String status;
+    if (line.startsWith("SNAPSHOT ")) {
+      status = fields;
+    } else if (line.startsWith("DELTA ")) {
+      String base = statusByBridge.get(bridge);
+      if (base == null) {
+        return;
+      }
+      status = fields.isEmpty() ? base : BridgeStatus.parse(base + "|" + fields, receivedNanos).format();
+    } else {
+      return;
+    }
+    statusByBridge.put(bridge, status);
+
+    try {
+      // Bridge names are literal addresses, so this never does a DNS lookup
+      receive.handleDatagram(InetAddress.getByName(bridge), "STATUS: " + status, receivedNanos);
+    } catch (IOException e) {
+      Log.warn("Ignoring relay line for unknown bridge " + bridge);
+    }
+  }
+
+  private void log(String message) {
+    Log.info(message);
+    if (userInterface != null) {
+      userInterface.updateMessageLog(message);
+    }
+  }
+}
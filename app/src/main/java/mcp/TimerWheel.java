@@ -0,0 +1,228 @@
+package mcp;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Single-threaded hashed timing wheel shared by heartbeats, liveness deadlines and
+// retransmit timers. Scheduling and cancelling are O(1) regardless of how many
+// endpoints are registered: callers only push onto lock-free queues, and the worker
+// thread links/unlinks timeouts in their bucket once per tick. Resolution is one
+// tick (10 ms by default), which is plenty for second-scale protocol timers.
+class TimerWheel {
+  private static final long DEFAULT_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+  private static final int DEFAULT_WHEEL_SIZE = 512;
+
+  private static TimerWheel sharedInstance;
+
+  private final long tickNanos;
+  private final int mask;
+  private final Timeout[] bucketHeads;
+  private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+  private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger activeCount = new AtomicInteger();
+  private final long startNanos;
+  private final Thread worker;
+  private volatile boolean running = true;
+
+  // Only touched by the worker thread
+  private long currentTick = 0;
+
+  class Timeout {
+    private static final int STATE_ACTIVE = 0;
+    private static final int STATE_CANCELLED = 1;
+    private static final int STATE_EXPIRED = 2;
+
+    private final Runnable task;
+    private final long periodTicks;
+    private final AtomicInteger state = new AtomicInteger(STATE_ACTIVE);
+
+    // Worker thread only
+    private long deadlineTick;
+    private long remainingRounds;
+    private int bucketIndex = -1;
+    private Timeout previous;
+    private Timeout next;
+
+    private Timeout(Runnable task, long deadlineTick, long periodTicks) {
+      this.task = task;
+      this.deadlineTick = deadlineTick;
+      this.periodTicks = periodTicks;
+    }
+
+    public boolean cancel() {
+      if (!state.compareAndSet(STATE_ACTIVE, STATE_CANCELLED)) {
+        return false;
+      }
+      activeCount.decrementAndGet();
+      cancelledTimeouts.add(this);
+      return true;
+    }
+
+    public boolean isCancelled() {
+      return state.get() == STATE_CANCELLED;
+    }
+  }
+
+  TimerWheel() {
+    this(DEFAULT_TICK_NANOS, DEFAULT_WHEEL_SIZE, "mcp-timer-wheel");
+  }
+
+  TimerWheel(long tickNanos, int wheelSize, String threadName) {
+    if (Integer.bitCount(wheelSize) != 1) {
+      throw new IllegalArgumentException("Wheel size must be a power of two: " + wheelSize);
+    }
+    this.tickNanos = tickNanos;
+    this.mask = wheelSize - 1;
+    this.bucketHeads = new Timeout[wheelSize];
+    this.startNanos = System.nanoTime();
+    this.worker = new Thread(this::runWorker, threadName);
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  // The wheel shared by every component in this JVM
+  static synchronized TimerWheel shared() {
+    if (sharedInstance == null) {
+      sharedInstance = new TimerWheel();
+    }
+    return sharedInstance;
+  }
+
+  public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+    return add(task, unit.toNanos(delay), 0);
+  }
+
+  public Timeout schedulePeriodic(Runnable task, long initialDelay, long interval, TimeUnit unit) {
+    long periodTicks = Math.max(1, unit.toNanos(interval) / tickNanos);
+    return add(task, unit.toNanos(initialDelay), periodTicks);
+  }
+
+  // Periodic task whose first run is spread randomly across one interval, so many
+  // endpoints registered at once do not all fire on the same tick
+  public Timeout schedulePeriodicStaggered(Runnable task, long minimumDelay, long interval, TimeUnit unit) {
+    long jitter = ThreadLocalRandom.current().nextLong(Math.max(1, unit.toNanos(interval)));
+    long periodTicks = Math.max(1, unit.toNanos(interval) / tickNanos);
+    return add(task, unit.toNanos(minimumDelay) + jitter, periodTicks);
+  }
+
+  public int getActiveCount() {
+    return activeCount.get();
+  }
+
+  public void stop() {
+    running = false;
+    LockSupport.unpark(worker);
+  }
+
+  private Timeout add(Runnable task, long delayNanos, long periodTicks) {
+    long deadlineTick = (System.nanoTime() + Math.max(0, delayNanos) - startNanos) / tickNanos;
+    Timeout timeout = new Timeout(task, deadlineTick, periodTicks);
+    activeCount.incrementAndGet();
+    pendingTimeouts.add(timeout);
+    return timeout;
+  }
+
+  private void runWorker() {
+    while (running) {
+      waitForNextTick();
+      removeCancelled();
+      transferPending();
+      expireBucket((int) (currentTick & mask));
+      currentTick++;
+    }
+  }
+
+  private void waitForNextTick() {
+    long deadline = startNanos + (currentTick + 1) * tickNanos;
+    long remaining;
+    while (running && (remaining = deadline - System.nanoTime()) > 0) {
+      LockSupport.parkNanos(this, remaining);
+    }
+  }
+
+  private void removeCancelled() {
+    Timeout timeout;
+    while ((timeout = cancelledTimeouts.poll()) != null) {
+      if (timeout.bucketIndex != -1) {
+        unlink(timeout);
+      }
+    }
+  }
+
+  private void transferPending() {
+    Timeout timeout;
+    while ((timeout = pendingTimeouts.poll()) != null) {
+      if (timeout.state.get() == Timeout.STATE_ACTIVE) {
+        link(timeout);
+      }
+    }
+  }
+
+  private void link(Timeout timeout) {
+    long tick = Math.max(timeout.deadlineTick, currentTick);
+    timeout.remainingRounds = (tick - currentTick) / bucketHeads.length;
+    int index = (int) (tick & mask);
+    timeout.bucketIndex = index;
+    timeout.previous = null;
+    timeout.next = bucketHeads[index];
+    if (bucketHeads[index] != null) {
+      bucketHeads[index].previous = timeout;
+    }
+    bucketHeads[index] = timeout;
+  }
+
+  private void unlink(Timeout timeout) {
+    if (timeout.previous != null) {
+      timeout.previous.next = timeout.next;
+    } else {
+      bucketHeads[timeout.bucketIndex] = timeout.next;
+    }
+    if (timeout.next != null) {
+      timeout.next.previous = timeout.previous;
+    }
+    timeout.previous = null;
+    timeout.next = null;
+    timeout.bucketIndex = -1;
+  }
+
+  private void expireBucket(int index) {
+    Timeout timeout = bucketHeads[index];
+    while (timeout != null) {
+      Timeout next = timeout.next;
+      if (timeout.remainingRounds > 0) {
+        timeout.remainingRounds--;
+      } else {
+        unlink(timeout);
+        fire(timeout);
+      }
+      timeout = next;
+    }
+  }
+
+  private void fire(Timeout timeout) {
+    if (timeout.periodTicks == 0) {
+      if (!timeout.state.compareAndSet(Timeout.STATE_ACTIVE, Timeout.STATE_EXPIRED)) {
+        return;
+      }
+      activeCount.decrementAndGet();
+    } else if (timeout.state.get() != Timeout.STATE_ACTIVE) {
+      return;
+    }
+
+    try {
+      timeout.task.run();
+    } catch (Throwable t) {
+      Log.error("Timer task failed: " + t, t);
+    }
+
+    if (timeout.periodTicks != 0 && timeout.state.get() == Timeout.STATE_ACTIVE) {
+      // Fixed rate; re-queued rather than linked so the bucket being expired is not modified
+      timeout.deadlineTick += timeout.periodTicks;
+      pendingTimeouts.add(timeout);
+    }
+  }
+}
@@ -0,0 +1,182 @@
+package mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class BinaryStatusTest {
+  private static final String STATUS = "STATUS: MODE:OVERRIDE|BRIDGE:OPEN|GATE:CLOSED|ROAD_DISTANCE:12"
+      + "|BOAT_DISTANCE:340|BRIDGE_MOVEMENT_DISTANCE:0|BOAT_CLEARANCE_DISTANCE:25|ROAD_LIGHT:RED"
+      + "|BOAT_LIGHT:GREEN|BRIDGE_LIGHT:ON|MANUAL_BRIDGE_LIGHTS:Yes|SEQUENCE:BOATS_PASSING"
+      + "|MOVEMENT_STATE:IDLE|QUEUE:2|EXECUTING:YES";
+
+  // What a controller sends: the frame format from BridgeStatus, written the
+  // way the firmware does. Returns false, leaving the buffer's position
+  // unchanged, if a value has no binary form and text has to be sent instead.
+  private static boolean encode(BridgeStatus status, int bridgeId, long sequence, ByteBuffer out) {
+    int start = out.position();
+    out.put(BridgeStatus.BINARY_MAGIC).put(BridgeStatus.BINARY_VERSION).putShort((short) bridgeId)
+        .putInt((int) sequence);
+    for (BridgeStatus.Field field : BridgeStatus.Field.values()) {
+      String value = status.get(field);
+      int code = field.isNumeric() ? numericCode(value) : Arrays.asList(field.vocabulary).indexOf(value);
+      if (code < 0) {
+        out.position(start);
+        return false;
+      }
+      if (field.isNumeric()) {
+        out.putShort((short) code);
+      } else {
+        out.put((byte) code);
+      }
+    }
+    return true;
+  }
+
+  private static int numericCode(String value) {
+    if (value.isEmpty()) {
+      return BridgeStatus.NUMERIC_EMPTY;
+    }
+    // Leading zeros wouldn't survive the round trip
+    if (!value.matches("0|[1-9][0-9]{0,4}")) {
+      return -1;
+    }
+    int number = Integer.parseInt(value);
+    return number < BridgeStatus.NUMERIC_EMPTY ? number : -1;
+  }
+
+  private static ByteBuffer encode(BridgeStatus status, int bridgeId, long sequence) {
+    ByteBuffer frame = ByteBuffer.allocate(BridgeStatus.BINARY_FRAME_SIZE);
+    assertTrue(encode(status, bridgeId, sequence, frame));
+    frame.flip();
+    return frame;
+  }
+
+  private static void receive(Receive receive, InetAddress source, ByteBuffer frame) {
+    receive.handleFrame(source, frame.array(), frame.limit(), System.nanoTime());
+  }
+
+  @Test
+  public void testRoundTrip() {
+    BridgeStatus text = BridgeStatus.parse(STATUS, 0);
+    ByteBuffer frame = encode(text, 7, 4_000_000_000L);
+    assertEquals(28, frame.remaining());
+
+    BridgeStatus binary = BridgeStatus.decode(frame, 99);
+    assertEquals(text.format(), binary.format());
+    assertEquals(7, binary.getBridgeId());
+    assertEquals(4_000_000_000L, binary.getSequence());
+    assertEquals(99, binary.getReceivedNanos());
+    assertEquals(-1, text.getBridgeId());
+
+    // Empty QUEUE/EXECUTING survive too
+    BridgeStatus defaults = BridgeStatus.parse("STATUS: MODE:AUTOMATIC", 0);
+    assertEquals(defaults.format(), BridgeStatus.decode(encode(defaults, 1, 1), 0).format());
+  }
+
+  // Every light the text protocol accepts, including the diagnostics-only ALL
+  @Test
+  public void testEveryLightRoundTrips() {
+    for (BridgeStatus.Light light : BridgeStatus.Light.values()) {
+      BridgeStatus text = BridgeStatus.parse(STATUS.replace("ROAD_LIGHT:RED", "ROAD_LIGHT:" + light)
+          .replace("BOAT_LIGHT:GREEN", "BOAT_LIGHT:" + light), 0);
+      BridgeStatus binary = BridgeStatus.decode(encode(text, 1, 1), 0);
+      assertEquals(light, binary.getRoadLight());
+      assertEquals(light, binary.getBoatLight());
+      assertEquals(text.format(), binary.format());
+    }
+  }
+
+  @Test
+  public void testValuesWithoutBinaryFormFallBackToText() {
+    ByteBuffer frame = ByteBuffer.allocate(64);
+    assertFalse(encode(BridgeStatus.parse(STATUS.replace("BOATS_PASSING", "NEW_STATE"), 0), 1, 1, frame));
+    assertFalse(encode(BridgeStatus.parse(STATUS.replace("DISTANCE:12", "DISTANCE:12.5"), 0), 1, 1, frame));
+    assertFalse(encode(BridgeStatus.parse(STATUS.replace("DISTANCE:12", "DISTANCE:070"), 0), 1, 1, frame));
+    assertFalse(encode(BridgeStatus.parse(STATUS.replace("DISTANCE:12", "DISTANCE:70000"), 0), 1, 1, frame));
+    assertEquals(0, frame.position());
+  }
+
+  @Test
+  public void testMalformedFrames() {
+    ByteBuffer frame = encode(BridgeStatus.parse(STATUS, 0), 1, 1);
+    ByteBuffer truncated = ByteBuffer.wrap(frame.array(), 0, 20);
+    assertNull(BridgeStatus.decode(truncated, 0));
+
+    byte[] futureVersion = frame.array().clone();
+    futureVersion[1] = 2;
+    assertNull(BridgeStatus.decode(ByteBuffer.wrap(futureVersion), 0));
+
+    byte[] badIndex = frame.array().clone();
+    badIndex[8] = 100;
+    assertNull(BridgeStatus.decode(ByteBuffer.wrap(badIndex), 0));
+
+    assertTrue(BridgeStatus.isBinaryFrame(frame.array(), frame.limit()));
+    assertFalse(BridgeStatus.isBinaryFrame(STATUS.getBytes(StandardCharsets.US_ASCII), STATUS.length()));
+  }
+
+  // A controller may switch formats (e.g. after rebooting); both feed the same endpoint
+  @Test
+  public void testReceiveAcceptsBothFormats() throws Exception {
+    TimerWheel wheel = new TimerWheel(TimeUnit.MILLISECONDS.toNanos(10), 64, "test-wheel");
+    wheel.stop();
+    Fleet fleet = new Fleet(null, 9, false, wheel);
+    Receive receive = new Receive(0, null, fleet);
+    InetAddress source = InetAddress.getByName("127.1.0.1");
+    try {
+      receive.handleDatagram(source, STATUS.replace("OPEN|GATE", "CLOSED|GATE"), System.nanoTime());
+      BridgeEndpoint endpoint = fleet.endpointFor(source);
+      assertEquals("CLOSED", endpoint.getLatestStatus().get(BridgeStatus.Field.BRIDGE));
+
+      receive(receive, source, encode(BridgeStatus.parse(STATUS, 0), 1, 5));
+      assertEquals("OPEN", endpoint.getLatestStatus().get(BridgeStatus.Field.BRIDGE));
+      assertEquals(5, endpoint.getSequenceTracker().getHighest());
+
+      // A stale sequence number is dropped, a corrupt frame is counted
+      receive(receive, source, encode(BridgeStatus.parse(STATUS.replace("QUEUE:2", "QUEUE:3"), 0), 1, 5));
+      receive(receive, source, ByteBuffer.wrap(new byte[] { BridgeStatus.BINARY_MAGIC, 1 }));
+      assertEquals(1, receive.getOutOfSequenceDatagrams());
+      assertEquals(1, receive.getMalformedFrames());
+      assertEquals(4, endpoint.getPacketsReceived());
+      assertEquals(LivenessMonitor.State.HEALTHY, endpoint.getLivenessMonitor().getState());
+    } finally {
+      fleet.stop();
+    }
+  }
+
+  @Test
+  public void testSizeAndDecodeCost() {
+    BridgeStatus status = BridgeStatus.parse(STATUS, 0);
+    byte[] frame = encode(status, 1, 1).array();
+    int textBytes = STATUS.getBytes(StandardCharsets.US_ASCII).length;
+
+    int iterations = 200_000;
+    long sink = 0;
+    for (int round = 0; round < 2; round++) {
+      long start = System.nanoTime();
+      for (int i = 0; i < iterations; i++) {
+        sink += BridgeStatus.parse(STATUS, i).getPartCount();
+      }
+      long textNanos = System.nanoTime() - start;
+      start = System.nanoTime();
+      for (int i = 0; i < iterations; i++) {
+        sink += BridgeStatus.decode(ByteBuffer.wrap(frame), i).getPartCount();
+      }
+      long binaryNanos = System.nanoTime() - start;
+      if (round == 1) {
+        System.out.printf("STATUS: text %d bytes, %.0f ns/parse; binary %d bytes, %.0f ns/decode (%d)%n", textBytes,
+            textNanos / (double) iterations, frame.length, binaryNanos / (double) iterations, sink % 10);
+      }
+    }
+    assertTrue(frame.length * 5 < textBytes);
+  }
+}
@@ -0,0 +1,115 @@
+package mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class DatagramRecorderTest {
+  // Smallest allowed buffer, so the ring wraps after a few thousand records
+  private static final int CAPACITY = 34 + 0xFFFF;
+
+  private static byte[] bytes(String message) {
+    return message.getBytes(StandardCharsets.US_ASCII);
+  }
+
+  private static List<String> dumpLines(DatagramRecorder recorder) throws Exception {
+    Path file = Files.createTempFile("datagrams", ".txt");
+    try {
+      recorder.dump(file, "test");
+      return Files.readAllLines(file);
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testDumpListsBothDirectionsInOrder() throws Exception {
+    DatagramRecorder recorder = new DatagramRecorder(CAPACITY, TimeUnit.MINUTES.toMillis(10));
+    InetAddress controller = InetAddress.getByName("192.168.1.50");
+    byte[] status = bytes("STATUS: MODE:AUTOMATIC|BRIDGE:CLOSED");
+    byte[] command = bytes("bridge_open");
+    recorder.recordInbound(controller, 3032, status, status.length, System.nanoTime());
+    recorder.recordOutbound(controller, 3031, command, command.length, System.nanoTime());
+    recorder.recordInbound(controller, 3032, new byte[] { (byte) 0xB5, 1, 0, 7 }, 4, System.nanoTime());
+
+    List<String> lines = dumpLines(recorder);
+    assertEquals(4, lines.size());
+    assertTrue(lines.get(0).startsWith("# Datagram flight recording: test"));
+    assertTrue(lines.get(1).endsWith(" IN  192.168.1.50:3032 36 STATUS: MODE:AUTOMATIC|BRIDGE:CLOSED"), lines.get(1));
+    assertTrue(lines.get(2).endsWith(" OUT 192.168.1.50:3031 11 bridge_open"), lines.get(2));
+    assertTrue(lines.get(3).endsWith(" 4 hex:b5010007"), lines.get(3));
+  }
+
+  @Test
+  public void testOldestRecordsAreOverwritten() throws Exception {
+    DatagramRecorder recorder = new DatagramRecorder(CAPACITY, TimeUnit.MINUTES.toMillis(10));
+    InetAddress controller = InetAddress.getByName("10.0.0.5");
+    int total = 5000;
+    for (int i = 0; i < total; i++) {
+      byte[] message = bytes("STATUS: TSEQ:" + i);
+      recorder.recordInbound(controller, 3032, message, message.length, System.nanoTime());
+    }
+    assertEquals(total, recorder.getRecordedTotal());
+    int kept = recorder.getRecordCount();
+    assertTrue(kept > 0 && kept < total);
+
+    // Whatever survived is the newest run of records, in order
+    List<String> lines = dumpLines(recorder);
+    assertEquals(kept + 1, lines.size());
+    for (int i = 1; i < lines.size(); i++) {
+      assertTrue(lines.get(i).endsWith("TSEQ:" + (total - kept + i - 1)), lines.get(i));
+    }
+  }
+
+  // The dump streams from the live ring: records overwritten under it are skipped,
+  // and every line written is whole and in order
+  @Test
+  public void testDumpWhileRecording() throws Exception {
+    DatagramRecorder recorder = new DatagramRecorder(CAPACITY, TimeUnit.MINUTES.toMillis(10));
+    InetAddress controller = InetAddress.getByName("10.0.0.6");
+    for (int i = 0; i < 3000; i++) {
+      byte[] message = bytes("STATUS: TSEQ:" + i);
+      recorder.recordInbound(controller, 3032, message, message.length, System.nanoTime());
+    }
+    Thread writer = new Thread(() -> {
+      for (int i = 3000; i < 50_000; i++) {
+        byte[] message = bytes("STATUS: TSEQ:" + i);
+        recorder.recordInbound(controller, 3032, message, message.length, System.nanoTime());
+      }
+    });
+    writer.start();
+    List<String> lines = dumpLines(recorder);
+    writer.join();
+
+    assertTrue(lines.size() > 1);
+    long previous = -1;
+    for (int i = 1; i < lines.size(); i++) {
+      String line = lines.get(i);
+      assertTrue(line.contains(" IN  10.0.0.6:3032 "), line);
+      long sequence = Long.parseLong(line.substring(line.indexOf("TSEQ:") + 5));
+      assertTrue(sequence > previous, line);
+      previous = sequence;
+    }
+  }
+
+  @Test
+  public void testRecordsOutsideRetentionAreNotDumped() throws Exception {
+    DatagramRecorder recorder = new DatagramRecorder(CAPACITY, TimeUnit.MINUTES.toMillis(1));
+    InetAddress controller = InetAddress.getByName("10.0.0.5");
+    byte[] message = bytes("heartbeat");
+    recorder.recordOutbound(controller, 3031, message, message.length, System.nanoTime()
+        - TimeUnit.MINUTES.toNanos(2));
+    recorder.recordOutbound(controller, 3031, message, message.length, System.nanoTime());
+
+    assertEquals(2, recorder.getRecordCount());
+    assertEquals(2, dumpLines(recorder).size());
+  }
+}
@@ -0,0 +1,141 @@
+package mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class DuplicateFrameTest {
+  private static final String STATUS = "STATUS: MODE:AUTOMATIC|BRIDGE:CLOSED|GATE:OPEN|ROAD_DISTANCE:12"
+      + "|BOAT_DISTANCE:80|ROAD_LIGHT:GREEN|BOAT_LIGHT:RED|SEQUENCE:IDLE|QUEUE:0";
+
+  private static Fleet testFleet() {
+    TimerWheel wheel = new TimerWheel(TimeUnit.MILLISECONDS.toNanos(10), 64, "test-wheel");
+    wheel.stop();
+    return new Fleet(null, 9, false, wheel);
+  }
+
+  private static void send(Receive receive, InetAddress source, String message) {
+    byte[] data = message.getBytes(StandardCharsets.US_ASCII);
+    receive.handleFrame(source, data, data.length, System.nanoTime());
+  }
+
+  @Test
+  public void testIdenticalStatusIsDroppedBeforeParsing() throws Exception {
+    Fleet fleet = testFleet();
+    Receive receive = new Receive(0, null, fleet);
+    InetAddress source = InetAddress.getByName("127.1.0.1");
+    InetAddress other = InetAddress.getByName("127.1.0.2");
+    try {
+      send(receive, source, STATUS);
+      BridgeEndpoint endpoint = fleet.endpointFor(source);
+      BridgeStatus first = endpoint.getLatestStatus();
+      for (int i = 0; i < 10; i++) {
+        send(receive, source, STATUS);
+      }
+      assertSame(first, endpoint.getLatestStatus());
+      assertEquals(10, receive.getDuplicateFrames());
+      assertEquals(11, endpoint.getPacketsReceived());
+      assertEquals(LivenessMonitor.State.HEALTHY, endpoint.getLivenessMonitor().getState());
+
+      // Tracked per source
+      send(receive, other, STATUS);
+      assertEquals(10, receive.getDuplicateFrames());
+
+      // Other messages are never suppressed
+      send(receive, source, "ACK:SEQ:1");
+      send(receive, source, "ACK:SEQ:1");
+      assertEquals(10, receive.getDuplicateFrames());
+
+      send(receive, source, STATUS.replace("CLOSED", "OPEN"));
+      assertEquals("OPEN", endpoint.getLatestStatus().get(BridgeStatus.Field.BRIDGE));
+    } finally {
+      fleet.stop();
+    }
+  }
+
+  // A delta changed the state, so a repeat of the earlier full STATUS is a real change back
+  @Test
+  public void testRepeatAfterDeltaIsApplied() throws Exception {
+    Fleet fleet = testFleet();
+    Receive receive = new Receive(0, null, fleet);
+    InetAddress source = InetAddress.getByName("127.1.0.3");
+    String full = STATUS.replace("STATUS: ", "STATUS: TSEQ:1|");
+    try {
+      send(receive, source, full);
+      send(receive, source, "STATUS_DELTA: TSEQ:2|BASE:1|ROAD_DISTANCE:40");
+      BridgeEndpoint endpoint = fleet.endpointFor(source);
+      assertEquals("40", endpoint.getLatestStatus().get(BridgeStatus.Field.ROAD_DISTANCE));
+
+      // Same bytes as the last full STATUS, including its sequence number - still not dropped as a
+      // duplicate, and then rejected as stale by the sequence check instead
+      BridgeStatus beforeRepeat = endpoint.getLatestStatus();
+      send(receive, source, full);
+      assertEquals(0, receive.getDuplicateFrames());
+      assertEquals(1, receive.getOutOfSequenceDatagrams());
+      assertSame(beforeRepeat, endpoint.getLatestStatus());
+
+      send(receive, source, full.replace("TSEQ:1", "TSEQ:3"));
+      assertNotSame(beforeRepeat, endpoint.getLatestStatus());
+      assertEquals("12", endpoint.getLatestStatus().get(BridgeStatus.Field.ROAD_DISTANCE));
+    } finally {
+      fleet.stop();
+    }
+  }
+
+  // A frame that wasn't applied must not hide its repeats
+  @Test
+  public void testMalformedRepeatIsRejectedEveryTime() throws Exception {
+    Fleet fleet = testFleet();
+    Receive receive = new Receive(0, null, fleet);
+    InetAddress source = InetAddress.getByName("127.1.0.5");
+    byte[] truncated = { BridgeStatus.BINARY_MAGIC, 1 };
+    try {
+      send(receive, source, STATUS);
+      BridgeStatus applied = fleet.endpointFor(source).getLatestStatus();
+      for (int i = 0; i < 3; i++) {
+        receive.handleFrame(source, truncated, truncated.length, System.nanoTime());
+        send(receive, source, "STATUS: BRIDGE:CLOSED|GATE:OPEN");
+      }
+      assertEquals(0, receive.getDuplicateFrames());
+      assertEquals(3, receive.getMalformedFrames());
+      assertSame(applied, fleet.endpointFor(source).getLatestStatus());
+
+      String changed = STATUS.replace("CLOSED", "OPEN");
+      send(receive, source, changed);
+      send(receive, source, changed);
+      assertEquals(1, receive.getDuplicateFrames());
+    } finally {
+      fleet.stop();
+    }
+  }
+
+  @Test
+  public void testIdleStreamBenchmark() throws Exception {
+    Fleet fleet = testFleet();
+    Receive receive = new Receive(0, null, fleet);
+    InetAddress source = InetAddress.getByName("127.1.0.4");
+    byte[] data = STATUS.getBytes(StandardCharsets.US_ASCII);
+    try {
+      int iterations = 200_000;
+      long start = 0;
+      for (int round = 0; round < 2; round++) {
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+          receive.handleFrame(source, data, data.length, System.nanoTime());
+        }
+      }
+      double nanosPerFrame = (System.nanoTime() - start) / (double) iterations;
+      System.out.printf("Idle STATUS stream: %.0f ns/frame with duplicate suppression%n", nanosPerFrame);
+      assertTrue(receive.getDuplicateFrames() >= 2 * iterations - 1);
+    } finally {
+      fleet.stop();
+    }
+  }
+}
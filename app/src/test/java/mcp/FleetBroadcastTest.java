@@ -0,0 +1,53 @@
+package mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class FleetBroadcastTest {
+
+  @Test
+  public void testRepliesAreCollectedAndMissingBridgesTimeOut() throws Exception {
+    // Bridges' own timers never tick; the broadcast deadline runs on its own wheel
+    TimerWheel bridgeWheel = new TimerWheel(TimeUnit.MILLISECONDS.toNanos(10), 64, "test-wheel");
+    bridgeWheel.stop();
+    TimerWheel deadlineWheel = new TimerWheel(TimeUnit.MILLISECONDS.toNanos(5), 64, "deadline-wheel");
+    Fleet fleet = new Fleet(null, 9, false, bridgeWheel);
+    Receive receive = new Receive(0, null, fleet);
+    try {
+      List<InetAddress> sources = new ArrayList<>();
+      List<BridgeEndpoint> targets = new ArrayList<>();
+      for (int i = 1; i <= 3; i++) {
+        InetAddress source = InetAddress.getByAddress(new byte[] { 127, 3, 0, (byte) i });
+        sources.add(source);
+        targets.add(fleet.register(source));
+      }
+
+      CompletableFuture<FleetBroadcast.Report> pending = new FleetBroadcast(deadlineWheel)
+          .broadcast("road_lights_red", targets, 200, TimeUnit.MILLISECONDS);
+      receive.handleDatagram(sources.get(0), "COMMAND_EXECUTION: road_lights_red", System.nanoTime());
+      receive.handleDatagram(sources.get(1), "COMMAND_EXECUTION: road_lights_red", System.nanoTime());
+      // Unrelated replies don't count
+      receive.handleDatagram(sources.get(2), "COMMAND_EXECUTION: boat_lights_red", System.nanoTime());
+
+      FleetBroadcast.Report report = pending.get(2, TimeUnit.SECONDS);
+      assertEquals(3, report.results.size());
+      assertEquals(2, report.count(FleetBroadcast.Outcome.EXECUTED));
+      assertEquals(1, report.count(FleetBroadcast.Outcome.TIMED_OUT));
+      assertEquals(FleetBroadcast.Outcome.TIMED_OUT, report.results.get(2).outcome);
+      assertEquals(2, report.latencies.getCount());
+      assertTrue(report.elapsedNanos >= TimeUnit.MILLISECONDS.toNanos(200));
+      assertTrue(report.formatSummary().startsWith("road_lights_red: 2/3 executed, 1 timed out"));
+    } finally {
+      fleet.stop();
+      deadlineWheel.stop();
+    }
+  }
+}
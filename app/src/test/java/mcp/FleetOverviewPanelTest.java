@@ -0,0 +1,105 @@
+package mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Graphics2D;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class FleetOverviewPanelTest {
+  private static final String STATUS = "STATUS: MODE:AUTOMATIC|BRIDGE:CLOSED|GATE:OPEN|ROAD_LIGHT:GREEN"
+      + "|BOAT_LIGHT:RED";
+
+  @Test
+  public void testTwoHundredTilesRepaintOnlyOnChange() throws Exception {
+    TimerWheel wheel = new TimerWheel(TimeUnit.MILLISECONDS.toNanos(10), 64, "test-wheel");
+    wheel.stop();
+    Fleet fleet = new Fleet(null, 9, false, wheel);
+    Receive receive = new Receive(0, null, fleet);
+    try {
+      InetAddress[] sources = new InetAddress[200];
+      for (int i = 0; i < sources.length; i++) {
+        sources[i] = InetAddress.getByAddress(new byte[] { 127, 2, (byte) (i >> 8), (byte) i });
+        receive.handleDatagram(sources[i], STATUS, System.nanoTime());
+      }
+
+      FleetOverviewPanel panel = new FleetOverviewPanel(fleet, endpoint -> {
+      });
+      panel.setBounds(0, 0, 1600, 1000);
+      assertEquals(200, panel.refreshTiles());
+
+      // Repeated identical STATUS must not re-render anything
+      for (InetAddress source : sources) {
+        receive.handleDatagram(source, STATUS, System.nanoTime());
+      }
+      assertEquals(0, panel.refreshTiles());
+
+      receive.handleDatagram(sources[7], STATUS.replace("CLOSED", "OPEN"), System.nanoTime());
+      assertEquals(1, panel.refreshTiles());
+      assertEquals(201, panel.getTileRenders());
+
+      // Painting a full screen of tiles must fit comfortably in a 60 fps frame
+      BufferedImage frame = new BufferedImage(1600, 1000, BufferedImage.TYPE_INT_RGB);
+      int frames = 120;
+      long start = 0;
+      for (int i = -20; i < frames; i++) {
+        if (i == 0) {
+          start = System.nanoTime();
+        }
+        Graphics2D g2d = frame.createGraphics();
+        g2d.setClip(0, 0, 1600, 1000);
+        panel.paint(g2d);
+        g2d.dispose();
+      }
+      double frameMillis = (System.nanoTime() - start) / 1_000_000.0 / frames;
+      System.out.printf("Fleet overview: screen of 200-tile grid painted in %.2f ms per frame%n", frameMillis);
+      assertTrue(frameMillis < 16.0, "Grid paint took " + frameMillis + " ms");
+    } finally {
+      fleet.stop();
+    }
+  }
+
+  // A replaced endpoint loses its tile, so it can no longer be clicked
+  @Test
+  public void testTilesFollowFleetChanges() throws Exception {
+    TimerWheel wheel = new TimerWheel(TimeUnit.MILLISECONDS.toNanos(10), 64, "test-wheel");
+    wheel.stop();
+    Fleet fleet = new Fleet(null, 9, false, wheel);
+    Receive receive = new Receive(0, null, fleet);
+    try {
+      InetAddress[] sources = new InetAddress[3];
+      for (int i = 0; i < sources.length; i++) {
+        sources[i] = InetAddress.getByAddress(new byte[] { 127, 4, 0, (byte) (i + 1) });
+        receive.handleDatagram(sources[i], STATUS, System.nanoTime());
+      }
+      List<BridgeEndpoint> clicked = new ArrayList<>();
+      FleetOverviewPanel panel = new FleetOverviewPanel(fleet, clicked::add);
+      panel.setBounds(0, 0, 1600, 1000);
+      assertEquals(3, panel.refreshTiles());
+      assertEquals(0, panel.refreshTiles());
+
+      BridgeEndpoint replaced = fleet.endpointFor(sources[1]);
+      BridgeEndpoint replacement = fleet.addDisplayedEndpoint(sources[1].getHostAddress());
+      assertEquals(3, fleet.size());
+      assertEquals(1, panel.refreshTiles());
+
+      for (int i = 0; i < 4; i++) {
+        int x = FleetOverviewPanel.TILE_WIDTH / 2 + i * (FleetOverviewPanel.TILE_WIDTH + 8);
+        panel.dispatchEvent(new MouseEvent(panel, MouseEvent.MOUSE_CLICKED, 0, 0, x, 40, 1, false));
+      }
+      assertEquals(3, clicked.size());
+      assertTrue(clicked.contains(replacement));
+      assertFalse(clicked.contains(replaced));
+    } finally {
+      fleet.stop();
+    }
+  }
+}
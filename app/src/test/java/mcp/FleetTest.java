@@ -0,0 +1,159 @@
+package mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class FleetTest {
+  private static final String STATUS = "STATUS: MODE:AUTOMATIC|BRIDGE:CLOSED|GATE:OPEN|ROAD_DISTANCE:12"
+      + "|BOAT_DISTANCE:80|ROAD_LIGHT:GREEN|BOAT_LIGHT:RED|SEQUENCE:IDLE|QUEUE:0";
+
+  // A wheel that never ticks, so simulated bridges don't send heartbeats
+  private static TimerWheel stoppedWheel() {
+    TimerWheel wheel = new TimerWheel(TimeUnit.MILLISECONDS.toNanos(10), 64, "test-wheel");
+    wheel.stop();
+    return wheel;
+  }
+
+  private static InetAddress simulatedBridge(int index) throws Exception {
+    return InetAddress.getByAddress(new byte[] { 127, 1, (byte) (index >> 8), (byte) index });
+  }
+
+  @Test
+  public void testStatusParse() {
+    BridgeStatus status = BridgeStatus.parse(STATUS, 42);
+    assertEquals("AUTOMATIC", status.get(BridgeStatus.Field.MODE));
+    assertEquals("12", status.get(BridgeStatus.Field.ROAD_DISTANCE));
+    assertEquals("OFF", status.get(BridgeStatus.Field.BRIDGE_LIGHT));
+    assertEquals(9, status.getPartCount());
+    assertEquals(42, status.getReceivedNanos());
+    assertNull(BridgeStatus.parse("STATUS: nothing", 0));
+  }
+
+  @Test
+  public void testStatesResolvedToEnums() {
+    BridgeStatus status = BridgeStatus.parse(STATUS + "|BRIDGE_LIGHT:ON|MANUAL_BRIDGE_LIGHTS:Yes", 0);
+    assertSame(BridgeStatus.Mode.AUTOMATIC, status.getMode());
+    assertSame(BridgeStatus.Position.CLOSED, status.getBridgeState());
+    assertSame(BridgeStatus.Position.OPEN, status.getGateState());
+    assertSame(BridgeStatus.Light.GREEN, status.getRoadLight());
+    assertSame(BridgeStatus.SequenceState.IDLE, status.getSequenceState());
+    assertTrue(status.getSequenceState().isSteady());
+    assertTrue(status.isBridgeLightOn());
+    assertTrue(status.isManualBridgeLights());
+
+    // Unknown values keep their text but resolve to UNKNOWN
+    BridgeStatus unknown = BridgeStatus.parse(STATUS.replace("IDLE", "WAITING_FOR_TIDE"), 0);
+    assertSame(BridgeStatus.SequenceState.UNKNOWN, unknown.getSequenceState());
+    assertEquals("WAITING_FOR_TIDE", unknown.get(BridgeStatus.Field.SEQUENCE));
+    assertSame(BridgeStatus.Mode.UNKNOWN, BridgeStatus.parse("STATUS: MODE:", 0).getMode());
+  }
+
+  @Test
+  public void testControllersKeepIndependentState() throws Exception {
+    Fleet fleet = new Fleet(null, 9, false, stoppedWheel());
+    Receive receive = new Receive(0, null, fleet);
+    try {
+      receive.handleDatagram(simulatedBridge(1), STATUS, System.nanoTime());
+      receive.handleDatagram(simulatedBridge(2), STATUS.replace("CLOSED", "OPEN"), System.nanoTime());
+      receive.handleDatagram(simulatedBridge(2), "ACK:SEQ:1", System.nanoTime());
+
+      BridgeEndpoint first = fleet.endpointFor(simulatedBridge(1));
+      BridgeEndpoint second = fleet.endpointFor(simulatedBridge(2));
+      assertEquals(2, fleet.size());
+      assertNotSame(first, second);
+      assertNotSame(first.getOutboundScheduler(), second.getOutboundScheduler());
+      assertSame(first, fleet.endpointFor(simulatedBridge(1)));
+      assertEquals("CLOSED", first.getLatestStatus().get(BridgeStatus.Field.BRIDGE));
+      assertEquals("OPEN", second.getLatestStatus().get(BridgeStatus.Field.BRIDGE));
+      assertEquals(1, first.getPacketsReceived());
+      assertEquals(2, second.getPacketsReceived());
+      assertEquals(LivenessMonitor.State.HEALTHY, first.getLivenessMonitor().getState());
+    } finally {
+      fleet.stop();
+    }
+  }
+
+  // Stray or spoofed traffic must not make the console start sending to its source
+  @Test
+  public void testOnlyValidStatusRegistersController() throws Exception {
+    try (DatagramSocket controller = new DatagramSocket(0, InetAddress.getLoopbackAddress())) {
+      controller.setSoTimeout(300);
+      Fleet fleet = new Fleet(null, controller.getLocalPort(), false, stoppedWheel());
+      // A registered controller is asked for binary telemetry straight away
+      fleet.setBinaryTelemetry(true);
+      Receive receive = new Receive(0, null, fleet);
+      InetAddress source = InetAddress.getLoopbackAddress();
+      DatagramPacket packet = new DatagramPacket(new byte[256], 256);
+      try {
+        receive.handleDatagram(source, "INFO: hello", System.nanoTime());
+        receive.handleDatagram(source, "STATUS: nothing", System.nanoTime());
+        byte[] truncated = { BridgeStatus.BINARY_MAGIC, 1 };
+        receive.handleFrame(source, truncated, truncated.length, System.nanoTime());
+        assertEquals(0, fleet.size());
+        assertEquals(3, receive.getUnknownSourceDatagrams());
+        try {
+          controller.receive(packet);
+          fail("Sent to an unregistered source: " + new String(packet.getData(), 0, packet.getLength()));
+        } catch (SocketTimeoutException expected) {
+          // Nothing sent
+        }
+
+        receive.handleDatagram(source, STATUS, System.nanoTime());
+        assertEquals(1, fleet.size());
+        controller.receive(packet);
+        assertEquals("telemetry_format:binary1", new String(packet.getData(), 0, packet.getLength()));
+      } finally {
+        fleet.stop();
+      }
+    }
+  }
+
+  // Per-packet cost should not grow with the number of controllers
+  @Test
+  public void testSimulatedFleetBenchmark() throws Exception {
+    double smallFleet = nanosPerPacket(4);
+    double largeFleet = nanosPerPacket(400);
+    System.out.printf("Fleet ingest: %.0f ns/packet with 4 bridges, %.0f ns/packet with 400 bridges%n",
+        smallFleet, largeFleet);
+    assertTrue(largeFleet < smallFleet * 5, "Per-packet cost grew with fleet size");
+  }
+
+  private static double nanosPerPacket(int bridges) throws Exception {
+    Fleet fleet = new Fleet(null, 9, false, stoppedWheel());
+    Receive receive = new Receive(0, null, fleet);
+    try {
+      InetAddress[] sources = new InetAddress[bridges];
+      for (int i = 0; i < bridges; i++) {
+        sources[i] = simulatedBridge(i);
+        receive.handleDatagram(sources[i], STATUS, System.nanoTime());
+      }
+
+      int packets = 200_000;
+      // Warm up, then measure
+      for (int i = 0; i < packets; i++) {
+        receive.handleDatagram(sources[i % bridges], STATUS, System.nanoTime());
+      }
+      long start = System.nanoTime();
+      for (int i = 0; i < packets; i++) {
+        receive.handleDatagram(sources[i % bridges], STATUS, System.nanoTime());
+      }
+      long elapsed = System.nanoTime() - start;
+      assertEquals(bridges, fleet.size());
+      return (double) elapsed / packets;
+    } finally {
+      fleet.stop();
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class FrameSchedulerTest {
+  private static final long FRAME = TimeUnit.MILLISECONDS.toNanos(FrameScheduler.FRAME_INTERVAL);
+
+  @Test
+  public void testTasksRunAtTheirOwnRateFromOneTick() {
+    FrameScheduler scheduler = new FrameScheduler(false);
+    int[] frames = new int[1];
+    int[] checks = new int[1];
+    scheduler.scheduleEveryFrame("animation", now -> {
+      frames[0]++;
+      return true;
+    });
+    scheduler.schedule("check", now -> {
+      checks[0]++;
+      return true;
+    }, 100, TimeUnit.MILLISECONDS);
+
+    long now = System.nanoTime();
+    for (int i = 0; i < 60; i++) {
+      now += FRAME;
+      scheduler.tick(now);
+    }
+    assertEquals(60, frames[0]);
+    // 60 frames is 960 ms: one check roughly every 100 ms
+    assertTrue(checks[0] >= 9 && checks[0] <= 11, "checks: " + checks[0]);
+    assertEquals(60, scheduler.getTicks());
+  }
+
+  @Test
+  public void testPausedTaskResumes() {
+    FrameScheduler scheduler = new FrameScheduler(false);
+    int[] runs = new int[1];
+    FrameScheduler.Registration registration = scheduler.scheduleEveryFrame("notifications", now -> {
+      runs[0]++;
+      return false;
+    });
+
+    long now = System.nanoTime();
+    for (int i = 0; i < 5; i++) {
+      now += FRAME;
+      scheduler.tick(now);
+    }
+    assertEquals(1, runs[0]);
+    assertFalse(registration.isActive());
+    assertEquals(1, registration.getCost().getCount());
+
+    registration.resume();
+    scheduler.tick(now + FRAME);
+    assertEquals(2, runs[0]);
+
+    registration.cancel();
+    registration.resume();
+    scheduler.tick(now + 2 * FRAME);
+    assertEquals(2, runs[0]);
+  }
+
+  @Test
+  public void testFailingTaskIsPaused() {
+    FrameScheduler scheduler = new FrameScheduler(false);
+    FrameScheduler.Registration registration = scheduler.scheduleEveryFrame("broken", now -> {
+      throw new IllegalStateException("test");
+    });
+    scheduler.tick(System.nanoTime() + FRAME);
+    assertFalse(registration.isActive());
+    assertTrue(scheduler.formatSummary().startsWith("broken p50"));
+  }
+}
@@ -0,0 +1,96 @@
+package mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class HeartbeatTest {
+  private static TimerWheel newWheel() {
+    return new TimerWheel(TimeUnit.MILLISECONDS.toNanos(10), 64, "test-wheel");
+  }
+
+  private static MessageSender recordingTransport(List<String> sent) {
+    return message -> {
+      sent.add(message);
+      return CompletableFuture.completedFuture(null);
+    };
+  }
+
+  private static Heartbeat newHeartbeat(OutboundScheduler scheduler, TimerWheel wheel) {
+    Heartbeat heartbeat = new Heartbeat(scheduler, null, wheel);
+    heartbeat.setTimestamped(true);
+    return heartbeat;
+  }
+
+  // What the controller sends back for a heartbeat: HB: and T: as received, plus its own clock
+  private static String echo(String beat) {
+    return "HEARTBEAT_ACK:" + beat.substring("heartbeat|".length()) + "|CT:" + System.currentTimeMillis();
+  }
+
+  @Test
+  public void testEchoGivesRttSample() {
+    TimerWheel wheel = newWheel();
+    wheel.stop();
+    List<String> sent = new CopyOnWriteArrayList<>();
+    Heartbeat heartbeat = newHeartbeat(new OutboundScheduler(recordingTransport(sent), 5, 5.0, wheel), wheel);
+    heartbeat.sendBeat();
+    assertEquals(1, sent.size());
+    // Whatever the JVM's nanoTime origin, T: stays a plain unsigned number
+    assertTrue(Receive.parseLongValue(sent.get(0), "|T:") >= 0);
+
+    heartbeat.handleEcho(echo(sent.get(0)), System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(5));
+    LinkMetrics metrics = heartbeat.getLinkMetrics();
+    assertTrue(metrics.hasSample());
+    long rtt = metrics.getLastRttNanos();
+    assertTrue(rtt >= TimeUnit.MILLISECONDS.toNanos(5) && rtt < TimeUnit.MILLISECONDS.toNanos(50), "rtt: " + rtt);
+    assertEquals(1, metrics.getLastEchoedSequence());
+  }
+
+  // A beat held back by the scheduler's token bucket is timed from when it left
+  @Test
+  public void testRttExcludesSchedulerWait() throws Exception {
+    TimerWheel wheel = newWheel();
+    try {
+      List<String> sent = new CopyOnWriteArrayList<>();
+      OutboundScheduler scheduler = new OutboundScheduler(recordingTransport(sent), 1, 5.0, wheel);
+      Heartbeat heartbeat = newHeartbeat(scheduler, wheel);
+      scheduler.sendAsync("override_mode");
+      long queuedNanos = System.nanoTime();
+      heartbeat.sendBeat();
+      assertEquals(1, sent.size());
+
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+      while (sent.size() < 2 && System.nanoTime() < deadline) {
+        Thread.sleep(5);
+      }
+      assertEquals(2, sent.size());
+      long receivedNanos = System.nanoTime();
+      assertTrue(receivedNanos - queuedNanos >= TimeUnit.MILLISECONDS.toNanos(150));
+
+      heartbeat.handleEcho(echo(sent.get(1)), receivedNanos);
+      long rtt = heartbeat.getLinkMetrics().getLastRttNanos();
+      assertTrue(rtt >= 0 && rtt < TimeUnit.MILLISECONDS.toNanos(100), "rtt: " + rtt);
+    } finally {
+      wheel.stop();
+    }
+  }
+
+  @Test
+  public void testEchoForUnsentOrMalformedBeatIgnored() {
+    TimerWheel wheel = newWheel();
+    wheel.stop();
+    MessageSender transport = recordingTransport(new CopyOnWriteArrayList<>());
+    Heartbeat heartbeat = newHeartbeat(new OutboundScheduler(transport, 5, 5.0, wheel), wheel);
+    heartbeat.handleEcho(echo(Heartbeat.beatMessage(1, System.nanoTime())), System.nanoTime());
+    heartbeat.handleEcho("HEARTBEAT_ACK:HB:1|T:-5|CT:42", System.nanoTime());
+    heartbeat.handleEcho("HEARTBEAT_ACK:HB:2|CT:42", System.nanoTime());
+    assertFalse(heartbeat.getLinkMetrics().hasSample());
+  }
+}
@@ -0,0 +1,109 @@
+package mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class IngestLanesTest {
+  private static final String STATUS = "STATUS: MODE:AUTOMATIC|BRIDGE:CLOSED|TSEQ:%d";
+
+  private static boolean offer(IngestLanes lanes, String message) {
+    IngestLanes.Frame frame = lanes.acquire();
+    byte[] data = message.getBytes(StandardCharsets.US_ASCII);
+    System.arraycopy(data, 0, frame.data, 0, data.length);
+    frame.length = data.length;
+    frame.receivedNanos = System.nanoTime();
+    return lanes.offer(frame);
+  }
+
+  private static String next(IngestLanes lanes) throws InterruptedException {
+    IngestLanes.Frame frame = lanes.poll(0, TimeUnit.MILLISECONDS);
+    if (frame == null) {
+      return null;
+    }
+    String message = new String(frame.data, 0, frame.length, StandardCharsets.US_ASCII);
+    lanes.release(frame);
+    return message;
+  }
+
+  private static IngestLanes.Lane classify(String message) {
+    byte[] data = message.getBytes(StandardCharsets.US_ASCII);
+    return IngestLanes.classify(data, data.length);
+  }
+
+  @Test
+  public void testClassification() {
+    assertEquals(IngestLanes.Lane.TELEMETRY, classify("STATUS: MODE:AUTOMATIC"));
+    assertEquals(IngestLanes.Lane.TELEMETRY, classify("STATUS_DELTA: BASE:4|TSEQ:5|GATE:OPEN"));
+    assertEquals(IngestLanes.Lane.TELEMETRY, IngestLanes.classify(new byte[] { BridgeStatus.BINARY_MAGIC, 1 }, 2));
+    assertEquals(IngestLanes.Lane.CRITICAL, classify("ERROR: bridge_opening_failed"));
+    assertEquals(IngestLanes.Lane.CRITICAL, classify("ERROR : override_denied_traffic_present"));
+    assertEquals(IngestLanes.Lane.CRITICAL, classify("MODE_CHANGE: OVERRIDE"));
+    assertEquals(IngestLanes.Lane.CRITICAL, classify("SYSTEM_UPDATE: restarting"));
+    assertEquals(IngestLanes.Lane.CRITICAL, classify("ACK:SEQ:3"));
+    assertEquals(IngestLanes.Lane.ROUTINE, classify("HEARTBEAT_ACK:HB:1|T:5|CT:9"));
+    assertEquals(IngestLanes.Lane.ROUTINE, classify("WEIGHT_CHECK: 12"));
+    assertEquals(IngestLanes.Lane.ROUTINE, classify("STATUSX"));
+  }
+
+  @Test
+  public void testErrorsOvertakeQueuedStatus() throws Exception {
+    IngestLanes lanes = new IngestLanes(64);
+    for (int i = 0; i < 20; i++) {
+      offer(lanes, String.format(STATUS, i));
+    }
+    offer(lanes, "INFO: bridge_ready");
+    offer(lanes, "ERROR: bridge_opening_failed");
+
+    assertEquals("ERROR: bridge_opening_failed", next(lanes));
+    assertEquals("INFO: bridge_ready", next(lanes));
+    for (int i = 0; i < 20; i++) {
+      assertEquals(String.format(STATUS, i), next(lanes));
+    }
+    assertNull(next(lanes));
+    assertEquals(1, lanes.getQueueDelay(IngestLanes.Lane.CRITICAL).getCount());
+    assertEquals(20, lanes.getQueueDelay(IngestLanes.Lane.TELEMETRY).getCount());
+  }
+
+  @Test
+  public void testOldestStatusIsShedFirst() throws Exception {
+    IngestLanes lanes = new IngestLanes(4);
+    offer(lanes, "ERROR: bridge_unknown_state");
+    for (int i = 0; i < 3; i++) {
+      assertTrue(offer(lanes, String.format(STATUS, i)));
+    }
+    // Full: each new datagram pushes out the oldest STATUS
+    assertFalse(offer(lanes, String.format(STATUS, 3)));
+    assertFalse(offer(lanes, "WARNING: command_queue_full|SIZE:5"));
+    assertEquals(2, lanes.getShed(IngestLanes.Lane.TELEMETRY));
+
+    assertEquals("ERROR: bridge_unknown_state", next(lanes));
+    assertEquals("WARNING: command_queue_full|SIZE:5", next(lanes));
+    assertEquals(String.format(STATUS, 2), next(lanes));
+    assertEquals(String.format(STATUS, 3), next(lanes));
+
+    // With only alarms queued, a STATUS is the one dropped
+    IngestLanes alarms = new IngestLanes(2);
+    offer(alarms, "ERROR: mode_change_timeout");
+    offer(alarms, "ERROR: bridge_closing_failed");
+    assertFalse(offer(alarms, String.format(STATUS, 0)));
+    assertEquals(1, alarms.getShed(IngestLanes.Lane.TELEMETRY));
+    assertEquals(0, alarms.getShed(IngestLanes.Lane.CRITICAL));
+  }
+
+  @Test
+  public void testFramesAreRecycled() throws Exception {
+    IngestLanes lanes = new IngestLanes(16);
+    for (int i = 0; i < 1000; i++) {
+      offer(lanes, String.format(STATUS, i));
+      next(lanes);
+    }
+    assertEquals(1, lanes.getAllocatedFrames());
+  }
+}
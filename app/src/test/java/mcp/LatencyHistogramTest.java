@@ -0,0 +1,57 @@
+package mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+  @Test
+  public void testEmptyHistogram() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getPercentile(50));
+    assertEquals(0, histogram.getPercentile(99));
+  }
+
+  @Test
+  public void testBucketBoundsAreContiguous() {
+    // Every value must land in a bucket whose upper bound is at or above it
+    long[] samples = { 0, 1, 31, 32, 33, 63, 64, 65, 1000, 123_456, 1_000_000_000L, Long.MAX_VALUE / 2 };
+    for (long value : samples) {
+      int index = LatencyHistogram.bucketIndex(value);
+      assertTrue(LatencyHistogram.bucketUpperBound(index) >= value, "Upper bound too small for " + value);
+      if (index > 0) {
+        assertTrue(LatencyHistogram.bucketUpperBound(index - 1) < value, "Value in wrong bucket: " + value);
+      }
+    }
+  }
+
+  @Test
+  public void testPercentilesWithinPrecision() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    // 1..1000 microseconds
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i * 1000L);
+    }
+
+    assertEquals(1000, histogram.getCount());
+    assertEquals(1_000_000, histogram.getMax());
+
+    long p50 = histogram.getPercentile(50);
+    long p99 = histogram.getPercentile(99);
+    assertTrue(Math.abs(p50 - 500_000) <= 500_000 * 0.04, "p50 was " + p50);
+    assertTrue(Math.abs(p99 - 990_000) <= 990_000 * 0.04, "p99 was " + p99);
+    assertEquals(1_000_000, histogram.getPercentile(100));
+  }
+
+  @Test
+  public void testReset() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(5_000);
+    histogram.reset();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getMax());
+  }
+}
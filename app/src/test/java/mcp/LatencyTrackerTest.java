@@ -0,0 +1,52 @@
+package mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyTrackerTest {
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  @Test
+  public void testSummaryIsRebuiltOnceASecond() {
+    FrameScheduler scheduler = new FrameScheduler(false);
+    LatencyTracker tracker = new LatencyTracker(scheduler);
+    long now = System.nanoTime();
+    scheduler.tick(now);
+
+    tracker.record(LatencyTracker.Stage.END_TO_END, 1, 1 + TimeUnit.MILLISECONDS.toNanos(4));
+    String[] before = tracker.getRecentSummary();
+    // Not re-formatted between rolls, so painting reuses the same text
+    scheduler.tick(now + SECOND / 2);
+    assertSame(before, tracker.getRecentSummary());
+
+    scheduler.tick(now + SECOND);
+    String[] summary = tracker.getRecentSummary();
+    assertEquals(1, tracker.getRecentCount());
+    assertEquals("Display latency, last 10 s (n=1)", summary[0]);
+    assertTrue(summary[4].startsWith("Total p50   4.0"), summary[4]);
+  }
+
+  // Old samples leave the window; the totals since startup keep them
+  @Test
+  public void testWindowForgetsOldLatency() {
+    LatencyTracker tracker = new LatencyTracker(new FrameScheduler(false));
+    for (int i = 0; i < 100; i++) {
+      tracker.record(LatencyTracker.Stage.END_TO_END, 1, 1 + TimeUnit.MILLISECONDS.toNanos(200));
+    }
+    tracker.rollWindow();
+    for (int second = 0; second < LatencyTracker.WINDOW_SECONDS; second++) {
+      tracker.record(LatencyTracker.Stage.END_TO_END, 1, 1 + TimeUnit.MILLISECONDS.toNanos(2));
+      tracker.rollWindow();
+    }
+
+    assertEquals(LatencyTracker.WINDOW_SECONDS, tracker.getRecentCount());
+    assertTrue(tracker.getRecentSummary()[4].contains("p99   2.0"), tracker.getRecentSummary()[4]);
+    assertEquals(100 + LatencyTracker.WINDOW_SECONDS,
+        tracker.getHistogram(LatencyTracker.Stage.END_TO_END).getCount());
+  }
+}
@@ -0,0 +1,40 @@
+package mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class LinkMetricsTest {
+
+  @Test
+  public void testOffsetUsesLowestRttSample() {
+    LinkMetrics metrics = new LinkMetrics();
+    // Controller clock is 5000 ns ahead; first echo was delayed 400 ns on the way back only
+    assertTrue(metrics.addEcho(1, 0, 5000 + 50, 500));
+    assertTrue(metrics.addEcho(2, 1000, 1000 + 5000 + 50, 1100));
+
+    assertEquals(100, metrics.getLastRttNanos());
+    assertEquals(5000, metrics.getClockOffsetNanos());
+    assertTrue(metrics.getJitterNanos() > 0);
+  }
+
+  @Test
+  public void testDuplicateAndStaleEchoesIgnored() {
+    LinkMetrics metrics = new LinkMetrics();
+    assertTrue(metrics.addEcho(5, 0, 0, 100));
+    assertFalse(metrics.addEcho(5, 0, 0, 100));
+    assertFalse(metrics.addEcho(4, 0, 0, 100));
+    assertEquals(1, metrics.getEchoesReceived());
+  }
+
+  @Test
+  public void testParseEchoFields() {
+    String echo = "HEARTBEAT_ACK:HB:7|T:123456789|CT:42";
+    assertEquals(7, Receive.parseLongValue(echo, "HB:"));
+    assertEquals(123456789, Receive.parseLongValue(echo, "|T:"));
+    assertEquals(42, Receive.parseLongValue(echo, "|CT:"));
+    assertEquals(-1, Receive.parseLongValue(echo, "|X:"));
+  }
+}
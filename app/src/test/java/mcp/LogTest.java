@@ -0,0 +1,89 @@
+package mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class LogTest {
+  // Runs body with System.out captured and returns what the writer printed
+  private static String captureOutput(Runnable body) {
+    PrintStream original = System.out;
+    ByteArrayOutputStream captured = new ByteArrayOutputStream();
+    Log.flush();
+    System.setOut(new PrintStream(captured, true));
+    try {
+      body.run();
+      Log.flush();
+    } finally {
+      System.setOut(original);
+    }
+    return captured.toString();
+  }
+
+  private static int count(String text, String fragment) {
+    int count = 0;
+    for (int index = text.indexOf(fragment); index != -1; index = text.indexOf(fragment, index + 1)) {
+      count++;
+    }
+    return count;
+  }
+
+  @Test
+  public void testDebugMessagesAreNotBuiltBelowLevel() {
+    AtomicInteger built = new AtomicInteger();
+    Log.setLevel(Log.Level.INFO);
+    try {
+      String output = captureOutput(() -> {
+        Log.debug(() -> "hidden " + built.incrementAndGet());
+        Log.info("log-test visible");
+      });
+      assertEquals(0, built.get());
+      assertFalse(output.contains("hidden"));
+      assertTrue(output.contains("INFO  log-test visible"));
+
+      Log.setLevel(Log.Level.DEBUG);
+      output = captureOutput(() -> Log.debug(() -> "log-test shown " + built.incrementAndGet()));
+      assertEquals(1, built.get());
+      assertTrue(output.contains("DEBUG log-test shown 1"));
+    } finally {
+      Log.setLevel(Log.Level.INFO);
+    }
+  }
+
+  @Test
+  public void testRepeatedMessagesAreSuppressed() {
+    String output = captureOutput(() -> {
+      for (int i = 0; i < 50; i++) {
+        Log.warn("log-test repeated warning");
+      }
+      Log.warn("log-test other warning");
+    });
+    assertEquals(1, count(output, "log-test repeated warning"));
+    assertEquals(1, count(output, "log-test other warning"));
+  }
+
+  @Test
+  public void testDisabledDebugBenchmark() {
+    Log.setLevel(Log.Level.INFO);
+    String status = "STATUS: MODE:AUTOMATIC|BRIDGE:CLOSED";
+    int iterations = 10_000_000;
+    long start = 0;
+    for (int round = 0; round < 2; round++) {
+      start = System.nanoTime();
+      for (int i = 0; i < iterations; i++) {
+        if (Log.isDebugEnabled()) {
+          Log.debug("Received from ESP32: " + status + i);
+        }
+      }
+    }
+    double nanosPerCall = (System.nanoTime() - start) / (double) iterations;
+    System.out.printf("Disabled DEBUG log call: %.2f ns%n", nanosPerCall);
+    assertTrue(nanosPerCall < 50);
+  }
+}
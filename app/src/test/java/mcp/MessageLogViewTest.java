@@ -0,0 +1,89 @@
+package mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import org.junit.jupiter.api.Test;
+
+public class MessageLogViewTest {
+  private static final String STATUS = "12:00:00 - RECEIVED: STATUS:MODE:AUTO|BRIDGE:CLOSED|GATE:OPEN|"
+      + "MANUAL_BRIDGE_LIGHTS:NO|ROAD_LIGHT:GREEN|BOAT_LIGHT:RED|STATE:IDLE|ROAD_DISTANCE:12|BOAT_DISTANCE:40";
+
+  private static MessageLogView newView(int width, int height) {
+    MessageLogView view = new MessageLogView();
+    view.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+    view.setSize(width, height);
+    return view;
+  }
+
+  private static void paint(MessageLogView view) {
+    BufferedImage image = new BufferedImage(view.getWidth(), view.getHeight(), BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    view.paint(g);
+    g.dispose();
+  }
+
+  @Test
+  public void testWrapsToTheCurrentWidth() {
+    MessageLogView view = newView(2000, 200);
+    view.append("12:00:00 - INFO: Full system test sequence initiated - please standby", Color.BLUE);
+    assertEquals(1, view.getLineCount(0));
+
+    int charWidth = view.getFontMetrics(view.getFont()).charWidth('0');
+    view.setSize(charWidth * 30, 200);
+    assertTrue(view.getLineCount(0) >= 3);
+    // Broken at spaces, and continuation lines don't start with one
+    assertEquals("12:00:00 - INFO: Full system", view.getLine(0, 0));
+    assertEquals("test sequence initiated -", view.getLine(0, 1));
+  }
+
+  @Test
+  public void testStatusBreaksAfterManualLights() {
+    MessageLogView view = newView(4000, 200);
+    view.append(STATUS, Color.BLUE);
+    assertEquals(2, view.getLineCount(0));
+    assertTrue(view.getLine(0, 0).endsWith("MANUAL_BRIDGE_LIGHTS:NO"));
+    assertTrue(view.getLine(0, 1).startsWith("ROAD_LIGHT:GREEN"));
+    // The stored text is untouched
+    assertEquals(STATUS + "\n", view.getText());
+  }
+
+  @Test
+  public void testOnlyVisibleEntriesAreLaidOutAndCachedUntilResize() {
+    MessageLogView view = newView(600, 150);
+    for (int i = 0; i < 1000; i++) {
+      view.append(STATUS + " " + i, Color.BLUE);
+    }
+    paint(view);
+    long firstPaint = view.getLayoutsComputed();
+    assertTrue(firstPaint > 0 && firstPaint < 20, "layouts: " + firstPaint);
+
+    paint(view);
+    assertEquals(firstPaint, view.getLayoutsComputed());
+
+    view.setSize(400, 150);
+    paint(view);
+    assertTrue(view.getLayoutsComputed() > firstPaint);
+    assertTrue(view.getLayoutsComputed() < firstPaint * 3);
+  }
+
+  @Test
+  public void testNewestFirstAndOldestDropped() {
+    MessageLogView view = newView(600, 150);
+    for (int i = 0; i < MessageLogView.MAX_ENTRIES + 10; i++) {
+      view.append("entry " + i, Color.BLUE);
+    }
+    assertEquals(MessageLogView.MAX_ENTRIES, view.getEntryCount());
+    String text = view.getText();
+    assertTrue(text.startsWith("entry " + (MessageLogView.MAX_ENTRIES + 9) + "\n"));
+    assertTrue(text.endsWith("\nentry 10\n"));
+
+    view.clear();
+    assertEquals("", view.getText());
+  }
+}
@@ -0,0 +1,164 @@
+package mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class MulticastReceiveTest {
+  private static final String GROUP = "239.255.30.32";
+  private static final String STATUS = "STATUS: TSEQ:%d|MODE:AUTOMATIC|BRIDGE:CLOSED|GATE:OPEN|ROAD_DISTANCE:12"
+      + "|BOAT_DISTANCE:80|ROAD_LIGHT:GREEN|BOAT_LIGHT:RED|SEQUENCE:IDLE|QUEUE:0";
+
+  @Test
+  public void testSequenceTracking() {
+    SequenceTracker tracker = new SequenceTracker();
+    assertTrue(tracker.accept(1));
+    assertTrue(tracker.accept(2));
+    assertFalse(tracker.accept(2));
+    assertTrue(tracker.accept(6));
+    assertEquals(3, tracker.getLost());
+    // Reordered datagram arrives after a newer one - stale, but no longer lost
+    assertFalse(tracker.accept(4));
+    assertEquals(2, tracker.getLost());
+    assertEquals(1, tracker.getLate());
+    assertEquals(1, tracker.getDuplicates());
+    // Controller restarted its counter
+    assertTrue(tracker.accept(5000));
+    assertTrue(tracker.accept(0));
+    assertEquals(1, tracker.getRestarts());
+    assertEquals(5, tracker.getAccepted());
+  }
+
+  // A kernel that joins the first source-specifically, then turns out not to support it
+  @Test
+  public void testFallbackToAnySourceJoinKeepsEverySourceAllowed() throws Exception {
+    Set<InetAddress> sources = new LinkedHashSet<>();
+    for (String source : new String[] { "10.0.0.11", "10.0.0.12", "10.0.0.13" }) {
+      sources.add(InetAddress.getByName(source));
+    }
+    List<String> memberships = new ArrayList<>();
+    boolean sourceSpecific = Receive.joinSources(new Receive.MulticastMembership() {
+      @Override
+      public Runnable joinSource(InetAddress source) {
+        if (!memberships.isEmpty()) {
+          throw new UnsupportedOperationException();
+        }
+        memberships.add(source.getHostAddress());
+        return () -> memberships.remove(source.getHostAddress());
+      }
+
+      @Override
+      public void joinAnySource() {
+        memberships.add("any");
+      }
+    }, sources);
+
+    assertFalse(sourceSpecific);
+    // One any-source membership, with the source-specific one left again
+    assertEquals(List.of("any"), memberships);
+    assertEquals(3, sources.size());
+  }
+
+  @Test
+  public void testSourceSpecificJoinForEverySource() throws Exception {
+    Set<InetAddress> sources = new LinkedHashSet<>();
+    for (String source : new String[] { "10.0.0.11", "10.0.0.12", "10.0.0.13" }) {
+      sources.add(InetAddress.getByName(source));
+    }
+    List<String> memberships = new ArrayList<>();
+    assertTrue(Receive.joinSources(new Receive.MulticastMembership() {
+      @Override
+      public Runnable joinSource(InetAddress source) {
+        memberships.add(source.getHostAddress());
+        return () -> memberships.remove(source.getHostAddress());
+      }
+
+      @Override
+      public void joinAnySource() {
+        memberships.add("any");
+      }
+    }, sources));
+    assertEquals(List.of("10.0.0.11", "10.0.0.12", "10.0.0.13"), memberships);
+  }
+
+  // Sender and receiver on the same host over the loopback interface
+  @Test
+  public void testLoopbackMulticastWithSourceFilter() throws Exception {
+    NetworkInterface loopback = NetworkInterface.getByName("lo");
+    if (loopback == null) {
+      System.out.println("No loopback interface named lo - skipping multicast test");
+      return;
+    }
+    int port;
+    try (DatagramSocket probe = new DatagramSocket(0)) {
+      port = probe.getLocalPort();
+    }
+
+    TimerWheel wheel = new TimerWheel(TimeUnit.MILLISECONDS.toNanos(10), 64, "test-wheel");
+    wheel.stop();
+    Fleet fleet = new Fleet(null, 9, false, wheel);
+    Receive receive = new Receive(GROUP, port, "lo", new String[] { "127.0.0.1" }, null, fleet);
+    receive.start();
+    try (DatagramChannel allowed = sender("127.0.0.1", loopback);
+        DatagramChannel other = sender("127.0.0.2", loopback)) {
+      InetSocketAddress group = new InetSocketAddress(GROUP, port);
+      for (long sequence : new long[] { 1, 2, 2, 5, 3 }) {
+        send(allowed, group, String.format(STATUS, sequence));
+      }
+      send(other, group, String.format(STATUS, 1));
+      send(allowed, group, String.format(STATUS, 6));
+
+      InetAddress source = InetAddress.getByName("127.0.0.1");
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (System.nanoTime() < deadline
+          && (fleet.size() == 0 || fleet.endpointFor(source).getSequenceTracker().getHighest() < 6)) {
+        Thread.sleep(10);
+      }
+
+      SequenceTracker tracker = fleet.endpointFor(source).getSequenceTracker();
+      assertEquals(6, tracker.getHighest());
+      assertEquals(4, tracker.getAccepted());
+      // The repeated datagram is identical, so it's dropped before the sequence check
+      assertEquals(1, receive.getDuplicateFrames());
+      assertEquals(0, tracker.getDuplicates());
+      assertEquals(1, tracker.getLate());
+      assertEquals(1, tracker.getLost());
+      assertEquals(1, receive.getOutOfSequenceDatagrams());
+      // 127.0.0.2 is dropped by the kernel or by the source check, never becomes a bridge
+      assertEquals(1, fleet.size());
+    } finally {
+      receive.stopReceiving();
+      receive.join(1000);
+      fleet.stop();
+    }
+  }
+
+  private static DatagramChannel sender(String address, NetworkInterface loopback) throws Exception {
+    DatagramChannel channel = DatagramChannel.open(StandardProtocolFamily.INET);
+    channel.setOption(StandardSocketOptions.IP_MULTICAST_IF, loopback);
+    channel.setOption(StandardSocketOptions.IP_MULTICAST_LOOP, true);
+    channel.bind(new InetSocketAddress(address, 0));
+    return channel;
+  }
+
+  private static void send(DatagramChannel channel, InetSocketAddress group, String message) throws Exception {
+    channel.send(ByteBuffer.wrap(message.getBytes(StandardCharsets.UTF_8)), group);
+  }
+}
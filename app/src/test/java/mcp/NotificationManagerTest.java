@@ -0,0 +1,118 @@
+package mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class NotificationManagerTest {
+  private static final long FRAME = TimeUnit.MILLISECONDS.toNanos(FrameScheduler.FRAME_INTERVAL);
+
+  private static final class RecordingView implements NotificationManager.View {
+    final List<String> shown = new ArrayList<>();
+    double slide = 0;
+
+    @Override
+    public void show(String text, NotificationManager.Severity severity) {
+      shown.add(severity + " " + text);
+    }
+
+    @Override
+    public void setSlide(double visible) {
+      slide = visible;
+    }
+  }
+
+  // Ticks the clock from start for the given time, returning the new time
+  private static long run(NotificationManager manager, long start, long durationNanos) {
+    long now = start;
+    while (now - start < durationNanos) {
+      now += FRAME;
+      manager.tick(now);
+    }
+    return now;
+  }
+
+  private static long runUntilShown(NotificationManager manager, RecordingView view, long now, int count) {
+    while (view.shown.size() < count) {
+      now += FRAME;
+      manager.tick(now);
+    }
+    return now;
+  }
+
+  @Test
+  public void testRepeatsAreMergedIntoOneNotification() {
+    RecordingView view = new RecordingView();
+    NotificationManager manager = new NotificationManager(view, new FrameScheduler(false));
+    long now = System.nanoTime();
+
+    for (int i = 0; i < 20; i++) {
+      manager.post("Command queue full (5) - please wait", NotificationManager.Severity.WARNING);
+    }
+    assertEquals(1, manager.getPendingCount());
+    assertEquals(19, manager.getMergedCount());
+
+    now = run(manager, now, NotificationManager.SLIDE_NANOS + FRAME);
+    assertEquals(1.0, view.slide);
+    assertEquals("WARNING Command queue full (5) - please wait  (x20)", view.shown.get(0));
+
+    // Further copies while it's showing update the count in place
+    manager.post("Command queue full (5) - please wait", NotificationManager.Severity.WARNING);
+    run(manager, now, FRAME);
+    assertEquals(2, view.shown.size());
+    assertEquals("WARNING Command queue full (5) - please wait  (x21)", view.shown.get(1));
+  }
+
+  @Test
+  public void testMostSevereShownNextAfterMinimumDisplay() {
+    RecordingView view = new RecordingView();
+    NotificationManager manager = new NotificationManager(view, new FrameScheduler(false));
+    long now = System.nanoTime();
+
+    long firstShown = now;
+    manager.post("Mode change successful", NotificationManager.Severity.INFO);
+    now = run(manager, now, NotificationManager.SLIDE_NANOS + FRAME);
+    manager.post("Bridge system restarting", NotificationManager.Severity.INFO);
+    manager.post("Bridge failed to open", NotificationManager.Severity.ERROR);
+
+    // Not replaced before the minimum display time
+    now = run(manager, now, NotificationManager.MIN_DISPLAY_NANOS / 2);
+    assertEquals(1, view.shown.size());
+
+    now = runUntilShown(manager, view, now, 2);
+    assertEquals("ERROR Bridge failed to open", view.shown.get(1));
+    assertTrue(now - firstShown >= NotificationManager.MIN_DISPLAY_NANOS);
+    long errorShown = now;
+    now = runUntilShown(manager, view, now, 3);
+    assertEquals("INFO Bridge system restarting", view.shown.get(2));
+    assertTrue(now - errorShown >= NotificationManager.MIN_DISPLAY_NANOS);
+
+    // The last one stays up for the full display time, then the clock can stop
+    long lastShown = now;
+    while (view.slide > 0 || now == lastShown) {
+      now += FRAME;
+      manager.tick(now);
+    }
+    assertTrue(now - lastShown >= NotificationManager.DISPLAY_NANOS);
+    assertFalse(manager.tick(now + FRAME));
+  }
+
+  @Test
+  public void testLeastSevereDroppedWhenQueueIsFull() {
+    NotificationManager manager = new NotificationManager(new RecordingView(), new FrameScheduler(false));
+    for (int i = 0; i < NotificationManager.MAX_PENDING; i++) {
+      manager.post("Test Phase " + i + " - running", NotificationManager.Severity.INFO);
+    }
+    manager.post("Bridge in unknown state", NotificationManager.Severity.ERROR);
+    assertEquals(NotificationManager.MAX_PENDING, manager.getPendingCount());
+    assertEquals(1, manager.getDroppedCount());
+
+    assertTrue(manager.tick(System.nanoTime()));
+  }
+}
@@ -0,0 +1,124 @@
+package mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class OutboundSchedulerTest {
+
+  private static class RecordingSender implements MessageSender {
+    final List<String> sent = new CopyOnWriteArrayList<>();
+
+    @Override
+    public CompletableFuture<Void> sendAsync(String message) {
+      sent.add(message);
+      return CompletableFuture.completedFuture(null);
+    }
+  }
+
+  @Test
+  public void testClassification() {
+    assertEquals(OutboundScheduler.Priority.SAFETY, OutboundScheduler.classify("restart"));
+    assertEquals(OutboundScheduler.Priority.SAFETY, OutboundScheduler.classify("road_lights_red"));
+    assertEquals(OutboundScheduler.Priority.OPERATOR, OutboundScheduler.classify("allow_boat_traffic"));
+    assertEquals(OutboundScheduler.Priority.HEARTBEAT, OutboundScheduler.classify("heartbeat"));
+  }
+
+  @Test
+  public void testSafetyCommandsOvertakeQueuedTraffic() {
+    RecordingSender sender = new RecordingSender();
+    // One token, refilled very slowly, so everything after the first send queues up
+    OutboundScheduler scheduler = new OutboundScheduler(sender, 1, 0.001);
+
+    scheduler.sendAsync("allow_boat_traffic");
+    scheduler.sendAsync("heartbeat");
+    scheduler.sendAsync("run_full_test");
+    scheduler.sendAsync("restart");
+
+    assertEquals(List.of("allow_boat_traffic"), sender.sent);
+    assertEquals(3, scheduler.getPendingCount());
+  }
+
+  @Test
+  public void testRedundantCommandsAreCoalesced() {
+    RecordingSender sender = new RecordingSender();
+    OutboundScheduler scheduler = new OutboundScheduler(sender, 1, 0.001);
+
+    scheduler.sendAsync("allow_road_traffic");
+    CompletableFuture<Void> yellow = scheduler.sendAsync("road_lights_yellow");
+    CompletableFuture<Void> green = scheduler.sendAsync("road_lights_green");
+    scheduler.sendAsync("heartbeat");
+    scheduler.sendAsync("heartbeat");
+
+    assertEquals(2, scheduler.getPendingCount());
+    assertEquals(2, scheduler.getCoalescedCount());
+    // The replaced colour never goes out, so its caller is told so
+    assertTrue(yellow.isCompletedExceptionally());
+    assertFalse(green.isDone());
+  }
+
+  @Test
+  public void testSupersededCommandFailsInsteadOfFollowingItsReplacement() throws Exception {
+    RecordingSender sender = new RecordingSender();
+    OutboundScheduler scheduler = new OutboundScheduler(sender, 1, 20);
+
+    scheduler.sendAsync("allow_road_traffic");
+    CompletableFuture<Void> automatic = scheduler.sendAsync("automatic_mode");
+    CompletableFuture<Void> override = scheduler.sendAsync("override_mode");
+    CompletableFuture<Void> firstBeat = scheduler.sendAsync("heartbeat");
+    CompletableFuture<Void> secondBeat = scheduler.sendAsync("heartbeat");
+
+    Throwable[] error = new Throwable[1];
+    automatic.whenComplete((ignored, failure) -> error[0] = failure);
+    assertTrue(error[0] instanceof CancellationException);
+    assertTrue(error[0].getMessage().contains("override_mode"));
+
+    // An identical message still goes out, so its future completes with the newer send
+    override.get(2, TimeUnit.SECONDS);
+    firstBeat.get(2, TimeUnit.SECONDS);
+    assertTrue(secondBeat.isDone());
+    assertEquals(List.of("allow_road_traffic", "override_mode", "heartbeat"), sender.sent);
+  }
+
+  @Test
+  public void testQueueFullWarningDrainsBucket() {
+    RecordingSender sender = new RecordingSender();
+    OutboundScheduler scheduler = new OutboundScheduler(sender, 5, 0.001);
+
+    scheduler.onControllerQueueFull(3);
+    scheduler.sendAsync("allow_boat_traffic");
+
+    assertEquals(0, sender.sent.size());
+    assertEquals(1, scheduler.getPendingCount());
+    assertEquals(1, scheduler.getQueueFullWarnings());
+  }
+
+  @Test
+  public void testRateLimitedBurstIsDeliveredInPriorityOrder() throws Exception {
+    RecordingSender sender = new RecordingSender();
+    // Two tokens, refilled at 50 per second
+    OutboundScheduler scheduler = new OutboundScheduler(sender, 2, 50);
+
+    scheduler.sendAsync("allow_boat_traffic");
+    scheduler.sendAsync("allow_road_traffic");
+    scheduler.sendAsync("heartbeat");
+    scheduler.sendAsync("run_full_test");
+    CompletableFuture<Void> last = scheduler.sendAsync("boat_lights_red");
+
+    assertEquals(2, sender.sent.size());
+    last.get(2, TimeUnit.SECONDS);
+    for (int i = 0; i < 200 && sender.sent.size() < 5; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals(List.of("allow_boat_traffic", "allow_road_traffic", "boat_lights_red", "run_full_test", "heartbeat"),
+        sender.sent);
+  }
+}
@@ -0,0 +1,68 @@
+package mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class PhiAccrualDetectorTest {
+  private static final long MS = 1_000_000L;
+
+  @Test
+  public void testPhiGrowsWithSilence() {
+    PhiAccrualDetector detector = new PhiAccrualDetector(100, 50 * MS, 0, 1000 * MS);
+    long now = MS;
+    for (int i = 0; i < 20; i++) {
+      detector.heartbeat(now);
+      now += 1000 * MS;
+    }
+    long last = now - 1000 * MS;
+
+    assertTrue(detector.phi(last + 500 * MS) < 1);
+    assertTrue(detector.phi(last + 1000 * MS) < detector.phi(last + 1200 * MS));
+    assertTrue(detector.phi(last + 1500 * MS) > 8);
+  }
+
+  @Test
+  public void testJitteryLinkIsSuspectedLater() {
+    PhiAccrualDetector steady = new PhiAccrualDetector(100, 10 * MS, 0, 1000 * MS);
+    PhiAccrualDetector jittery = new PhiAccrualDetector(100, 10 * MS, 0, 1000 * MS);
+    long steadyTime = MS;
+    long jitteryTime = MS;
+    for (int i = 0; i < 50; i++) {
+      steady.heartbeat(steadyTime);
+      jittery.heartbeat(jitteryTime);
+      steadyTime += 1000 * MS;
+      jitteryTime += (i % 2 == 0 ? 600 : 1400) * MS;
+    }
+    long silence = 1600 * MS;
+    assertTrue(jittery.phi(jitteryTime - 600 * MS + silence) < steady.phi(steadyTime - 1000 * MS + silence));
+  }
+
+  @Test
+  public void testMonitorWarnsThenLosesThenRecovers() {
+    List<LivenessMonitor.State> transitions = new ArrayList<>();
+    LivenessMonitor monitor = new LivenessMonitor(
+        (previous, current, phi, silence) -> transitions.add(current), 3.0, 8.0, TimerWheel.shared());
+
+    long now = MS;
+    monitor.evaluate(now);
+    assertEquals(LivenessMonitor.State.WAITING, monitor.getState());
+
+    for (int i = 0; i < 20; i++) {
+      monitor.noteStatusReceived(now);
+      now += 1000 * MS;
+    }
+    long last = now - 1000 * MS;
+    for (long t = last; t < last + 10_000 * MS; t += 100 * MS) {
+      monitor.evaluate(t);
+    }
+    monitor.noteStatusReceived(last + 10_000 * MS);
+
+    assertEquals(List.of(LivenessMonitor.State.HEALTHY, LivenessMonitor.State.SUSPECT,
+        LivenessMonitor.State.LOST, LivenessMonitor.State.HEALTHY), transitions);
+  }
+}
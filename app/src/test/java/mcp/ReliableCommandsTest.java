@@ -0,0 +1,99 @@
+package mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class ReliableCommandsTest {
+
+  @Test
+  public void testParseSequence() {
+    assertEquals(42, ReliableCommands.parseSequence("ACK:SEQ:42"));
+    assertEquals(7, ReliableCommands.parseSequence("allow_boat_traffic|SEQ:7"));
+    assertEquals(-1, ReliableCommands.parseSequence("allow_boat_traffic"));
+    assertEquals(-1, ReliableCommands.parseSequence("SEQ:"));
+  }
+
+  @Test
+  public void testRttEstimatorConvergesAndClamps() {
+    long min = TimeUnit.MILLISECONDS.toNanos(100);
+    long max = TimeUnit.SECONDS.toNanos(4);
+    RttEstimator estimator = new RttEstimator(TimeUnit.MILLISECONDS.toNanos(500), min, max);
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(500), estimator.getRtoNanos());
+
+    for (int i = 0; i < 50; i++) {
+      estimator.addSample(TimeUnit.MILLISECONDS.toNanos(10));
+    }
+    // A steady 10 ms link converges below the floor, so the floor applies
+    assertEquals(min, estimator.getRtoNanos());
+    assertTrue(Math.abs(estimator.getSmoothedRttNanos() - TimeUnit.MILLISECONDS.toNanos(10)) < 1_000_000);
+
+    estimator.addSample(TimeUnit.SECONDS.toNanos(30));
+    assertEquals(max, estimator.getRtoNanos());
+  }
+
+  // Time spent in the local rate limiter before the transport sends is not round trip
+  @Test
+  public void testRttExcludesLocalQueueing() throws Exception {
+    List<String> sent = new ArrayList<>();
+    List<CompletableFuture<Void>> sends = new ArrayList<>();
+    MessageSender heldTransport = message -> {
+      CompletableFuture<Void> send = new CompletableFuture<>();
+      sent.add(message);
+      sends.add(send);
+      return send;
+    };
+    TimerWheel wheel = new TimerWheel(TimeUnit.MILLISECONDS.toNanos(10), 64, "test-wheel");
+    wheel.stop();
+    ReliableCommands reliable = new ReliableCommands(heldTransport, wheel);
+
+    CompletableFuture<Long> future = reliable.sendCommand("allow_boat_traffic");
+    Thread.sleep(300);
+    sends.get(0).complete(null);
+    reliable.acknowledge(ReliableCommands.parseSequence(sent.get(0)));
+
+    long limit = TimeUnit.MILLISECONDS.toNanos(100);
+    assertTrue(future.get() < limit, "rtt: " + future.get());
+    assertTrue(reliable.getRttEstimator().getSmoothedRttNanos() < limit);
+  }
+
+  @Test
+  public void testAckCompletesCommandAndSuppressesDuplicates() throws Exception {
+    try (DatagramSocket controller = new DatagramSocket(0, InetAddress.getLoopbackAddress())) {
+      controller.setSoTimeout(2000);
+      Send send = new Send(controller.getLocalPort(), "127.0.0.1");
+      ReliableCommands reliable = new ReliableCommands(send);
+
+      CompletableFuture<Long> future = reliable.sendCommand("road_lights_red");
+      // Same command while still in flight must not create a second execution
+      assertSame(future, reliable.sendCommand("road_lights_red"));
+      assertEquals(1, reliable.getInFlightCount());
+
+      byte[] buffer = new byte[256];
+      DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+      controller.receive(packet);
+      String wire = new String(packet.getData(), 0, packet.getLength());
+      assertTrue(wire.startsWith("road_lights_red|SEQ:"), "Unexpected wire format: " + wire);
+
+      long sequence = ReliableCommands.parseSequence(wire);
+      assertTrue(reliable.acknowledgeExecution(sequence));
+      assertTrue(future.isDone());
+      assertEquals(0, reliable.getInFlightCount());
+
+      // A repeated reply for the same SEQ is reported as a duplicate
+      assertFalse(reliable.acknowledgeExecution(sequence));
+      assertEquals(1, reliable.getDuplicateAcks());
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetAddress;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class StatusDeltaTest {
+  private static final String FULL = "STATUS: TSEQ:%d|MODE:AUTOMATIC|BRIDGE:CLOSED|GATE:OPEN|ROAD_DISTANCE:12"
+      + "|BOAT_DISTANCE:80|ROAD_LIGHT:GREEN|BOAT_LIGHT:RED|SEQUENCE:IDLE|QUEUE:0";
+
+  private static Fleet testFleet() {
+    TimerWheel wheel = new TimerWheel(TimeUnit.MILLISECONDS.toNanos(10), 64, "test-wheel");
+    wheel.stop();
+    return new Fleet(null, 9, false, wheel);
+  }
+
+  @Test
+  public void testApplyDeltaKeepsUnchangedFields() {
+    BridgeStatus base = BridgeStatus.parse(String.format(FULL, 10), 0, 10);
+    BridgeStatus merged = BridgeStatus.applyDelta(base, "STATUS_DELTA: TSEQ:11|BASE:10|ROAD_DISTANCE:13", 5, 11);
+    assertEquals("13", merged.get(BridgeStatus.Field.ROAD_DISTANCE));
+    assertEquals("CLOSED", merged.get(BridgeStatus.Field.BRIDGE));
+    assertEquals(11, merged.getSequence());
+    assertEquals("12", base.get(BridgeStatus.Field.ROAD_DISTANCE));
+  }
+
+  @Test
+  public void testChainedAndKeyFrameDeltas() throws Exception {
+    Fleet fleet = testFleet();
+    Receive receive = new Receive(0, null, fleet);
+    InetAddress source = InetAddress.getByName("127.1.0.1");
+    try {
+      receive.handleDatagram(source, String.format(FULL, 10), System.nanoTime());
+      BridgeEndpoint endpoint = fleet.endpointFor(source);
+
+      // Chained: each delta is based on the one before
+      receive.handleDatagram(source, "STATUS_DELTA: TSEQ:11|BASE:10|ROAD_DISTANCE:13", System.nanoTime());
+      receive.handleDatagram(source, "STATUS_DELTA: TSEQ:12|BASE:11|BRIDGE:OPEN", System.nanoTime());
+      assertEquals("13", endpoint.getLatestStatus().get(BridgeStatus.Field.ROAD_DISTANCE));
+      assertEquals("OPEN", endpoint.getLatestStatus().get(BridgeStatus.Field.BRIDGE));
+
+      // Against the last full STATUS, so losing 13 wouldn't have mattered
+      receive.handleDatagram(source, "STATUS_DELTA: TSEQ:14|BASE:10|GATE:CLOSED", System.nanoTime());
+      assertEquals("CLOSED", endpoint.getLatestStatus().get(BridgeStatus.Field.GATE));
+      assertEquals("CLOSED", endpoint.getLatestStatus().get(BridgeStatus.Field.BRIDGE));
+      assertEquals(14, endpoint.getLatestStatus().getSequence());
+
+      assertEquals(1, receive.getFullFrames());
+      assertEquals(3, receive.getDeltaFrames());
+      assertEquals(0, receive.getDeltaResyncs());
+    } finally {
+      fleet.stop();
+    }
+  }
+
+  @Test
+  public void testMissingBaseRequestsResync() throws Exception {
+    Fleet fleet = testFleet();
+    Receive receive = new Receive(0, null, fleet);
+    InetAddress source = InetAddress.getByName("127.1.0.2");
+    try {
+      receive.handleDatagram(source, String.format(FULL, 10), System.nanoTime());
+      BridgeEndpoint endpoint = fleet.endpointFor(source);
+
+      receive.handleDatagram(source, "STATUS_DELTA: TSEQ:13|BASE:12|ROAD_DISTANCE:99", System.nanoTime());
+      receive.handleDatagram(source, "STATUS_DELTA: TSEQ:14|BASE:13|ROAD_DISTANCE:98", System.nanoTime());
+      assertEquals("12", endpoint.getLatestStatus().get(BridgeStatus.Field.ROAD_DISTANCE));
+      assertEquals(2, receive.getDeltaResyncs());
+      // The first failure sent a request, the second was too soon after it
+      assertFalse(endpoint.requestResync(System.nanoTime()));
+      assertTrue(endpoint.requestResync(System.nanoTime() + TimeUnit.SECONDS.toNanos(1)));
+
+      receive.handleDatagram(source, String.format(FULL, 15), System.nanoTime());
+      receive.handleDatagram(source, "STATUS_DELTA: TSEQ:16|BASE:15|ROAD_DISTANCE:20", System.nanoTime());
+      assertEquals("20", endpoint.getLatestStatus().get(BridgeStatus.Field.ROAD_DISTANCE));
+    } finally {
+      fleet.stop();
+    }
+  }
+}
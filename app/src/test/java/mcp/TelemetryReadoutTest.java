@@ -0,0 +1,66 @@
+package mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import org.junit.jupiter.api.Test;
+
+public class TelemetryReadoutTest {
+  @Test
+  public void testOnlyChangedCellsRepaint() {
+    TelemetryReadout readout = new TelemetryReadout(250);
+    Dimension size = readout.getPreferredSize();
+    readout.setBounds(0, 0, size.width, size.height);
+
+    readout.set(TelemetryReadout.Cell.MODE, "AUTOMATIC", Color.GREEN);
+    readout.set(TelemetryReadout.Cell.ROAD_DISTANCE, "12 cm");
+    assertEquals(2, readout.getCellRepaints());
+
+    // Same text and colour again, e.g. from a repeated STATUS, changes nothing
+    readout.set(TelemetryReadout.Cell.MODE, "AUTOMATIC", new Color(0, 255, 0));
+    readout.set(TelemetryReadout.Cell.ROAD_DISTANCE, "12 cm");
+    assertEquals(2, readout.getCellRepaints());
+
+    readout.set(TelemetryReadout.Cell.MODE, "OVERRIDE", Color.RED);
+    assertEquals(3, readout.getCellRepaints());
+    assertEquals("OVERRIDE", readout.getValue(TelemetryReadout.Cell.MODE));
+
+    readout.setHeartbeats(10, 2, 2000);
+    readout.setHeartbeats(10, 2, 2000);
+    assertEquals(4, readout.getCellRepaints());
+    assertEquals("10 sent, 2 skipped (2.0 s)", readout.getValue(TelemetryReadout.Cell.HEARTBEATS));
+
+    // The component never asks for a new size
+    assertEquals(size, readout.getPreferredSize());
+  }
+
+  @Test
+  public void testPaintsValuesInTheirColour() {
+    TelemetryReadout readout = new TelemetryReadout(250);
+    Dimension size = readout.getPreferredSize();
+    readout.setBounds(0, 0, size.width, size.height);
+    readout.set(TelemetryReadout.Cell.MODE, "OVERRIDE", Color.RED);
+
+    BufferedImage image = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g2d = image.createGraphics();
+    g2d.setClip(0, 0, size.width, size.height);
+    readout.paint(g2d);
+    g2d.dispose();
+
+    boolean foundRed = false;
+    for (int x = 0; x < size.width && !foundRed; x++) {
+      for (int y = 0; y < size.height / 4; y++) {
+        if (image.getRGB(x, y) == Color.RED.getRGB()) {
+          foundRed = true;
+          break;
+        }
+      }
+    }
+    assertTrue(foundRed);
+  }
+}
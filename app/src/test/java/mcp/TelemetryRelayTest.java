@@ -0,0 +1,133 @@
+package mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class TelemetryRelayTest {
+  private static final String STATUS = "STATUS: MODE:AUTOMATIC|BRIDGE:CLOSED|GATE:OPEN|ROAD_LIGHT:GREEN";
+
+  private static TimerWheel stoppedWheel() {
+    TimerWheel wheel = new TimerWheel(TimeUnit.MILLISECONDS.toNanos(10), 64, "test-wheel");
+    wheel.stop();
+    return wheel;
+  }
+
+  @Test
+  public void testDeltaContainsOnlyChangedFields() {
+    BridgeStatus closed = BridgeStatus.parse(STATUS, 0);
+    BridgeStatus open = BridgeStatus.parse(STATUS.replace("CLOSED", "OPEN"), 0);
+    assertEquals("BRIDGE:OPEN", BridgeStatus.formatDelta(closed, open));
+    assertEquals("", BridgeStatus.formatDelta(open, open));
+
+    BridgeStatus rebuilt = BridgeStatus.parse(closed.format() + "|" + BridgeStatus.formatDelta(closed, open), 0);
+    assertEquals(open.format(), rebuilt.format());
+  }
+
+  @Test
+  public void testViewerGetsSnapshotThenDeltas() throws Exception {
+    InetAddress bridge = InetAddress.getByAddress(new byte[] { 127, 4, 0, 1 });
+
+    Fleet ingestFleet = new Fleet(null, 9, false, stoppedWheel());
+    Receive ingest = new Receive(null, ingestFleet);
+    TelemetryRelay relay = new TelemetryRelay(0, ingestFleet);
+    ingest.setTelemetryRelay(relay);
+    relay.start();
+
+    Fleet viewerFleet = new Fleet(null, 9, false, stoppedWheel());
+    viewerFleet.setReadOnly(true);
+    TelemetryViewer viewer = new TelemetryViewer("127.0.0.1", relay.getPort(), new Receive(null, viewerFleet), null);
+    try {
+      // State that exists before the viewer joins arrives as a snapshot
+      ingest.handleDatagram(bridge, STATUS, System.nanoTime());
+      viewer.start();
+      waitFor(() -> relay.getViewerCount() == 1);
+      waitFor(() -> viewerFleet.size() == 1);
+
+      ingest.handleDatagram(bridge, STATUS.replace("CLOSED", "OPEN"), System.nanoTime());
+      BridgeEndpoint mirrored = viewerFleet.endpointFor(bridge);
+      waitFor(() -> "OPEN".equals(mirrored.getLatestStatus().get(BridgeStatus.Field.BRIDGE)));
+      assertEquals("GREEN", mirrored.getLatestStatus().get(BridgeStatus.Field.ROAD_LIGHT));
+
+      // Unchanged STATUS still reaches the viewer, keeping its liveness monitor fed
+      long before = mirrored.getPacketsReceived();
+      ingest.handleDatagram(bridge, STATUS.replace("CLOSED", "OPEN"), System.nanoTime());
+      waitFor(() -> mirrored.getPacketsReceived() == before + 1);
+      assertTrue(mirrored.getOutboundScheduler().sendAsync("restart").isCompletedExceptionally());
+    } finally {
+      viewer.stopViewer();
+      relay.stop();
+      ingestFleet.stop();
+      viewerFleet.stop();
+    }
+  }
+
+  // While the bridge is idle the ingest console drops every STATUS as a repeat;
+  // the relay's keepalives still have to reach viewers
+  @Test
+  public void testViewersStayHealthyUnderIdenticalRepeats() throws Exception {
+    InetAddress bridge = InetAddress.getByAddress(new byte[] { 127, 4, 0, 2 });
+
+    Fleet ingestFleet = new Fleet(null, 9, false, stoppedWheel());
+    Receive ingest = new Receive(null, ingestFleet);
+    TelemetryRelay relay = new TelemetryRelay(0, ingestFleet);
+    ingest.setTelemetryRelay(relay);
+    relay.start();
+
+    Fleet viewerFleet = new Fleet(null, 9, false, stoppedWheel());
+    viewerFleet.setReadOnly(true);
+    TelemetryViewer viewer = new TelemetryViewer("127.0.0.1", relay.getPort(), new Receive(null, viewerFleet), null);
+    byte[] idle = STATUS.getBytes(StandardCharsets.US_ASCII);
+    try {
+      ingest.handleFrame(bridge, idle, idle.length, System.nanoTime());
+      viewer.start();
+      waitFor(() -> viewerFleet.size() == 1);
+
+      // Changing STATUS every 100 ms sets the viewer's expected interval
+      for (int i = 0; i < 10; i++) {
+        byte[] changing = STATUS.replace("CLOSED", i % 2 == 0 ? "OPEN" : "CLOSED").getBytes(StandardCharsets.US_ASCII);
+        ingest.handleFrame(bridge, changing, changing.length, System.nanoTime());
+        Thread.sleep(100);
+      }
+      BridgeEndpoint mirrored = viewerFleet.endpointFor(bridge);
+      waitFor(() -> mirrored.getPacketsReceived() >= 11);
+      long beforeRepeats = mirrored.getPacketsReceived();
+
+      // Then two seconds of nothing but repeats
+      for (int i = 0; i < 20; i++) {
+        ingest.handleFrame(bridge, idle, idle.length, System.nanoTime());
+        Thread.sleep(100);
+      }
+      assertEquals(20, ingest.getDuplicateFrames());
+
+      // One keepalive per KEEPALIVE_INTERVAL reaches the viewer, not one per repeat
+      long keepalives = mirrored.getPacketsReceived() - beforeRepeats;
+      assertTrue(keepalives >= 5 && keepalives <= 10, "keepalives: " + keepalives);
+      LivenessMonitor liveness = mirrored.getLivenessMonitor();
+      liveness.evaluate(System.nanoTime());
+      assertEquals(LivenessMonitor.State.HEALTHY, liveness.getState());
+    } finally {
+      viewer.stopViewer();
+      relay.stop();
+      ingestFleet.stop();
+      viewerFleet.stop();
+    }
+  }
+
+  private interface Condition {
+    boolean met();
+  }
+
+  private static void waitFor(Condition condition) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!condition.met()) {
+      assertTrue(System.nanoTime() < deadline, "Timed out waiting for relay");
+      Thread.sleep(10);
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+public class TimerWheelTest {
+
+  @Test
+  public void testOneShotFiresAfterDelay() throws Exception {
+    TimerWheel wheel = new TimerWheel(TimeUnit.MILLISECONDS.toNanos(5), 64, "test-wheel");
+    try {
+      CountDownLatch fired = new CountDownLatch(1);
+      long start = System.nanoTime();
+      wheel.schedule(fired::countDown, 50, TimeUnit.MILLISECONDS);
+
+      assertTrue(fired.await(2, TimeUnit.SECONDS));
+      long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      assertTrue(elapsedMillis >= 50, "Fired early after " + elapsedMillis + " ms");
+      assertEquals(0, wheel.getActiveCount());
+    } finally {
+      wheel.stop();
+    }
+  }
+
+  @Test
+  public void testDelayLongerThanOneRotation() throws Exception {
+    // 16 buckets of 5 ms = 80 ms per rotation
+    TimerWheel wheel = new TimerWheel(TimeUnit.MILLISECONDS.toNanos(5), 16, "test-wheel");
+    try {
+      CountDownLatch fired = new CountDownLatch(1);
+      long start = System.nanoTime();
+      wheel.schedule(fired::countDown, 200, TimeUnit.MILLISECONDS);
+
+      assertTrue(fired.await(2, TimeUnit.SECONDS));
+      assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 200);
+    } finally {
+      wheel.stop();
+    }
+  }
+
+  @Test
+  public void testCancelledTimeoutNeverFires() throws Exception {
+    TimerWheel wheel = new TimerWheel(TimeUnit.MILLISECONDS.toNanos(5), 64, "test-wheel");
+    try {
+      AtomicInteger runs = new AtomicInteger();
+      TimerWheel.Timeout timeout = wheel.schedule(runs::incrementAndGet, 30, TimeUnit.MILLISECONDS);
+      assertTrue(timeout.cancel());
+      assertFalse(timeout.cancel());
+
+      Thread.sleep(100);
+      assertEquals(0, runs.get());
+      assertEquals(0, wheel.getActiveCount());
+    } finally {
+      wheel.stop();
+    }
+  }
+
+  @Test
+  public void testPeriodicTaskRepeatsUntilCancelled() throws Exception {
+    TimerWheel wheel = new TimerWheel(TimeUnit.MILLISECONDS.toNanos(5), 64, "test-wheel");
+    try {
+      CountDownLatch threeRuns = new CountDownLatch(3);
+      TimerWheel.Timeout timeout = wheel.schedulePeriodic(threeRuns::countDown, 0, 20, TimeUnit.MILLISECONDS);
+      assertTrue(threeRuns.await(2, TimeUnit.SECONDS));
+      timeout.cancel();
+      assertEquals(0, wheel.getActiveCount());
+    } finally {
+      wheel.stop();
+    }
+  }
+
+  @Test
+  public void testTenThousandEndpointsBenchmark() throws Exception {
+    final int endpoints = 10_000;
+    final long intervalMillis = 200;
+    TimerWheel wheel = new TimerWheel(TimeUnit.MILLISECONDS.toNanos(10), 512, "bench-wheel");
+    try {
+      AtomicLong beats = new AtomicLong();
+      TimerWheel.Timeout[] heartbeats = new TimerWheel.Timeout[endpoints];
+
+      long scheduleStart = System.nanoTime();
+      for (int i = 0; i < endpoints; i++) {
+        heartbeats[i] = wheel.schedulePeriodicStaggered(beats::incrementAndGet, 0, intervalMillis,
+            TimeUnit.MILLISECONDS);
+      }
+      long scheduleNanos = System.nanoTime() - scheduleStart;
+
+      Thread.sleep(1000);
+      long firedInOneSecond = beats.get();
+
+      long cancelStart = System.nanoTime();
+      for (TimerWheel.Timeout heartbeat : heartbeats) {
+        heartbeat.cancel();
+      }
+      long cancelNanos = System.nanoTime() - cancelStart;
+
+      System.out.printf("Timer wheel, %d endpoints @ %d ms: schedule %.0f ns/op, cancel %.0f ns/op, "
+          + "%d beats in 1 s%n", endpoints, intervalMillis, (double) scheduleNanos / endpoints,
+          (double) cancelNanos / endpoints, firedInOneSecond);
+
+      // Each endpoint beats ~5 times a second; allow generous slack for slow CI machines
+      assertTrue(firedInOneSecond >= endpoints * 3L, "Only " + firedInOneSecond + " beats fired");
+      assertEquals(0, wheel.getActiveCount());
+    } finally {
+      wheel.stop();
+    }
+  }
+}